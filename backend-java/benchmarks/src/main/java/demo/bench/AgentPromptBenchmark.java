@@ -0,0 +1,154 @@
+package demo.bench;
+
+import demo.mapper.TaskAssignmentMapper;
+import demo.mapper.UserMapper;
+import demo.pojo.Group;
+import demo.pojo.Task;
+import demo.pojo.TaskAssignment;
+import demo.pojo.User;
+import demo.service.StudentService;
+import demo.service.impl.AgentServiceImpl;
+import demo.utils.AgentContextProperties;
+import demo.utils.UserNameCache;
+import demo.utils.UserNameCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The initial-advice and chat calls of AgentService with the data layer stubbed out and the agent
+ * backend answering instantly, so the time is prompt assembly (assignment names through
+ * UserNameCache, the token-budgeted history window) plus serializing the request and reading the reply
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AgentPromptBenchmark {
+
+    private static final Long TASK_ID = 1L;
+    private static final Long GROUP_ID = 7L;
+    private static final Long USER_ID = 1001L;
+    private static final byte[] AGENT_REPLY =
+            "{\"status\":\"success\",\"advice\":\"ok\",\"response\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+
+    /** Group members, each with one assignment */
+    @Param({"5", "50"})
+    public int members;
+
+    /** Messages returned by the recent-conversation query, before the token budget is applied */
+    @Param({"10", "40"})
+    public int history;
+
+    private AgentServiceImpl agentService;
+    private Task task;
+    private Group group;
+    private List<TaskAssignment> assignments;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        task = new Task();
+        task.setId(TASK_ID);
+        task.setGroupId(GROUP_ID);
+        task.setTitle("Capstone project");
+        task.setDescription("Build a team collaboration platform with an AI assistant. ".repeat(20));
+
+        group = new Group();
+        group.setId(GROUP_ID);
+        group.setName("Almond");
+
+        assignments = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            TaskAssignment assignment = new TaskAssignment();
+            assignment.setTaskId(TASK_ID);
+            assignment.setUserId(USER_ID + i);
+            assignment.setDescription("Implement and test feature " + i + " of the platform");
+            assignments.add(assignment);
+        }
+
+        List<Map<String, Object>> messages = new ArrayList<>(history);
+        for (int i = 0; i < history; i++) {
+            Map<String, Object> message = new HashMap<>();
+            message.put("role", i % 2 == 0 ? "USER" : "AGENT");
+            message.put("user_name", "Student " + i);
+            message.put("content", "Message " + i + ": " + "progress update and follow-up question. ".repeat(15));
+            message.put("created_at", LocalDateTime.now().minusMinutes(history - i));
+            messages.add(message);
+        }
+
+        StudentService studentService = Stubs.of(StudentService.class, Map.of(
+                "getTaskById", args -> task,
+                "getGroupById", args -> group,
+                "getRecentConversation", args -> messages,
+                "saveConversationMessage", args -> null));
+        TaskAssignmentMapper taskAssignmentMapper = Stubs.of(TaskAssignmentMapper.class, Map.of(
+                "findByTaskId", args -> assignments));
+        UserMapper userMapper = Stubs.of(UserMapper.class, Map.of(
+                "findNamesByIds", args -> ((Collection<?>) args[0]).stream().map(id -> {
+                    User user = new User();
+                    user.setId((Long) id);
+                    user.setName("Student " + id);
+                    return user;
+                }).toList()));
+
+        UserNameCache userNameCache = new UserNameCache();
+        ReflectionTestUtils.setField(userNameCache, "userMapper", userMapper);
+        ReflectionTestUtils.setField(userNameCache, "properties", new UserNameCacheProperties());
+        ReflectionTestUtils.setField(userNameCache, "meterRegistry", new SimpleMeterRegistry());
+        userNameCache.init();
+
+        // Every request to the agent backend gets the same canned reply without touching the network
+        RestTemplate restTemplate = new RestTemplate((uri, method) -> {
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            MockClientHttpResponse response = new MockClientHttpResponse(AGENT_REPLY, HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            request.setResponse(response);
+            return request;
+        });
+
+        agentService = new AgentServiceImpl();
+        ReflectionTestUtils.setField(agentService, "restTemplate", restTemplate);
+        ReflectionTestUtils.setField(agentService, "pythonBackendUrl", "http://agent.invalid");
+        ReflectionTestUtils.setField(agentService, "studentService", studentService);
+        ReflectionTestUtils.setField(agentService, "taskAssignmentMapper", taskAssignmentMapper);
+        ReflectionTestUtils.setField(agentService, "userNameCache", userNameCache);
+        ReflectionTestUtils.setField(agentService, "agentContextProperties", new AgentContextProperties());
+    }
+
+    @Benchmark
+    public String initialAssignmentAdvice() {
+        return agentService.getInitialAssignmentAdvice(TASK_ID, USER_ID);
+    }
+
+    @Benchmark
+    public String sendMessageToConversation() {
+        return agentService.sendMessageToConversation(TASK_ID, USER_ID, "What should I work on this week?");
+    }
+}
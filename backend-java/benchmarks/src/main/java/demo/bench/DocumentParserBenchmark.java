@@ -0,0 +1,161 @@
+package demo.bench;
+
+import demo.utils.DocumentCacheProperties;
+import demo.utils.DocumentParser;
+import demo.utils.DocumentTextCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.poi.hwpf.HWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DocumentParser on generated fixtures of increasing size, read through file: URLs.
+ * parse runs with the text cache off, so every call downloads and parses;
+ * parseCached shows the cost of a content-cache hit on the same bytes.
+ *
+ * POI cannot write .doc files from scratch, so DOC is not in the default set. Run it with
+ * -p format=DOC -jvmArgsAppend -Dbench.docTemplate=/path/to/any.doc; the template's text is
+ * extended to the requested size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentParserBenchmark {
+
+    private static final String PARAGRAPH = "During this sprint the group completed the login flow, reviewed the "
+            + "database schema and agreed on the weekly goals for every member of the project team.";
+
+    @Param({"PDF", "DOCX", "TXT"})
+    public String format;
+
+    /** Number of paragraphs, roughly 170 characters each */
+    @Param({"10", "200", "2000"})
+    public int paragraphs;
+
+    private Path dir;
+    private String url;
+    private DocumentParser uncachedParser;
+    private DocumentParser cachedParser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("parser-bench");
+        Path file = dir.resolve("fixture." + format.toLowerCase());
+        switch (format) {
+            case "PDF" -> writePdf(file);
+            case "DOCX" -> writeDocx(file);
+            case "DOC" -> writeDoc(file);
+            case "TXT" -> Files.writeString(file, (PARAGRAPH + "\n").repeat(paragraphs), StandardCharsets.UTF_8);
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        }
+        url = file.toUri().toString();
+
+        uncachedParser = parser(false);
+        cachedParser = parser(true);
+        cachedParser.parseDocumentFromUrl(url);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.walk(dir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public String parse() {
+        return uncachedParser.parseDocumentFromUrl(url);
+    }
+
+    @Benchmark
+    public String parseCached() {
+        return cachedParser.parseDocumentFromUrl(url);
+    }
+
+    private static DocumentParser parser(boolean cacheEnabled) {
+        DocumentCacheProperties properties = new DocumentCacheProperties();
+        properties.setEnabled(cacheEnabled);
+        DocumentTextCache cache = new DocumentTextCache();
+        ReflectionTestUtils.setField(cache, "properties", properties);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        cache.init();
+        DocumentParser parser = new DocumentParser();
+        ReflectionTestUtils.setField(parser, "documentTextCache", cache);
+        return parser;
+    }
+
+    private void writePdf(Path file) throws IOException {
+        try (PDDocument doc = new PDDocument()) {
+            int perPage = 40;
+            for (int start = 0; start < paragraphs; start += perPage) {
+                PDPage page = new PDPage();
+                doc.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(doc, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 6);
+                    content.setLeading(8);
+                    content.newLineAtOffset(20, 760);
+                    for (int i = start; i < Math.min(paragraphs, start + perPage); i++) {
+                        content.showText(PARAGRAPH);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            doc.save(file.toFile());
+        }
+    }
+
+    private void writeDocx(Path file) throws IOException {
+        try (XWPFDocument doc = new XWPFDocument(); OutputStream out = Files.newOutputStream(file)) {
+            for (int i = 0; i < paragraphs; i++) {
+                doc.createParagraph().createRun().setText(PARAGRAPH);
+            }
+            doc.write(out);
+        }
+    }
+
+    private void writeDoc(Path file) throws IOException {
+        String template = System.getProperty("bench.docTemplate");
+        if (template == null) {
+            throw new IllegalStateException("DOC fixtures need -Dbench.docTemplate=/path/to/any.doc");
+        }
+        try (InputStream in = Files.newInputStream(Paths.get(template));
+             HWPFDocument doc = new HWPFDocument(in);
+             OutputStream out = Files.newOutputStream(file)) {
+            for (int i = 0; i < paragraphs; i++) {
+                doc.getRange().insertAfter(PARAGRAPH + "\r");
+            }
+            doc.write(out);
+        }
+    }
+}
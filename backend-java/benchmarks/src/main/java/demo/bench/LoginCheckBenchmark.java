@@ -0,0 +1,68 @@
+package demo.bench;
+
+import demo.interceptor.LoginCheckInterceptor;
+import demo.utils.JwtCacheProperties;
+import demo.utils.JwtUtils;
+import demo.utils.JwtVerificationCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoginCheckInterceptor.preHandle on an authenticated request, with the verified-token cache
+ * on (repeat request, the common case) and off (full JWT signature check and claims parsing)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginCheckBenchmark {
+
+    @Param({"true", "false"})
+    public boolean tokenCache;
+
+    private LoginCheckInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtCacheProperties properties = new JwtCacheProperties();
+        properties.setEnabled(tokenCache);
+        JwtVerificationCache cache = new JwtVerificationCache();
+        ReflectionTestUtils.setField(cache, "properties", properties);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        cache.init();
+
+        interceptor = new LoginCheckInterceptor();
+        ReflectionTestUtils.setField(interceptor, "jwtVerificationCache", cache);
+
+        String token = JwtUtils.generateJwt(Map.of("userId", 42L, "username", "student42", "role", "STUDENT"));
+        request = new MockHttpServletRequest("GET", "/student/tasks");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public boolean preHandle() throws Exception {
+        return interceptor.preHandle(request, response, null);
+    }
+}
@@ -0,0 +1,83 @@
+package demo.bench;
+
+import com.alibaba.fastjson.JSON;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import demo.pojo.PageBean;
+import demo.pojo.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a paged Result, shaped like the task list rows controllers return.
+ * Jackson is what Spring MVC writes responses with; fastjson is used for the interceptor's
+ * error bodies and agent cache keys.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResultSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private Result result;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Same defaults Spring Boot applies to its ObjectMapper (ISO dates, java.time support)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<Map<String, Object>> page = new ArrayList<>(rows);
+        LocalDateTime created = LocalDateTime.of(2025, 6, 2, 9, 30);
+        for (int i = 0; i < rows; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", (long) i);
+            row.put("title", "Task " + i);
+            row.put("description", "Build and document module " + i + " of the group project");
+            row.put("status", i % 3 == 0 ? "COMPLETED" : "IN_PROGRESS");
+            row.put("group_id", (long) (i / 5));
+            row.put("group_name", "Group " + (i / 5));
+            row.put("due_date", LocalDate.of(2025, 8, 1).plusDays(i % 60));
+            row.put("cycle", 10);
+            row.put("created_at", created.plusHours(i));
+            page.add(row);
+        }
+        PageBean<Map<String, Object>> bean = new PageBean<>((long) rows * 10, page);
+        bean.setPage(1);
+        bean.setPageSize(rows);
+        result = Result.success(bean);
+    }
+
+    @Benchmark
+    public byte[] jackson() throws Exception {
+        return objectMapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public String fastjson() {
+        return JSON.toJSONString(result);
+    }
+}
@@ -0,0 +1,105 @@
+package demo.bench;
+
+import demo.pojo.User;
+import demo.service.impl.AdminServiceImpl;
+import demo.utils.SpreadsheetRowReader;
+import demo.utils.SpreadsheetRowReader.SheetRow;
+import demo.utils.UserBulkImporter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Student batch import up to the database: streaming the XLSX with SpreadsheetRowReader,
+ * then the per-row checks of AdminServiceImpl.importUserRows (the bulk insert itself is stubbed)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpreadsheetImportBenchmark {
+
+    private static final String[] HEADER = {"username", "password", "name", "email", "phone", "student_no"};
+
+    @Param({"1000", "10000", "50000"})
+    public int rows;
+
+    private Path file;
+    private AdminServiceImpl adminService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("students", ".xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(200); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("students");
+            Row header = sheet.createRow(0);
+            for (int c = 0; c < HEADER.length; c++) {
+                header.createCell(c).setCellValue(HEADER[c]);
+            }
+            for (int i = 1; i <= rows; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("student" + i);
+                row.createCell(1).setCellValue("Passw0rd!" + i);
+                row.createCell(2).setCellValue("Student " + i);
+                row.createCell(3).setCellValue("student" + i + "@example.edu");
+                row.createCell(4).setCellValue(400000000 + i);
+                row.createCell(5).setCellValue("z" + (5000000 + i));
+            }
+            workbook.write(out);
+            workbook.dispose();
+        }
+
+        // Stands in for the database half of the import
+        UserBulkImporter importer = new UserBulkImporter(null) {
+            @Override
+            public int importUsers(Map<Integer, User> users, String role, List<String> errors) {
+                return users.size();
+            }
+        };
+        adminService = new AdminServiceImpl();
+        ReflectionTestUtils.setField(adminService, "userBulkImporter", importer);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void read(Blackhole bh) throws Exception {
+        SpreadsheetRowReader.read(file, "students.xlsx", true, bh::consume);
+    }
+
+    @Benchmark
+    public int readAndValidate() throws Exception {
+        List<SheetRow> sheetRows = new ArrayList<>(rows);
+        SpreadsheetRowReader.read(file, "students.xlsx", true, sheetRows::add);
+        return adminService.importUserRows(sheetRows, "STUDENT", new ArrayList<>());
+    }
+}
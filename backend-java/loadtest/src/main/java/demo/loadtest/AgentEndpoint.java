@@ -0,0 +1,68 @@
+package demo.loadtest;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Behaviour and counters of one endpoint of the stub agent backend.
+ * Latencies follow a log-normal distribution fitted to the configured median and p99,
+ * which matches the long right tail of model calls far better than a fixed delay.
+ */
+final class AgentEndpoint {
+
+    // z-score of the 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.3263;
+
+    final String name;
+    final String path;
+    // Field of the success body that carries the answer
+    final String field;
+    final long latencyMedianMs;
+    final long latencyP99Ms;
+    final double errorRate;
+    final double hangRate;
+    final long hangMs;
+
+    final AtomicLong calls = new AtomicLong();
+    final AtomicLong errors = new AtomicLong();
+    final AtomicLong hangs = new AtomicLong();
+    final AtomicInteger inFlight = new AtomicInteger();
+    final AtomicInteger peakInFlight = new AtomicInteger();
+
+    AgentEndpoint(String name, String path, String field, long latencyMedianMs, long latencyP99Ms,
+                  double errorRate, double hangRate, long hangMs) {
+        this.name = name;
+        this.path = path;
+        this.field = field;
+        this.latencyMedianMs = latencyMedianMs;
+        this.latencyP99Ms = latencyP99Ms;
+        this.errorRate = errorRate;
+        this.hangRate = hangRate;
+        this.hangMs = hangMs;
+    }
+
+    /** Delay before answering one call; a p99 at or below the median gives a fixed delay */
+    long sampleLatencyMs(Random random) {
+        if (latencyP99Ms <= latencyMedianMs || latencyMedianMs <= 0) {
+            return Math.max(0, latencyMedianMs);
+        }
+        double sigma = Math.log((double) latencyP99Ms / latencyMedianMs) / Z_99;
+        return Math.round(latencyMedianMs * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    /** Counters since the previous call, for one step of the run */
+    Snapshot snapshotAndReset() {
+        return new Snapshot(calls.getAndSet(0), errors.getAndSet(0), hangs.getAndSet(0),
+                peakInFlight.getAndSet(inFlight.get()));
+    }
+
+    record Snapshot(long calls, long errors, long hangs, int peakConcurrent) {
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s: median %d ms, p99 %d ms, errors %.1f%%, hangs %.1f%% (%d ms)",
+                name, path, latencyMedianMs, latencyP99Ms, errorRate * 100, hangRate * 100, hangMs);
+    }
+}
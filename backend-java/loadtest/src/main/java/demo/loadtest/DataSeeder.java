@@ -0,0 +1,107 @@
+package demo.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills the empty database with the accounts and projects the sessions run against:
+ * active teachers and students, groups spread round-robin over the teachers, and one
+ * in-progress task per group with a finalized assignment for every member.
+ */
+final class DataSeeder {
+
+    static final String PASSWORD = "loadtest";
+
+    private final JdbcTemplate jdbc;
+
+    DataSeeder(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    /** A seeded student and the group and task they work on */
+    record Student(String username, long userId, long groupId, long taskId) {
+    }
+
+    record Teacher(String username, long userId) {
+    }
+
+    record Seed(List<Student> students, List<Teacher> teachers) {
+    }
+
+    Seed seed(int teacherCount, int groupCount, int studentsPerGroup) {
+        List<Object[]> users = new ArrayList<>();
+        for (int t = 1; t <= teacherCount; t++) {
+            users.add(new Object[]{"teacher" + t, PASSWORD, "Teacher " + t, "teacher" + t + "@loadtest.local", "TEACHER"});
+        }
+        for (int s = 1; s <= groupCount * studentsPerGroup; s++) {
+            users.add(new Object[]{"student" + s, PASSWORD, "Student " + s, "student" + s + "@loadtest.local", "STUDENT"});
+        }
+        jdbc.batchUpdate("INSERT INTO users (username, password, name, email, role, status) "
+                + "VALUES (?, ?, ?, ?, ?, 'ACTIVE')", users);
+        Map<String, Long> ids = new HashMap<>();
+        jdbc.query("SELECT id, username FROM users", rs -> {
+            ids.put(rs.getString("username"), rs.getLong("id"));
+        });
+
+        List<Teacher> teachers = new ArrayList<>();
+        for (int t = 1; t <= teacherCount; t++) {
+            teachers.add(new Teacher("teacher" + t, ids.get("teacher" + t)));
+        }
+        jdbc.batchUpdate("INSERT INTO teachers (user_id) VALUES (?)",
+                teachers.stream().map(t -> new Object[]{t.userId()}).toList());
+        jdbc.batchUpdate("INSERT INTO students (user_id, student_no) VALUES (?, ?)",
+                ids.entrySet().stream()
+                        .filter(e -> e.getKey().startsWith("student"))
+                        .map(e -> new Object[]{e.getValue(), "z" + (5000000 + e.getValue())})
+                        .toList());
+
+        List<Object[]> groups = new ArrayList<>();
+        for (int g = 1; g <= groupCount; g++) {
+            long teacherId = teachers.get((g - 1) % teacherCount).userId();
+            groups.add(new Object[]{"Group " + g, "Capstone group " + g, teacherId});
+        }
+        jdbc.batchUpdate("INSERT INTO `groups` (name, description, teacher_id) VALUES (?, ?, ?)", groups);
+        Map<String, Long> groupIds = new HashMap<>();
+        jdbc.query("SELECT id, name FROM `groups`", rs -> {
+            groupIds.put(rs.getString("name"), rs.getLong("id"));
+        });
+
+        List<Object[]> tasks = new ArrayList<>();
+        for (int g = 1; g <= groupCount; g++) {
+            tasks.add(new Object[]{"Project " + g, "Build a team collaboration platform with an AI assistant. "
+                    .repeat(10), groupIds.get("Group " + g)});
+        }
+        jdbc.batchUpdate("INSERT INTO tasks (title, description, group_id, status, due_date, cycle) "
+                + "VALUES (?, ?, ?, 'IN_PROGRESS', DATE_ADD(CURDATE(), INTERVAL 10 WEEK), 10)", tasks);
+        Map<Long, Long> taskIds = new HashMap<>();
+        jdbc.query("SELECT id, group_id FROM tasks", rs -> {
+            taskIds.put(rs.getLong("group_id"), rs.getLong("id"));
+        });
+
+        List<Student> students = new ArrayList<>();
+        List<Object[]> memberships = new ArrayList<>();
+        List<Object[]> assignments = new ArrayList<>();
+        for (int g = 1; g <= groupCount; g++) {
+            long groupId = groupIds.get("Group " + g);
+            long taskId = taskIds.get(groupId);
+            for (int m = 1; m <= studentsPerGroup; m++) {
+                String username = "student" + ((g - 1) * studentsPerGroup + m);
+                long userId = ids.get(username);
+                students.add(new Student(username, userId, groupId, taskId));
+                memberships.add(new Object[]{userId, groupId});
+                assignments.add(new Object[]{taskId, userId, m == 1 ? "Leader" : "Developer",
+                        "Own part " + m + " of the platform: design, implementation and tests", userId});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO user_group (user_id, group_id) VALUES (?, ?)", memberships);
+        jdbc.batchUpdate("INSERT INTO task_assignments (task_id, user_id, role, description, assigned_by, status) "
+                + "VALUES (?, ?, ?, ?, ?, 'FINALIZED')", assignments);
+
+        return new Seed(students, teachers);
+    }
+}
@@ -0,0 +1,45 @@
+package demo.loadtest;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+
+/**
+ * Throwaway MariaDB server (MySQL-compatible) on a free port, with its data in a temporary directory.
+ * The application's Flyway migrations build the schema, so every run starts from the same empty database.
+ */
+final class EmbeddedDatabase implements AutoCloseable {
+
+    private static final String SCHEMA = "almond";
+
+    private final DB db;
+    private final int port;
+
+    EmbeddedDatabase() throws ManagedProcessException {
+        DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+        config.setPort(0);
+        // mariadbd refuses to start as root unless told to
+        if ("root".equals(System.getProperty("user.name"))) {
+            config.addArg("--user=root");
+        }
+        // Leave room for the application's pool at any size the run may try
+        config.addArg("--max-connections=2000");
+        config.addArg("--character-set-server=utf8mb4");
+        config.addArg("--innodb-buffer-pool-size=512M");
+        db = DB.newEmbeddedDB(config.build());
+        db.start();
+        port = db.getConfiguration().getPort();
+    }
+
+    /** JDBC URL of the schema; it is created on first connection */
+    String jdbcUrl() {
+        return "jdbc:mysql://127.0.0.1:" + port + "/" + SCHEMA
+                + "?createDatabaseIfNotExist=true&useSSL=false&allowPublicKeyRetrieval=true"
+                + "&characterEncoding=utf8&rewriteBatchedStatements=true";
+    }
+
+    @Override
+    public void close() throws ManagedProcessException {
+        db.stop();
+    }
+}
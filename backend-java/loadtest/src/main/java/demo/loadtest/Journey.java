@@ -0,0 +1,10 @@
+package demo.loadtest;
+
+/**
+ * What one kind of user does in a session, from login to the last action.
+ * Sessions are repeated back to back until the step ends.
+ */
+interface Journey {
+
+    void run(VirtualUser user) throws InterruptedException;
+}
@@ -0,0 +1,39 @@
+package demo.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latency percentiles (milliseconds) and throughput of the successful calls of one operation.
+ * Failed calls are counted but kept out of the percentiles; a fast error is not a fast answer.
+ */
+record LatencySummary(long ok, long failed, double failurePercent, double perSecond,
+                      double meanMs, double p50Ms, double p90Ms, double p95Ms, double p99Ms, double maxMs,
+                      Map<String, Integer> failureSamples) {
+
+    static LatencySummary of(List<Long> latencyNanos, long failures, double seconds, Map<String, Integer> failureSamples) {
+        List<Long> sorted = new ArrayList<>(latencyNanos);
+        Collections.sort(sorted);
+        long ok = sorted.size();
+        long total = ok + failures;
+        double mean = sorted.stream().mapToLong(Long::longValue).average().orElse(0) / 1e6;
+        return new LatencySummary(ok, failures,
+                total == 0 ? 0 : failures * 100.0 / total,
+                seconds > 0 ? total / seconds : 0,
+                mean,
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 95), percentile(sorted, 99),
+                sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1) / 1e6,
+                Map.copyOf(failureSamples));
+    }
+
+    /** Nearest-rank percentile */
+    private static double percentile(List<Long> sorted, int p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p / 100.0 * sorted.size());
+        return sorted.get(Math.min(sorted.size() - 1, Math.max(0, rank - 1))) / 1e6;
+    }
+}
@@ -0,0 +1,143 @@
+package demo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Console tables per step, a summary across steps with the saturation point, and the same data as JSON.
+ * Throughput of a closed-loop test grows with the number of users until something runs full;
+ * the first step where it stops growing, errors appear or p95 latency climbs well above the
+ * lightest step is the saturation point, and the pools that ran full in that step are the likely bottleneck.
+ */
+final class LoadReport {
+
+    // A step is past saturation if throughput grew by less than this share of the growth in users
+    private static final double MIN_SCALING = 0.25;
+    // ...or if more than this percentage of calls failed
+    private static final double MAX_FAILURE_PERCENT = 1.0;
+    // ...or if p95 latency over all calls reached this multiple of the first step's
+    private static final double MAX_P95_GROWTH = 2.0;
+
+    private final PrintStream out;
+    private final Instant startedAt = Instant.now();
+
+    LoadReport(PrintStream out) {
+        this.out = out;
+    }
+
+    record Saturation(Integer lastScalingUsers, Integer saturatedUsers, String reason, List<String> fullPools) {
+    }
+
+    void printStep(StepResult step) {
+        out.printf("%n== %d users (%d students, %d teachers), %.0f s measured ==%n",
+                step.users(), step.students(), step.teachers(), step.measuredSeconds());
+        out.printf("%-48s %7s %6s %8s %8s %8s %8s %8s %8s%n",
+                "operation", "calls", "fail%", "req/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms");
+        step.operations().forEach((name, s) -> out.printf("%-48s %7d %6.1f %8.2f %8.0f %8.0f %8.0f %8.0f %8.0f%n",
+                name, s.ok() + s.failed(), s.failurePercent(), s.perSecond(),
+                s.p50Ms(), s.p90Ms(), s.p95Ms(), s.p99Ms(), s.maxMs()));
+        step.operations().forEach((name, s) -> s.failureSamples().forEach((reason, count) ->
+                out.printf("  ! %s: %s (x%d)%n", name, reason, count)));
+
+        out.printf("%n%-48s %7s %7s %7s %8s%n", "pool", "limit", "peak", "mean", "waiting");
+        for (PoolSampler.PoolUsage pool : step.pools()) {
+            out.printf("%-48s %7d %7d %7.1f %8d%s%n", pool.pool(), pool.limit(), pool.peakUsed(), pool.meanUsed(),
+                    pool.peakPending(), pool.saturated() ? "  << full" : "");
+        }
+
+        out.printf("%n%-48s %7s %7s %7s %11s%n", "stub agent endpoint", "calls", "errors", "hangs", "peak concur");
+        step.agent().forEach((name, a) -> out.printf("%-48s %7d %7d %7d %11d%n",
+                name, a.calls(), a.errors(), a.hangs(), a.peakConcurrent()));
+    }
+
+    void printSummary(List<StepResult> steps, Saturation saturation) {
+        out.printf("%n== Summary ==%n");
+        out.printf("%7s %9s %6s %8s %8s %8s  %s%n", "users", "req/s", "fail%", "p50 ms", "p95 ms", "p99 ms", "full pools");
+        for (StepResult step : steps) {
+            LatencySummary t = step.total();
+            out.printf("%7d %9.2f %6.1f %8.0f %8.0f %8.0f  %s%n", step.users(), t.perSecond(), t.failurePercent(),
+                    t.p50Ms(), t.p95Ms(), t.p99Ms(), String.join(", ", fullPools(step)));
+        }
+        out.println();
+        out.println(saturation.reason());
+    }
+
+    Saturation findSaturation(List<StepResult> steps) {
+        for (int i = 0; i < steps.size(); i++) {
+            StepResult step = steps.get(i);
+            LatencySummary total = step.total();
+            String reason = null;
+            if (total.failurePercent() > MAX_FAILURE_PERCENT) {
+                reason = String.format("%.1f%% of calls failed", total.failurePercent());
+            } else if (i > 0) {
+                StepResult previous = steps.get(i - 1);
+                double userGrowth = (double) step.users() / previous.users() - 1;
+                double throughputGrowth = previous.total().perSecond() == 0 ? 0
+                        : total.perSecond() / previous.total().perSecond() - 1;
+                double baselineP95 = steps.get(0).total().p95Ms();
+                if (userGrowth > 0 && throughputGrowth < MIN_SCALING * userGrowth) {
+                    reason = String.format("throughput grew %.0f%% for %.0f%% more users",
+                            throughputGrowth * 100, userGrowth * 100);
+                } else if (baselineP95 > 0 && total.p95Ms() >= MAX_P95_GROWTH * baselineP95) {
+                    reason = String.format("p95 latency rose from %.0f ms to %.0f ms",
+                            baselineP95, total.p95Ms());
+                }
+            }
+            if (reason != null) {
+                Integer lastScaling = i > 0 ? steps.get(i - 1).users() : null;
+                List<String> full = fullPools(step);
+                return new Saturation(lastScaling, step.users(), String.format(
+                        "Saturated at %d users: %s (last scaling step: %s). Pools at their limit: %s",
+                        step.users(), reason, lastScaling != null ? lastScaling + " users" : "none",
+                        full.isEmpty() ? "none; look at CPU, locks or the database itself" : String.join(", ", full)),
+                        full);
+            }
+        }
+        int last = steps.isEmpty() ? 0 : steps.get(steps.size() - 1).users();
+        return new Saturation(last, null, "No saturation up to " + last
+                + " users; add higher levels with -Dloadtest.levels", List.of());
+    }
+
+    private static List<String> fullPools(StepResult step) {
+        List<String> full = new ArrayList<>();
+        for (PoolSampler.PoolUsage pool : step.pools()) {
+            if (pool.saturated()) {
+                full.add(String.format("%s %d/%d%s", pool.pool(), pool.peakUsed(), pool.limit(),
+                        pool.peakPending() > 0 ? " +" + pool.peakPending() + " waiting" : ""));
+            }
+        }
+        return full;
+    }
+
+    void writeJson(Path file, LoadTestOptions options, List<StepResult> steps, Saturation saturation) throws IOException {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("levels", options.levels);
+        settings.put("stepSeconds", options.stepSeconds);
+        settings.put("warmupSeconds", options.warmupSeconds);
+        settings.put("thinkTimeMs", options.thinkTimeMs);
+        settings.put("teacherShare", options.teacherShare);
+        settings.put("goalShare", options.goalShare);
+        settings.put("meetingShare", options.meetingShare);
+        settings.put("teachers", options.teachers);
+        settings.put("groups", options.groups);
+        settings.put("studentsPerGroup", options.studentsPerGroup);
+        settings.put("agent", options.agentEndpoints.values().stream().map(AgentEndpoint::toString).toList());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("settings", settings);
+        report.put("steps", steps);
+        report.put("saturation", saturation);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+        out.println("Report written to " + file.toAbsolutePath());
+    }
+}
@@ -0,0 +1,87 @@
+package demo.loadtest;
+
+import org.springframework.context.ApplicationContext;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs one concurrency level at a time: starts the virtual users spread over the warm-up,
+ * lets them work until the step ends, then waits for the calls still in flight.
+ */
+final class LoadRunner {
+
+    private final LoadTestOptions options;
+    private final ApplicationContext app;
+    private final StubAgentServer agent;
+    private final DataSeeder.Seed seed;
+    private final byte[] meetingDocument;
+    private final String baseUrl;
+    private final HttpClient http;
+
+    LoadRunner(LoadTestOptions options, ApplicationContext app, StubAgentServer agent, DataSeeder.Seed seed,
+               byte[] meetingDocument, String baseUrl) {
+        this.options = options;
+        this.app = app;
+        this.agent = agent;
+        this.seed = seed;
+        this.meetingDocument = meetingDocument;
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+    }
+
+    StepResult runStep(int users) throws InterruptedException {
+        int teachers = (int) Math.round(users * options.teacherShare);
+        int students = users - teachers;
+
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmupSeconds * 1_000_000_000L;
+        long deadline = start + options.stepSeconds * 1_000_000_000L;
+        StepRecorder recorder = new StepRecorder(measureFrom, deadline);
+        agent.endpoints().forEach(AgentEndpoint::snapshotAndReset);
+        PoolSampler sampler = new PoolSampler(app, measureFrom);
+
+        List<Thread> threads = new ArrayList<>(users);
+        long rampStepMs = users == 0 ? 0 : options.warmupSeconds * 1000L / users;
+        try {
+            for (int i = 0; i < users; i++) {
+                Journey journey = i < teachers
+                        ? new TeacherJourney(seed.teachers().get(i % seed.teachers().size()))
+                        : new StudentJourney(seed.students().get((i - teachers) % seed.students().size()),
+                        options, meetingDocument);
+                UserClient client = new UserClient(http, baseUrl, Duration.ofMillis(options.requestTimeoutMs), recorder);
+                Thread thread = new Thread(new VirtualUser(client, journey, deadline, options.thinkTimeMs), "user-" + i);
+                thread.setDaemon(true);
+                thread.start();
+                threads.add(thread);
+                Thread.sleep(rampStepMs);
+            }
+
+            // Calls in flight at the deadline are left to finish and count towards this step; the
+            // request timeout bounds the wait, so the next step starts clean
+            for (Thread thread : threads) {
+                long remainingMs = Math.max(0, (deadline - System.nanoTime()) / 1_000_000) + options.requestTimeoutMs;
+                thread.join(remainingMs);
+                if (thread.isAlive()) {
+                    thread.interrupt();
+                }
+            }
+        } finally {
+            sampler.close();
+        }
+
+        Map<String, AgentEndpoint.Snapshot> agentCalls = new LinkedHashMap<>();
+        agent.endpoints().forEach(e -> agentCalls.put(e.name, e.snapshotAndReset()));
+        return new StepResult(users, students, teachers, recorder.measuredSeconds(), recorder.summarize(),
+                sampler.finish(), agentCalls);
+    }
+}
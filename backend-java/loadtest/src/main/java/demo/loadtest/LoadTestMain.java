@@ -0,0 +1,109 @@
+package demo.loadtest;
+
+import demo.BackendJavaApplication;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Entry point of loadtest.jar.
+ * Starts an embedded MariaDB, the stub agent backend and the application in this JVM, seeds
+ * teachers, groups and tasks, then drives student and teacher sessions at each concurrency level
+ * and reports latency percentiles, throughput and how full the request, database and agent pools ran.
+ *
+ * The load generator shares the machine with the application, so absolute numbers are lower than
+ * on a dedicated server; the point is where and why throughput stops scaling.
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions();
+        Path workDir = Files.createTempDirectory("loadtest");
+        int port = freePort();
+
+        System.out.println("Starting embedded database and stub agent backend");
+        try (EmbeddedDatabase database = new EmbeddedDatabase();
+             StubAgentServer agent = new StubAgentServer(options.agentEndpoints, options.agentReplyChars);
+             ConfigurableApplicationContext app = startApplication(database, agent, port, workDir)) {
+
+            DataSeeder.Seed seed = new DataSeeder(app.getBean(DataSource.class))
+                    .seed(options.teachers, options.groups, options.studentsPerGroup);
+            System.out.printf("Application on port %d, logs in %s%n", port, workDir.resolve("application.log"));
+            System.out.printf("Seeded %d teachers, %d groups, %d students%n",
+                    seed.teachers().size(), options.groups, seed.students().size());
+            options.agentEndpoints.values().forEach(e -> System.out.println("Stub agent " + e));
+            System.out.printf("Levels %s users, %d s per step (%d s warm-up), think time %d ms%n",
+                    Arrays.toString(options.levels), options.stepSeconds, options.warmupSeconds, options.thinkTimeMs);
+
+            LoadRunner runner = new LoadRunner(options, app, agent, seed, meetingDocument(),
+                    "http://127.0.0.1:" + port);
+            LoadReport report = new LoadReport(System.out);
+            List<StepResult> steps = new ArrayList<>();
+            for (int users : options.levels) {
+                StepResult step = runner.runStep(users);
+                report.printStep(step);
+                steps.add(step);
+            }
+            LoadReport.Saturation saturation = report.findSaturation(steps);
+            report.printSummary(steps, saturation);
+            report.writeJson(options.report, options, steps, saturation);
+        }
+        // Idle HTTP client and pool threads would otherwise keep the JVM alive for another minute
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext startApplication(EmbeddedDatabase database, StubAgentServer agent,
+                                                                   int port, Path workDir) {
+        // Command-line arguments outrank application.properties and its environment placeholders
+        return new SpringApplicationBuilder(BackendJavaApplication.class).run(
+                "--server.address=127.0.0.1",
+                "--server.port=" + port,
+                "--spring.datasource.url=" + database.jdbcUrl(),
+                "--spring.datasource.username=root",
+                "--spring.datasource.password=",
+                // Schema pieces the migrations assume already exist (see afterMigrate.sql)
+                "--spring.flyway.locations=classpath:db/migration,classpath:db/loadtest",
+                "--python.backend.url=" + agent.baseUrl(),
+                "--storage.backend=local",
+                "--storage.local-dir=" + workDir.resolve("storage"),
+                "--storage.local-base-url=http://127.0.0.1:" + port + "/file/local",
+                "--storage.local-signing-key=" + UUID.randomUUID(),
+                "--search.index.dir=" + workDir.resolve("search-index"),
+                // Per-request SQL and INFO logging would measure the console, not the application
+                "--mybatis.configuration.log-impl=org.apache.ibatis.logging.nologging.NoLoggingImpl",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.threshold.console=OFF",
+                "--logging.file.name=" + workDir.resolve("application.log"));
+    }
+
+    /** A short meeting summary as a .docx, uploaded by the meeting scenario */
+    private static byte[] meetingDocument() throws IOException {
+        try (XWPFDocument doc = new XWPFDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            doc.createParagraph().createRun().setText("Week 1 meeting summary");
+            for (int i = 1; i <= 30; i++) {
+                doc.createParagraph().createRun().setText("Item " + i + ": the group reviewed progress on the "
+                        + "dashboard and the login flow, agreed on next steps and assigned owners.");
+            }
+            doc.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
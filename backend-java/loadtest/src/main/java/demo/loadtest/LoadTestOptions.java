@@ -0,0 +1,77 @@
+package demo.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of a load-test run, read from -Dloadtest.* system properties.
+ * Settings of the application itself (pool sizes, timeouts, virtual threads) are ordinary Spring
+ * properties and are passed the same way, e.g. -Dserver.tomcat.threads.max=100
+ * -Dspring.datasource.hikari.maximum-pool-size=20 -Dpython.backend.http.python-max-per-route=80
+ */
+final class LoadTestOptions {
+
+    // Concurrent virtual users of each step, run one after the other
+    final int[] levels = Arrays.stream(System.getProperty("loadtest.levels", "10,25,50,100,200").split(","))
+            .mapToInt(l -> Integer.parseInt(l.trim())).toArray();
+    final int stepSeconds = Integer.getInteger("loadtest.stepSeconds", 60);
+    // Start of each step left out of the statistics while the new users ramp up
+    final int warmupSeconds = Integer.getInteger("loadtest.warmupSeconds", 10);
+    // Mean pause between two actions of one user (exponentially distributed)
+    final long thinkTimeMs = Long.getLong("loadtest.thinkTimeMs", 1000);
+    // Share of the users that are teachers; the rest are students
+    final double teacherShare = Double.parseDouble(System.getProperty("loadtest.teacherShare", "0.1"));
+    // Share of student sessions that generate a weekly goal / upload a meeting document
+    final double goalShare = Double.parseDouble(System.getProperty("loadtest.goalShare", "0.3"));
+    final double meetingShare = Double.parseDouble(System.getProperty("loadtest.meetingShare", "0.1"));
+    // How long a student waits for the background analysis of an uploaded meeting document
+    final long jobWaitMs = Long.getLong("loadtest.jobWaitMs", 120000);
+    // Client-side timeout of a single request
+    final long requestTimeoutMs = Long.getLong("loadtest.requestTimeoutMs", 180000);
+
+    // Seed data: teachers, groups spread over them, and one task per group
+    final int teachers = Integer.getInteger("loadtest.teachers", 10);
+    final int groups = Integer.getInteger("loadtest.groups", 100);
+    final int studentsPerGroup = Integer.getInteger("loadtest.studentsPerGroup", 5);
+
+    // Stub agent backend, keyed by endpoint name
+    final Map<String, AgentEndpoint> agentEndpoints = new LinkedHashMap<>();
+    // Length of the text in every agent answer
+    final int agentReplyChars = Integer.getInteger("loadtest.agent.replyChars", 1500);
+
+    final Path report = Paths.get(System.getProperty("loadtest.report", "loadtest-report.json"));
+
+    LoadTestOptions() {
+        agentEndpoint("initialAdvice", "/task-assignment/initial-advice", "advice");
+        agentEndpoint("confirmationAdvice", "/task-assignment/confirmation-advice", "advice");
+        agentEndpoint("chat", "/conversation/chat", "response");
+        agentEndpoint("analyzeWeeklyProgress", "/agent/analyze-weekly-progress", "analysis");
+        agentEndpoint("weeklyGoal", "/weekly-goal/generate", "weekly_goal");
+    }
+
+    /**
+     * Latency and failures of one agent endpoint: loadtest.agent.[name.]latencyMedianMs, latencyP99Ms,
+     * errorRate (answers HTTP 500), hangRate and hangMs (answers only after hangMs, like a stuck model call).
+     * The name-specific property wins over the general one.
+     */
+    private void agentEndpoint(String name, String path, String field) {
+        agentEndpoints.put(name, new AgentEndpoint(name, path, field,
+                agentLong(name, "latencyMedianMs", 1500),
+                agentLong(name, "latencyP99Ms", 6000),
+                agentDouble(name, "errorRate", 0.01),
+                agentDouble(name, "hangRate", 0.0),
+                agentLong(name, "hangMs", 150000)));
+    }
+
+    private static long agentLong(String name, String key, long defaultValue) {
+        return Long.getLong("loadtest.agent." + name + "." + key, Long.getLong("loadtest.agent." + key, defaultValue));
+    }
+
+    private static double agentDouble(String name, String key, double defaultValue) {
+        String value = System.getProperty("loadtest.agent." + name + "." + key, System.getProperty("loadtest.agent." + key));
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+}
@@ -0,0 +1,157 @@
+package demo.loadtest;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Samples how full the application's pools are while a step runs: Tomcat request threads and
+ * connections, the database pool, the agent HTTP connection pool and the task executors.
+ * A pool counts as saturated in a step if it reached its limit or had work waiting for it in a
+ * noticeable share of the samples; a single queued task is just the hand-off to a new thread.
+ */
+final class PoolSampler implements AutoCloseable {
+
+    private static final long INTERVAL_MS = 100;
+    // Share of samples with work waiting above which a pool counts as saturated below its limit
+    private static final double MIN_WAITING_SHARE = 0.05;
+
+    /** One reading: in use, waiting for the pool, and the pool's limit */
+    private record Reading(int used, int pending, int limit) {
+    }
+
+    /** Peak and mean use of one pool over the measured part of a step */
+    record PoolUsage(String pool, int limit, int peakUsed, double meanUsed, int peakPending, boolean saturated) {
+    }
+
+    private final Map<String, Supplier<Reading>> probes = new LinkedHashMap<>();
+    private final Map<String, Usage> usage = new LinkedHashMap<>();
+    private final long measureFromNanos;
+    private final ScheduledExecutorService timer;
+
+    PoolSampler(ApplicationContext app, long measureFromNanos) {
+        this.measureFromNanos = measureFromNanos;
+        addTomcat(app);
+        app.getBeansOfType(HikariDataSource.class).values().forEach(ds ->
+                probes.put("db connections (" + ds.getPoolName() + ")", () -> {
+                    HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+                    return pool == null ? null : new Reading(pool.getActiveConnections(),
+                            pool.getThreadsAwaitingConnection(), ds.getMaximumPoolSize());
+                }));
+        app.getBeansOfType(PoolingHttpClientConnectionManager.class).forEach((name, manager) ->
+                probes.put("agent connections (" + name + ")", () -> routeReading(manager)));
+        app.getBeansOfType(ThreadPoolTaskExecutor.class).forEach((name, executor) ->
+                probes.put("executor " + name, () -> new Reading(executor.getActiveCount(),
+                        executor.getQueueSize(), executor.getMaxPoolSize())));
+
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.scheduleAtFixedRate(this::sample, 0, INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void addTomcat(ApplicationContext app) {
+        if (!(app instanceof ServletWebServerApplicationContext web)
+                || !(web.getWebServer() instanceof TomcatWebServer tomcat)) {
+            return;
+        }
+        ProtocolHandler handler = tomcat.getTomcat().getConnector().getProtocolHandler();
+        Executor executor = handler.getExecutor();
+        // With virtual threads there is no request thread pool to run out of
+        if (executor instanceof org.apache.tomcat.util.threads.ThreadPoolExecutor pool) {
+            probes.put("tomcat threads", () -> new Reading(pool.getActiveCount(), pool.getQueue().size(),
+                    pool.getMaximumPoolSize()));
+        }
+        if (handler instanceof AbstractProtocol<?> protocol) {
+            probes.put("tomcat connections", () -> new Reading((int) protocol.getConnectionCount(), 0,
+                    protocol.getMaxConnections()));
+        }
+    }
+
+    /** The busiest route; the per-route limit is what caps concurrent agent calls */
+    private static Reading routeReading(PoolingHttpClientConnectionManager manager) {
+        Reading busiest = null;
+        for (HttpRoute route : manager.getRoutes()) {
+            PoolStats stats = manager.getStats(route);
+            if (busiest == null || stats.getLeased() + stats.getPending() > busiest.used() + busiest.pending()) {
+                busiest = new Reading(stats.getLeased(), stats.getPending(), stats.getMax());
+            }
+        }
+        return busiest;
+    }
+
+    private void sample() {
+        if (System.nanoTime() < measureFromNanos) {
+            return;
+        }
+        for (Map.Entry<String, Supplier<Reading>> probe : probes.entrySet()) {
+            try {
+                Reading reading = probe.getValue().get();
+                if (reading != null) {
+                    synchronized (usage) {
+                        usage.computeIfAbsent(probe.getKey(), k -> new Usage()).add(reading);
+                    }
+                }
+            } catch (RuntimeException e) {
+                // A pool being shut down or not started yet; skip this reading
+            }
+        }
+    }
+
+    /** Stop sampling and summarize the step */
+    List<PoolUsage> finish() {
+        timer.shutdownNow();
+        List<PoolUsage> result = new ArrayList<>();
+        synchronized (usage) {
+            usage.forEach((pool, u) -> result.add(new PoolUsage(pool, u.limit, u.peakUsed,
+                    u.samples == 0 ? 0 : (double) u.sumUsed / u.samples, u.peakPending,
+                    u.peakUsed >= u.limit || u.waitingSamples > MIN_WAITING_SHARE * u.samples)));
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+
+    private static final class Usage {
+        private int limit;
+        private int peakUsed;
+        private int peakPending;
+        private long sumUsed;
+        private long samples;
+        private long waitingSamples;
+
+        void add(Reading reading) {
+            limit = reading.limit();
+            peakUsed = Math.max(peakUsed, reading.used());
+            peakPending = Math.max(peakPending, reading.pending());
+            sumUsed += reading.used();
+            samples++;
+            if (reading.pending() > 0) {
+                waitingSamples++;
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package demo.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latencies and failures per operation during one step.
+ * Calls count when they start inside the measured window, so the ramp-up does not skew the
+ * percentiles; calls still running at the end of the window are counted with their full latency
+ * once they finish, since leaving them out would hide exactly the slowest ones.
+ */
+final class StepRecorder {
+
+    // Distinct failure messages kept per operation
+    private static final int FAILURE_SAMPLES = 5;
+
+    private final long measureFromNanos;
+    private final long measureUntilNanos;
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    StepRecorder(long measureFromNanos, long measureUntilNanos) {
+        this.measureFromNanos = measureFromNanos;
+        this.measureUntilNanos = measureUntilNanos;
+    }
+
+    /**
+     * @param failure null for a successful call, otherwise a short reason
+     */
+    void record(String operation, long startNanos, long endNanos, String failure) {
+        if (startNanos < measureFromNanos || startNanos >= measureUntilNanos) {
+            return;
+        }
+        operations.computeIfAbsent(operation, k -> new Operation()).add(endNanos - startNanos, failure);
+    }
+
+    double measuredSeconds() {
+        return (measureUntilNanos - measureFromNanos) / 1e9;
+    }
+
+    /** Per-operation summaries in name order, plus "total" over all of them */
+    Map<String, LatencySummary> summarize() {
+        double seconds = measuredSeconds();
+        Map<String, LatencySummary> result = new LinkedHashMap<>();
+        List<Long> all = new ArrayList<>();
+        long allFailures = 0;
+        for (Map.Entry<String, Operation> e : new TreeMap<>(operations).entrySet()) {
+            Operation op = e.getValue();
+            synchronized (op) {
+                result.put(e.getKey(), LatencySummary.of(op.latencies, op.failures, seconds, op.failureSamples));
+                all.addAll(op.latencies);
+                allFailures += op.failures;
+            }
+        }
+        result.put("total", LatencySummary.of(all, allFailures, seconds, Map.of()));
+        return result;
+    }
+
+    private static final class Operation {
+        private final List<Long> latencies = new ArrayList<>();
+        private final Map<String, Integer> failureSamples = new LinkedHashMap<>();
+        private long failures;
+
+        synchronized void add(long nanos, String failure) {
+            if (failure == null) {
+                latencies.add(nanos);
+                return;
+            }
+            failures++;
+            if (failureSamples.containsKey(failure) || failureSamples.size() < FAILURE_SAMPLES) {
+                failureSamples.merge(failure, 1, Integer::sum);
+            }
+        }
+    }
+}
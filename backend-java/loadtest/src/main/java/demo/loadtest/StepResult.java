@@ -0,0 +1,18 @@
+package demo.loadtest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of one concurrency level: per-operation latencies (with "total" over all of them),
+ * pool use over the measured window, and the calls the stub agent saw during the whole step.
+ */
+record StepResult(int users, int students, int teachers, double measuredSeconds,
+                  Map<String, LatencySummary> operations,
+                  List<PoolSampler.PoolUsage> pools,
+                  Map<String, AgentEndpoint.Snapshot> agent) {
+
+    LatencySummary total() {
+        return operations.get("total");
+    }
+}
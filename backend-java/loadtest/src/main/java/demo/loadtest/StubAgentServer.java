@@ -0,0 +1,114 @@
+package demo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Python agent backend.
+ * Serves the JSON endpoints the Java backend calls with bodies shaped like the real ones;
+ * each call waits for a sampled latency first, and a configured share of calls fail or hang.
+ * Every answer is numbered so conversation de-duplication does not swallow agent replies.
+ */
+final class StubAgentServer implements AutoCloseable {
+
+    private static final String FILLER = "Focus this week on finishing the integration of the login flow with the "
+            + "group dashboard, pair on the failing tests, and agree on the API contract before the next meeting. ";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, AgentEndpoint> endpoints;
+    private final int replyChars;
+    private final ObjectMapper json = new ObjectMapper();
+    private final AtomicLong replies = new AtomicLong();
+
+    StubAgentServer(Map<String, AgentEndpoint> endpoints, int replyChars) throws IOException {
+        this.endpoints = endpoints;
+        this.replyChars = replyChars;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        // One thread per call, like an async model server that never queues requests itself
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        for (AgentEndpoint endpoint : endpoints.values()) {
+            server.createContext(endpoint.path, exchange -> handle(endpoint, exchange));
+        }
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    Collection<AgentEndpoint> endpoints() {
+        return endpoints.values();
+    }
+
+    private void handle(AgentEndpoint endpoint, HttpExchange exchange) throws IOException {
+        endpoint.calls.incrementAndGet();
+        endpoint.peakInFlight.accumulateAndGet(endpoint.inFlight.incrementAndGet(), Math::max);
+        try (InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            double roll = random.nextDouble();
+            if (roll < endpoint.hangRate) {
+                endpoint.hangs.incrementAndGet();
+                Thread.sleep(endpoint.hangMs);
+            } else {
+                Thread.sleep(endpoint.sampleLatencyMs(random));
+            }
+
+            if (roll >= endpoint.hangRate && roll < endpoint.hangRate + endpoint.errorRate) {
+                endpoint.errors.incrementAndGet();
+                // FastAPI's shape for an HTTPException
+                send(exchange, 500, Map.of("detail", "Stub agent failure on " + endpoint.path));
+            } else {
+                send(exchange, 200, Map.of("status", "success", endpoint.field, answer(endpoint)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            endpoint.inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private Object answer(AgentEndpoint endpoint) {
+        StringBuilder text = new StringBuilder("Stub reply #").append(replies.incrementAndGet()).append(". ");
+        while (text.length() < replyChars) {
+            text.append(FILLER);
+        }
+        text.setLength(replyChars);
+        if ("weekly_goal".equals(endpoint.field)) {
+            return Map.of("goal", text.toString());
+        }
+        return text.toString();
+    }
+
+    private void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = json.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,93 @@
+package demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A student's session: log in, list groups and tasks, open the conversation and ask the agent
+ * something; some sessions also generate a weekly goal or upload a meeting document and wait
+ * for the agent's analysis of it, as the frontend does when polling the job.
+ */
+final class StudentJourney implements Journey {
+
+    // Goals are generated for week 2 and meetings uploaded for week 1, so generating a goal never
+    // blocks the meeting upload (which needs every goal of its week to be PROCESSING)
+    private static final int GOAL_WEEK = 2;
+    private static final int MEETING_NO = 1;
+    private static final long JOB_POLL_MS = 1000;
+
+    private final DataSeeder.Student student;
+    private final LoadTestOptions options;
+    private final byte[] meetingDocument;
+
+    StudentJourney(DataSeeder.Student student, LoadTestOptions options, byte[] meetingDocument) {
+        this.student = student;
+        this.options = options;
+        this.meetingDocument = meetingDocument;
+    }
+
+    @Override
+    public void run(VirtualUser user) throws InterruptedException {
+        UserClient client = user.client();
+        if (!client.login(student.username(), DataSeeder.PASSWORD, "STUDENT")) {
+            user.pause();
+            return;
+        }
+        user.pause();
+        client.get("GET /student/groups", "/student/groups");
+        user.pause();
+        client.get("GET /student/groups/{id}/tasks", "/student/groups/" + student.groupId() + "/tasks");
+        user.pause();
+        client.get("GET /student/conversations", "/student/conversations?taskId=" + student.taskId()
+                + "&groupId=" + student.groupId() + "&limit=50");
+        user.pause();
+        client.post("POST /student/conversations/messages", "/student/conversations/messages", Map.of(
+                "taskId", student.taskId(),
+                "content", "Question " + user.sessions() + " from " + student.username()
+                        + ": how should we split the testing work this week?"));
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < options.goalShare) {
+            user.pause();
+            // refresh=true: every generation reaches the agent, the worst case for the agent pool
+            client.post("POST /student/tasks/{id}/weekly-goals/generate", "/student/tasks/" + student.taskId()
+                    + "/weekly-goals/generate?weekNo=" + GOAL_WEEK + "&refresh=true", Map.of());
+        }
+        if (random.nextDouble() < options.meetingShare) {
+            user.pause();
+            uploadMeeting(user, client);
+        }
+        user.pause();
+    }
+
+    private void uploadMeeting(VirtualUser user, UserClient client) throws InterruptedException {
+        JsonNode url = client.upload("POST /upload", "/upload", "meeting-" + student.username() + ".docx",
+                meetingDocument);
+        if (url == null) {
+            return;
+        }
+        long submitted = System.nanoTime();
+        JsonNode meeting = client.post("POST /meeting/upload", "/meeting/upload", Map.of(
+                "taskId", student.taskId(),
+                "meetingNo", MEETING_NO,
+                "documentUrl", url.asText()));
+        if (meeting == null || !meeting.hasNonNull("agentJobId")) {
+            return;
+        }
+
+        long jobId = meeting.get("agentJobId").asLong();
+        while (System.nanoTime() - submitted < options.jobWaitMs * 1_000_000) {
+            user.sleep(JOB_POLL_MS);
+            JsonNode job = client.get("GET /meeting/jobs/{id}", "/meeting/jobs/" + jobId);
+            String status = job != null ? job.path("status").asText() : "";
+            if ("SUCCEEDED".equals(status) || "FAILED".equals(status)) {
+                client.record("meeting analysis (upload to result)", submitted, System.nanoTime(),
+                        "FAILED".equals(status) ? "job FAILED" : null);
+                return;
+            }
+        }
+        client.record("meeting analysis (upload to result)", submitted, System.nanoTime(), "no result in time");
+    }
+}
@@ -0,0 +1,35 @@
+package demo.loadtest;
+
+/**
+ * A teacher's session: log in, open the dashboard, page through groups and tasks,
+ * and search the conversations and documents of their groups.
+ */
+final class TeacherJourney implements Journey {
+
+    private static final String[] SEARCH_TERMS = {"integration", "dashboard", "tests", "meeting", "login"};
+
+    private final DataSeeder.Teacher teacher;
+
+    TeacherJourney(DataSeeder.Teacher teacher) {
+        this.teacher = teacher;
+    }
+
+    @Override
+    public void run(VirtualUser user) throws InterruptedException {
+        UserClient client = user.client();
+        if (!client.login(teacher.username(), DataSeeder.PASSWORD, "TEACHER")) {
+            user.pause();
+            return;
+        }
+        user.pause();
+        client.get("GET /teacher/dashboard/stats", "/teacher/dashboard/stats");
+        user.pause();
+        client.get("GET /teacher/groups", "/teacher/groups?page=1&pageSize=10");
+        user.pause();
+        client.get("GET /teacher/tasks", "/teacher/tasks?page=1&pageSize=10&status=IN_PROGRESS");
+        user.pause();
+        String term = SEARCH_TERMS[user.sessions() % SEARCH_TERMS.length];
+        client.get("GET /teacher/search", "/teacher/search?q=" + UserClient.encode(term) + "&limit=20");
+        user.pause();
+    }
+}
@@ -0,0 +1,120 @@
+package demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * HTTP side of one virtual user: holds its login token and times every call into the step recorder.
+ * A call fails when the request errors or times out, the status is not 200, or the Result code is not 1.
+ */
+final class UserClient {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final StepRecorder recorder;
+    private String token;
+
+    UserClient(HttpClient http, String baseUrl, Duration timeout, StepRecorder recorder) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.recorder = recorder;
+    }
+
+    /** Log in and keep the token for the following calls */
+    boolean login(String username, String password, String role) throws InterruptedException {
+        JsonNode data = post("POST /login", "/login", Map.of("username", username, "password", password, "role", role));
+        token = data != null ? data.path("token").asText(null) : null;
+        return token != null;
+    }
+
+    JsonNode get(String operation, String path) throws InterruptedException {
+        return call(operation, request(path).GET());
+    }
+
+    JsonNode post(String operation, String path, Object body) throws InterruptedException {
+        try {
+            return call(operation, request(path)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body))));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unserializable request body", e);
+        }
+    }
+
+    /** Multipart upload of a single file in the "file" field, as the browser sends it */
+    JsonNode upload(String operation, String path, String filename, byte[] content) throws InterruptedException {
+        String boundary = "----loadtest" + UUID.randomUUID();
+        byte[] head = ("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + filename + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[head.length + content.length + tail.length];
+        System.arraycopy(head, 0, body, 0, head.length);
+        System.arraycopy(content, 0, body, head.length, content.length);
+        System.arraycopy(tail, 0, body, head.length + content.length, tail.length);
+        return call(operation, request(path)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body)));
+    }
+
+    /** Record an operation the user times themselves, such as waiting for a background job */
+    void record(String operation, long startNanos, long endNanos, String failure) {
+        recorder.record(operation, startNanos, endNanos, failure);
+    }
+
+    static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    /** @return the Result's data (NullNode when it has none), or null if the call failed */
+    private JsonNode call(String operation, HttpRequest.Builder builder) throws InterruptedException {
+        long start = System.nanoTime();
+        String failure = null;
+        JsonNode data = null;
+        try {
+            HttpResponse<byte[]> response = http.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                failure = "HTTP " + response.statusCode();
+            } else {
+                JsonNode result = JSON.readTree(response.body());
+                if (result.path("code").asInt() != 1) {
+                    failure = "code " + result.path("code").asText() + ": " + abbreviate(result.path("msg").asText());
+                } else {
+                    data = result.hasNonNull("data") ? result.get("data") : NullNode.instance;
+                }
+            }
+        } catch (IOException e) {
+            failure = e.getClass().getSimpleName();
+        }
+        recorder.record(operation, start, System.nanoTime(), failure);
+        return data;
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() > 100 ? message.substring(0, 100) + "..." : message;
+    }
+}
@@ -0,0 +1,70 @@
+package demo.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One simulated user of a step: a thread that repeats its journey, pausing for a think time
+ * between actions, until the step's deadline. Closed loop, so the offered load falls when
+ * the application slows down, as it does with real users waiting for a page.
+ */
+final class VirtualUser implements Runnable {
+
+    private final UserClient client;
+    private final Journey journey;
+    private final long deadlineNanos;
+    private final long thinkTimeMs;
+    private int sessions;
+
+    VirtualUser(UserClient client, Journey journey, long deadlineNanos, long thinkTimeMs) {
+        this.client = client;
+        this.journey = journey;
+        this.deadlineNanos = deadlineNanos;
+        this.thinkTimeMs = thinkTimeMs;
+    }
+
+    UserClient client() {
+        return client;
+    }
+
+    /** Number of sessions started so far, to vary the content of requests */
+    int sessions() {
+        return sessions;
+    }
+
+    boolean running() {
+        return System.nanoTime() < deadlineNanos;
+    }
+
+    /** Think time before the next action; ends the session once the step is over */
+    void pause() throws InterruptedException {
+        sleep(Math.round(-thinkTimeMs * Math.log(1 - ThreadLocalRandom.current().nextDouble())));
+    }
+
+    /** Wait a fixed time, e.g. between polls; ends the session once the step is over */
+    void sleep(long ms) throws InterruptedException {
+        long remainingMs = (deadlineNanos - System.nanoTime()) / 1_000_000;
+        Thread.sleep(Math.max(0, Math.min(ms, remainingMs)));
+        if (!running()) {
+            throw new StepOver();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running()) {
+                sessions++;
+                journey.run(this);
+            }
+        } catch (StepOver | InterruptedException e) {
+            // Step finished while this user was mid-session
+        }
+    }
+
+    /** Unwinds a session at the end of the step */
+    private static final class StepOver extends RuntimeException {
+        StepOver() {
+            super(null, null, false, false);
+        }
+    }
+}
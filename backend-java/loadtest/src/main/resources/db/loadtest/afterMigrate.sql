@@ -0,0 +1,8 @@
+-- 仅用于压测：应用依赖但迁移脚本未创建的列（V3 已被注释，线上库是手工补上的）
+-- Flyway 每次 migrate 之后都会执行本回调，因此必须可重复执行（MariaDB 支持 IF NOT EXISTS）
+
+ALTER TABLE `users`
+    ADD COLUMN IF NOT EXISTS `username` VARCHAR(100) NOT NULL DEFAULT '' AFTER `id`,
+    ADD COLUMN IF NOT EXISTS `password` VARCHAR(255) NOT NULL DEFAULT '' AFTER `username`;
+
+CREATE INDEX IF NOT EXISTS `idx_users_username` ON `users` (`username`);
@@ -0,0 +1,110 @@
+package demo.config;
+
+import demo.utils.ActivityProperties;
+import demo.utils.AgentContextProperties;
+import demo.utils.AgentJobProperties;
+import demo.utils.AgentStreamProperties;
+import demo.utils.ImportJobProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor configuration class
+ * Bounded thread pools for work that must not run on request threads.
+ * With spring.threads.virtual.enabled on a Java 21+ runtime the agent pools run their tasks
+ * on virtual threads; their sizes still bound concurrency towards the Python backend.
+ */
+@Slf4j
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    private final boolean virtualThreads;
+
+    public AsyncConfig(Environment environment) {
+        virtualThreads = Threading.VIRTUAL.isActive(environment);
+        if (!virtualThreads && environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("spring.threads.virtual.enabled is set but the runtime is Java {}; virtual threads need Java 21+",
+                    Runtime.version().feature());
+        }
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor agentJobExecutor(AgentJobProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("agent-job-");
+        useVirtualThreads(executor, "agent-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor agentStreamExecutor(AgentStreamProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("agent-stream-");
+        useVirtualThreads(executor, "agent-stream-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor agentContextExecutor(AgentContextProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("agent-context-");
+        useVirtualThreads(executor, "agent-context-");
+        // When saturated new parts are rejected (TaskRejectedException) rather than run on the caller,
+        // which would stall the request outside its gather deadline
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor importJobExecutor(ImportJobProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("import-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor activityExecutor(ActivityProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("activity-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    /** Back the pool with virtual threads when that mode is on; blocked HTTP and JDBC waits then free the carrier */
+    private void useVirtualThreads(ThreadPoolTaskExecutor executor, String prefix) {
+        if (virtualThreads) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory());
+        }
+    }
+}
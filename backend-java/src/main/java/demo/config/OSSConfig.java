@@ -0,0 +1,61 @@
+package demo.config;
+
+import com.aliyun.oss.ClientBuilderConfiguration;
+import com.aliyun.oss.OSS;
+import com.aliyun.oss.OSSClientBuilder;
+import demo.utils.AliOSSProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Aliyun OSS configuration class
+ * One client per application, so its connection pool and TLS sessions are reused across requests
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "storage.backend", havingValue = "oss", matchIfMissing = true)
+public class OSSConfig {
+
+    // Created on first use, so the application still starts without OSS credentials
+    @Bean(destroyMethod = "shutdown")
+    @Lazy
+    public OSS ossClient(AliOSSProperties properties) {
+        if (properties.getEndpoint() == null || properties.getAccessKeyId() == null
+                || properties.getAccessKeySecret() == null || properties.getBucketName() == null) {
+            throw new IllegalArgumentException("Incomplete OSS configuration");
+        }
+
+        ClientBuilderConfiguration conf = new ClientBuilderConfiguration();
+        conf.setMaxConnections(properties.getMaxConnections());
+        conf.setConnectionTimeout(properties.getConnectionTimeoutMs());
+        conf.setSocketTimeout(properties.getSocketTimeoutMs());
+        conf.setIdleConnectionTime(properties.getIdleConnectionTimeMs());
+        conf.setMaxErrorRetry(properties.getMaxErrorRetry());
+
+        String endpoint = properties.getEndpoint();
+        String fullEndpoint = endpoint.startsWith("http") ? endpoint : "https://" + endpoint;
+        log.info("Creating shared OSS client - endpoint: {}, bucketName: {}, maxConnections: {}",
+                fullEndpoint, properties.getBucketName(), properties.getMaxConnections());
+        return new OSSClientBuilder().build(fullEndpoint, properties.getAccessKeyId(),
+                properties.getAccessKeySecret(), conf);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor ossUploadExecutor(AliOSSProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getUploadThreads());
+        executor.setMaxPoolSize(properties.getUploadThreads());
+        executor.setQueueCapacity(properties.getUploadThreads() * 16);
+        executor.setThreadNamePrefix("oss-upload-");
+        // When saturated, the uploading request thread sends the part itself
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,19 +1,80 @@
 package demo.config;
 
+import demo.utils.PythonBackendHttpProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+
 /**
  * RestTemplate configuration class
- * Used for calling Python backend services
+ * Used for calling Python backend services over a pooled, keep-alive connection manager
  */
 
 @Configuration
 public class RestTemplateConfig {
-    
+
+    @Value("${python.backend.url:http://localhost:8000}")
+    private String pythonBackendUrl;
+
+    @Bean
+    public PoolingHttpClientConnectionManager pythonBackendConnectionManager(PythonBackendHttpProperties properties,
+                                                                            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getMaxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(properties.getConnectTimeoutMs()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(properties.getReadTimeoutMs()))
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(properties.getValidateAfterInactivityMs()))
+                        .build())
+                .build();
+
+        // The Python backend gets its own, larger share of the pool
+        URI uri = URI.create(pythonBackendUrl);
+        int port = uri.getPort() != -1 ? uri.getPort() : ("https".equals(uri.getScheme()) ? 443 : 80);
+        connectionManager.setMaxPerRoute(new HttpRoute(new HttpHost(uri.getScheme(), uri.getHost(), port)),
+                properties.getPythonMaxPerRoute());
+
+        // Publishes httpcomponents.httpclient.pool.{total.max,total.connections,total.pending,route.max.default}
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "python-backend")
+                .bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient pythonBackendHttpClient(PoolingHttpClientConnectionManager pythonBackendConnectionManager,
+                                                       PythonBackendHttpProperties properties) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(properties.getPoolAcquireTimeoutMs()))
+                .setResponseTimeout(Timeout.ofMilliseconds(properties.getReadTimeoutMs()))
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(pythonBackendConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofSeconds(properties.getKeepAliveSeconds()))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(properties.getIdleEvictSeconds()))
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient pythonBackendHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(pythonBackendHttpClient));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package demo.config;
+
+import demo.utils.VirtualThreadProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, which happens when they block
+ * inside a synchronized section or a native frame (older JDBC drivers, some HTTP and logging code).
+ * Events come from the JDK's jdk.VirtualThreadPinned JFR event, streamed in-process; each one is
+ * logged with the blocking stack and counted in jvm.threads.virtual.pinned. For the same report without
+ * the application, start the JVM with -Djdk.tracePinnedThreads=short (Java 21-23).
+ */
+@Slf4j
+@Component
+public class VirtualThreadDiagnostics {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private VirtualThreadProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private RecordingStream stream;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!Threading.VIRTUAL.isActive(environment) || !properties.isPinningDiagnostics()) {
+            return;
+        }
+        Counter pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads blocked while pinned to their carrier")
+                .register(meterRegistry);
+        try {
+            stream = new RecordingStream();
+            stream.enable("jdk.VirtualThreadPinned")
+                    .withThreshold(Duration.ofMillis(properties.getPinnedThresholdMs()))
+                    .withStackTrace();
+            stream.onEvent("jdk.VirtualThreadPinned", event -> {
+                pinned.increment();
+                log.warn("Virtual thread {} pinned for {} ms at:\n{}",
+                        event.getThread() != null ? event.getThread().getJavaName() : "?",
+                        event.getDuration().toMillis(), describeStack(event));
+            });
+            stream.startAsync();
+            log.info("Virtual thread pinning diagnostics on, threshold {} ms", properties.getPinnedThresholdMs());
+        } catch (RuntimeException e) {
+            log.warn("Unable to start virtual thread pinning diagnostics: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private String describeStack(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "    (no stack trace)";
+        }
+        return event.getStackTrace().getFrames().stream()
+                .limit(properties.getStackDepth())
+                .map(this::describeFrame)
+                .collect(Collectors.joining("\n"));
+    }
+
+    private String describeFrame(RecordedFrame frame) {
+        return "    " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -3,13 +3,18 @@ package demo.controller;
 import demo.pojo.Group;
 import demo.pojo.Result;
 import demo.pojo.User;
+import demo.service.ActivityService;
 import demo.service.AdminService;
+import demo.service.ImportJobService;
+import demo.service.RegistrationTrendService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import demo.pojo.PageBean;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -25,6 +30,15 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private RegistrationTrendService registrationTrendService;
+
     /** 1. Paginate and retrieve all students */
     @GetMapping("/students")
     public Result pageStudents(
@@ -183,12 +197,15 @@ public class AdminController {
         return Result.success("Group deleted");
     }
 
-    /** 10. Retrieve registration trend data */
+    /** 10. Retrieve registration trend data; granularity is day, week or month */
     @GetMapping("/registration-trend")
-    public Result getRegistrationTrend() {
-        log.info("Starting to fetch registration trend data");
+    public Result getRegistrationTrend(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        log.info("Starting to fetch registration trend data - from={}, to={}, granularity={}", from, to, granularity);
         try {
-            List<Map<String, Object>> trend = adminService.getRegistrationTrend();
+            List<Map<String, Object>> trend = registrationTrendService.getTrend(from, to, granularity);
             log.info("Successfully fetched registration trend data, count={}", trend.size());
             return Result.success(trend);
         } catch (Exception e) {
@@ -197,14 +214,14 @@ public class AdminController {
         }
     }
 
-    /** 11. Retrieve recent activities */
+    /** 11. Retrieve recent activities; pass the last returned id as before= for the next page */
     @GetMapping("/recent-activities")
     public Result getRecentActivities(
-            @RequestParam(defaultValue = "1") Integer page,
+            @RequestParam(required = false) Long before,
             @RequestParam(defaultValue = "10") Integer pageSize) {
-        log.info("Fetching recent activities - page={}, pageSize={}", page, pageSize);
+        log.info("Fetching recent activities - before={}, pageSize={}", before, pageSize);
         try {
-            List<Map<String, Object>> activities = adminService.getRecentActivities(page, pageSize);
+            List<Map<String, Object>> activities = activityService.getAllActivities(before, pageSize);
             return Result.success(activities);
         } catch (Exception e) {
             log.error("Failed to fetch recent activities", e);
@@ -212,29 +229,43 @@ public class AdminController {
         }
     }
 
-    /** 12. Batch import students from file */
+    /** 12. Batch import students from file (runs as a background job) */
     @PostMapping("/students/batch-import")
-    public Result batchImportStudents(@RequestParam("file") MultipartFile file) {
+    public Result batchImportStudents(@RequestParam("file") MultipartFile file,
+                                      @RequestAttribute("userId") Long userId) {
         log.info("Admin batch importing students, fileName={}", file.getOriginalFilename());
         try {
-            Map<String, Object> result = adminService.batchImportStudents(file);
-            return Result.success(result);
+            Map<String, Object> job = importJobService.submit(ImportJobService.STUDENTS, file, userId);
+            return Result.success(job);
         } catch (Exception e) {
             log.error("Failed to batch import students", e);
             return Result.error("Failed to batch import students: " + e.getMessage());
         }
     }
 
-    /** 13. Batch import teachers from file */
+    /** 13. Batch import teachers from file (runs as a background job) */
     @PostMapping("/teachers/batch-import")
-    public Result batchImportTeachers(@RequestParam("file") MultipartFile file) {
+    public Result batchImportTeachers(@RequestParam("file") MultipartFile file,
+                                      @RequestAttribute("userId") Long userId) {
         log.info("Admin batch importing teachers, fileName={}", file.getOriginalFilename());
         try {
-            Map<String, Object> result = adminService.batchImportTeachers(file);
-            return Result.success(result);
+            Map<String, Object> job = importJobService.submit(ImportJobService.TEACHERS, file, userId);
+            return Result.success(job);
         } catch (Exception e) {
             log.error("Failed to batch import teachers", e);
             return Result.error("Failed to batch import teachers: " + e.getMessage());
         }
     }
+
+    /** 14. Progress of a batch import job: rows processed, imported and errors so far */
+    @GetMapping("/import-jobs/{jobId}")
+    public Result getImportJob(@PathVariable Long jobId,
+                               @RequestAttribute("userId") Long userId) {
+        try {
+            return Result.success(importJobService.getJobStatus(userId, jobId));
+        } catch (Exception e) {
+            log.error("Failed to fetch import job", e);
+            return Result.error("Failed to fetch import job: " + e.getMessage());
+        }
+    }
 }
@@ -1,20 +1,34 @@
 package demo.controller;
 
 import demo.pojo.Result;
-import demo.utils.AliOSSUtils;
+import demo.utils.FileStorage;
+import demo.utils.PresignedUrlCache;
+import demo.utils.PresignedUrlCacheProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletResponse;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Slf4j
 @RestController
 @RequestMapping("/file")
 public class FileController {
 
     @Autowired
-    private AliOSSUtils aliOSSUtils;
+    private FileStorage fileStorage;
+
+    @Autowired
+    private PresignedUrlCache presignedUrlCache;
+
+    @Autowired
+    private PresignedUrlCacheProperties presignedUrlCacheProperties;
 
     /**
      * Generate a presigned URL for file preview
@@ -25,13 +39,13 @@ public class FileController {
 
         try {
             // Extract objectName from the full URL
-            String objectName = aliOSSUtils.extractObjectName(fileUrl);
+            String objectName = fileStorage.extractObjectName(fileUrl);
             if (objectName == null) {
                 return Result.error("Invalid file URL");
             }
 
             // Generate a presigned temporary access URL
-            String presignedUrl = aliOSSUtils.generatePresignedUrl(objectName);
+            String presignedUrl = presignedUrlCache.get(objectName);
             if (presignedUrl == null) {
                 return Result.error("Failed to generate preview URL");
             }
@@ -45,6 +59,39 @@ public class FileController {
         }
     }
 
+    /**
+     * Generate presigned URLs for many files at once, for list views.
+     * The result maps each requested URL to its preview URL, or to null if it cannot be signed.
+     * At most file.presign-cache.max-batch URLs per request.
+     */
+    @PostMapping("/preview-urls")
+    public Result generatePreviewUrls(@RequestBody List<String> fileUrls) {
+        log.info("Request to generate {} preview URLs", fileUrls.size());
+        int maxBatch = presignedUrlCacheProperties.getMaxBatch();
+        if (fileUrls.size() > maxBatch) {
+            return Result.error("Too many file URLs, at most " + maxBatch + " per request");
+        }
+
+        try {
+            Map<String, String> objectNames = new LinkedHashMap<>();
+            for (String fileUrl : fileUrls) {
+                objectNames.put(fileUrl, fileStorage.extractObjectName(fileUrl));
+            }
+            Set<String> toSign = new LinkedHashSet<>(objectNames.values());
+            toSign.remove(null);
+            Map<String, String> signed = presignedUrlCache.getAll(toSign);
+
+            Map<String, String> result = new LinkedHashMap<>();
+            objectNames.forEach((fileUrl, objectName) ->
+                    result.put(fileUrl, objectName != null ? signed.get(objectName) : null));
+            return Result.success(result);
+
+        } catch (Exception e) {
+            log.error("Error occurred while generating preview URLs: {}", e.getMessage(), e);
+            return Result.error("Failed to generate preview URLs: " + e.getMessage());
+        }
+    }
+
     /**
      * Proxy file download to handle CORS issues
      */
@@ -56,14 +103,14 @@ public class FileController {
 
         try {
             // Extract objectName from the full URL
-            String objectName = aliOSSUtils.extractObjectName(url);
+            String objectName = fileStorage.extractObjectName(url);
             if (objectName == null) {
                 response.setStatus(404);
                 return;
             }
 
             // Generate a presigned temporary access URL
-            String presignedUrl = aliOSSUtils.generatePresignedUrl(objectName);
+            String presignedUrl = presignedUrlCache.get(objectName);
             if (presignedUrl == null) {
                 response.setStatus(500);
                 return;
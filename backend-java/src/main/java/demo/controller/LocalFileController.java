@@ -0,0 +1,50 @@
+package demo.controller;
+
+import demo.utils.LocalFileStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Path;
+
+/**
+ * Serves objects of the local storage backend to presigned URLs only, like a private bucket.
+ * The backend's own reads (document parsing) open the files directly instead of coming through here.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/file/local")
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalFileController {
+
+    @Autowired
+    private LocalFileStorage localFileStorage;
+
+    @GetMapping("/{objectName}")
+    public ResponseEntity<Resource> download(@PathVariable String objectName,
+                                             @RequestParam(required = false) Long expires,
+                                             @RequestParam(required = false) String signature) {
+        if (expires == null || !localFileStorage.verify(objectName, expires, signature)) {
+            log.warn("Rejected local file request with missing, invalid or expired signature: {}", objectName);
+            return ResponseEntity.status(403).build();
+        }
+
+        Path file = localFileStorage.resolve(objectName);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Resource resource = new FileSystemResource(file);
+        MediaType mediaType = MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        return ResponseEntity.ok().contentType(mediaType).body(resource);
+    }
+}
@@ -2,10 +2,14 @@ package demo.controller;
 
 import demo.pojo.Meeting;
 import demo.pojo.Result;
+import demo.pojo.AgentJob;
+import demo.service.AgentJobService;
 import demo.service.MeetingService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -18,6 +22,9 @@ public class MeetingController {
     @Autowired
     private MeetingService meetingService;
 
+    @Autowired
+    private AgentJobService agentJobService;
+
     /**
      * Retrieve all meetings for a given task
      */
@@ -122,4 +129,30 @@ public class MeetingController {
             return Result.error("Failed to fetch meeting details: " + e.getMessage());
         }
     }
+
+    /**
+     * Poll the status of a background agent analysis job
+     */
+    @GetMapping("/jobs/{jobId}")
+    public Result getAgentJob(@RequestAttribute("userId") Long userId,
+                              @PathVariable Long jobId) {
+        log.info("User {} polling agent job {}", userId, jobId);
+        try {
+            AgentJob job = agentJobService.getJob(userId, jobId);
+            return Result.success(job);
+        } catch (Exception e) {
+            log.error("Failed to fetch agent job", e);
+            return Result.error("Failed to fetch agent job: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Subscribe to the completion of a background agent analysis job (server-sent events)
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeAgentJob(@RequestAttribute("userId") Long userId,
+                                        @PathVariable Long jobId) {
+        log.info("User {} subscribing to agent job {}", userId, jobId);
+        return agentJobService.subscribe(userId, jobId);
+    }
 }
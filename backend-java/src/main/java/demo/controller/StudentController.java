@@ -6,9 +6,13 @@ import demo.pojo.User;
 import demo.pojo.Task;
 import demo.service.StudentService;
 import demo.service.AgentService;
+import demo.service.AgentStreamService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -34,6 +38,9 @@ public class StudentController {
     @Autowired
     private MemberWeeklyGoalService memberWeeklyGoalService;
 
+    @Autowired
+    private AgentStreamService agentStreamService;
+
     /** Paginate students */
     @GetMapping
     public Result page(@RequestParam(defaultValue = "1") Integer page,
@@ -268,10 +275,17 @@ public class StudentController {
     @GetMapping("/conversations")
     public Result getConversationHistory(@RequestAttribute("userId") Long userId,
                                          @RequestParam Long taskId,
-                                         @RequestParam Long groupId) {
+                                         @RequestParam Long groupId,
+                                         @RequestParam(required = false) Long cursor,
+                                         @RequestParam(required = false) Integer limit) {
         log.info("Student {} fetching conversation history for task {} group {}", userId, taskId, groupId);
-        List<Map<String, Object>> messages = studentService.getConversationHistory(userId, taskId, groupId);
-        return Result.success(messages);
+        // Without paging parameters the full history is returned, as before
+        if (cursor == null && limit == null) {
+            List<Map<String, Object>> messages = studentService.getConversationHistory(userId, taskId, groupId);
+            return Result.success(messages);
+        }
+        int pageSize = limit == null ? 50 : Math.max(1, Math.min(limit, 200));
+        return Result.success(studentService.getConversationPage(userId, taskId, groupId, cursor, pageSize));
     }
 
     /** Send a message in the conversation */
@@ -293,6 +307,29 @@ public class StudentController {
         }
     }
 
+    /** Send a message in the conversation and stream the agent's reply as server-sent events */
+    @PostMapping(value = "/conversations/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMessage(@RequestAttribute("userId") Long userId,
+                                    @RequestBody Map<String, Object> messageData,
+                                    HttpServletResponse response) {
+        log.info("Student {} streaming message to conversation", userId);
+        Long taskId = Long.valueOf(messageData.get("taskId").toString());
+        String content = (String) messageData.get("content");
+        // Keep reverse proxies from buffering the event stream
+        response.setHeader("X-Accel-Buffering", "no");
+        return agentStreamService.streamMessage(userId, taskId, content);
+    }
+
+    /** Stream agent advice for a task as server-sent events */
+    @GetMapping(value = "/conversations/stream/agent-advice", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAgentAdvice(@RequestAttribute("userId") Long userId,
+                                        @RequestParam Long taskId,
+                                        HttpServletResponse response) {
+        log.info("Student {} streaming agent advice for task {}", userId, taskId);
+        response.setHeader("X-Accel-Buffering", "no");
+        return agentStreamService.streamInitialAdvice(userId, taskId);
+    }
+
     /** Update task assignment */
     @PutMapping("/task-assignments")
     public Result updateTaskAssignment(@RequestAttribute("userId") Long userId,
@@ -398,12 +435,13 @@ public class StudentController {
     @PostMapping("/tasks/{taskId}/weekly-goals/generate")
     public Result generateWeeklyGoal(@RequestAttribute("userId") Long userId,
                                      @PathVariable("taskId") Long taskId,
-                                     @RequestParam("weekNo") Integer weekNo) {
-        log.info("Student requesting AI-generated weekly goals - taskId={}, userId={}, weekNo={}",
-                taskId, userId, weekNo);
+                                     @RequestParam("weekNo") Integer weekNo,
+                                     @RequestParam(value = "refresh", defaultValue = "false") boolean refresh) {
+        log.info("Student requesting AI-generated weekly goals - taskId={}, userId={}, weekNo={}, refresh={}",
+                taskId, userId, weekNo, refresh);
         try {
             Map<String, String> generatedGoal =
-                    agentService.generateWeeklyGoal(taskId, userId, weekNo);
+                    agentService.generateWeeklyGoal(taskId, userId, weekNo, refresh);
             MemberWeeklyGoal goal = new MemberWeeklyGoal();
             goal.setTaskId(taskId);
             goal.setStudentId(userId);
@@ -6,12 +6,16 @@ import demo.pojo.PageBean;
 import demo.pojo.User;
 import demo.pojo.Task;
 import demo.service.TeacherService;
+import demo.service.ActivityService;
 import demo.service.AdminService;
+import demo.service.ImportJobService;
+import demo.service.SearchService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import demo.pojo.Group;
+import demo.pojo.SearchHit;
 
 import java.util.List;
 import java.util.Map;
@@ -30,12 +34,21 @@ public class TeacherController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private SearchService searchService;
+
     /** Get dashboard statistics for the teacher */
     @GetMapping("/dashboard/stats")
-    public Result getDashboardStats() {
-        log.info("Fetching teacher dashboard statistics");
+    public Result getDashboardStats(@RequestAttribute("userId") Long teacherId) {
+        log.info("Fetching teacher dashboard statistics, teacherId={}", teacherId);
         try {
-            Map<String, Object> stats = teacherService.getDashboardStats();
+            Map<String, Object> stats = teacherService.getDashboardStats(teacherId);
             return Result.success(stats);
         } catch (Exception e) {
             log.error("Failed to fetch dashboard statistics", e);
@@ -43,13 +56,14 @@ public class TeacherController {
         }
     }
 
-    /** Get recent activities for the teacher */
+    /** Get recent activities for the teacher; pass the last returned id as before= for the next page */
     @GetMapping("/recent-activities")
-    public Result getRecentActivities(@RequestParam(defaultValue = "1") Integer page,
-                                      @RequestParam(defaultValue = "10") Integer pageSize) {
-        log.info("Fetching recent activities - page={}, pageSize={}", page, pageSize);
+    public Result getRecentActivities(@RequestParam(required = false) Long before,
+                                      @RequestParam(defaultValue = "10") Integer pageSize,
+                                      @RequestAttribute("userId") Long teacherId) {
+        log.info("Fetching recent activities - before={}, pageSize={}", before, pageSize);
         try {
-            List<Map<String, Object>> activities = teacherService.getRecentActivities(page, pageSize);
+            List<Map<String, Object>> activities = activityService.getTeacherFeed(teacherId, before, pageSize);
             return Result.success(activities);
         } catch (Exception e) {
             log.error("Failed to fetch recent activities", e);
@@ -166,44 +180,73 @@ public class TeacherController {
         return Result.success(students);
     }
 
-    /** Batch import students */
+    /** Full-text search of agent transcripts and task/meeting documents in the teacher's groups */
+    @GetMapping("/search")
+    public Result search(@RequestParam("q") String query,
+                         @RequestParam(required = false) Long groupId,
+                         @RequestParam(defaultValue = "20") Integer limit,
+                         @RequestAttribute("userId") Long teacherId) {
+        log.info("Searching content - groupId={}, limit={}", groupId, limit);
+        try {
+            List<SearchHit> hits = searchService.search(teacherId, groupId, query, limit);
+            return Result.success(hits);
+        } catch (Exception e) {
+            log.error("Search failed", e);
+            return Result.error("Search failed: " + e.getMessage());
+        }
+    }
+
+    /** Batch import students (runs as a background job) */
     @PostMapping("/students/batch-import")
-    public Result batchImportStudents(@RequestParam("file") MultipartFile file) {
+    public Result batchImportStudents(@RequestParam("file") MultipartFile file,
+                                      @RequestAttribute("userId") Long teacherId) {
         log.info("Teacher batch importing students, fileName={}", file.getOriginalFilename());
         try {
-            Map<String, Object> result = adminService.batchImportStudents(file);
-            return Result.success(result);
+            Map<String, Object> job = importJobService.submit(ImportJobService.STUDENTS, file, teacherId);
+            return Result.success(job);
         } catch (Exception e) {
             log.error("Failed to batch import students", e);
             return Result.error("Failed to batch import students: " + e.getMessage());
         }
     }
 
-    /** Batch import groups */
+    /** Batch import groups (runs as a background job) */
     @PostMapping("/groups/batch-import")
     public Result batchImportGroups(@RequestParam("file") MultipartFile file,
                                     @RequestAttribute("userId") Long teacherId) {
         log.info("Teacher batch importing groups, fileName={}", file.getOriginalFilename());
         try {
-            Map<String, Object> result = teacherService.batchImportGroups(file, teacherId);
-            return Result.success(result);
+            Map<String, Object> job = importJobService.submit(ImportJobService.GROUPS, file, teacherId);
+            return Result.success(job);
         } catch (Exception e) {
             log.error("Failed to batch import groups", e);
             return Result.error("Failed to batch import groups: " + e.getMessage());
         }
     }
 
-    /** Batch import tasks */
+    /** Batch import tasks (runs as a background job) */
     @PostMapping("/tasks/batch-import")
     public Result batchImportTasks(@RequestParam("file") MultipartFile file,
                                    @RequestAttribute("userId") Long teacherId) {
         log.info("Teacher batch importing tasks, fileName={}", file.getOriginalFilename());
         try {
-            Map<String, Object> result = teacherService.batchImportTasks(file, teacherId);
-            return Result.success(result);
+            Map<String, Object> job = importJobService.submit(ImportJobService.TASKS, file, teacherId);
+            return Result.success(job);
         } catch (Exception e) {
             log.error("Failed to batch import tasks", e);
             return Result.error("Failed to batch import tasks: " + e.getMessage());
         }
     }
+
+    /** Progress of a batch import job: rows processed, imported and errors so far */
+    @GetMapping("/import-jobs/{jobId}")
+    public Result getImportJob(@PathVariable Long jobId,
+                               @RequestAttribute("userId") Long teacherId) {
+        try {
+            return Result.success(importJobService.getJobStatus(teacherId, jobId));
+        } catch (Exception e) {
+            log.error("Failed to fetch import job", e);
+            return Result.error("Failed to fetch import job: " + e.getMessage());
+        }
+    }
 }
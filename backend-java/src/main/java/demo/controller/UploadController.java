@@ -1,7 +1,7 @@
 package demo.controller;
 
 import demo.pojo.Result;
-import demo.utils.AliOSSUtils;
+import demo.utils.FileStorage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,7 +17,7 @@ import java.io.IOException;
 public class UploadController {
 
     @Autowired
-    private AliOSSUtils aliOSSUtils;
+    private FileStorage fileStorage;
 
     @PostMapping("/upload")
     @Transactional
@@ -46,8 +46,8 @@ public class UploadController {
                 return Result.error("Filename cannot be empty");
             }
 
-            // Upload file via Aliyun OSS
-            String url = aliOSSUtils.upload(file);
+            // Upload file via the configured storage backend
+            String url = fileStorage.upload(file);
             log.info("File uploaded successfully, access URL: {}", url);
 
             return Result.success(url);
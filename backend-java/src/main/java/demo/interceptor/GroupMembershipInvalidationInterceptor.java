@@ -0,0 +1,97 @@
+package demo.interceptor;
+
+import demo.utils.GroupMembershipCache;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * MyBatis plugin keeping GroupMembershipCache in step with writes that change membership.
+ * Entries are dropped right after the statement and again after commit, so a concurrent
+ * request cannot re-cache the pre-commit state for the rest of the TTL.
+ */
+@Slf4j
+@Component
+@Intercepts({@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+public class GroupMembershipInvalidationInterceptor implements Interceptor {
+
+    private static final String USER_GROUP_MAPPER = "demo.mapper.UserGroupMapper.";
+
+    // Lazy: the cache depends on a mapper, which in turn needs this plugin to be built
+    @Autowired
+    @Lazy
+    private GroupMembershipCache membershipCache;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        Object param = invocation.getArgs()[1];
+        Runnable invalidation = invalidationFor(ms.getId(), param);
+        if (invalidation != null) {
+            invalidation.run();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        invalidation.run();
+                    }
+                });
+            }
+        }
+        return result;
+    }
+
+    private Runnable invalidationFor(String statementId, Object param) {
+        switch (statementId) {
+            case USER_GROUP_MAPPER + "delete": {
+                Object userId = paramValue(param, "userId");
+                return userId instanceof Long id ? () -> membershipCache.invalidateUser(id) : null;
+            }
+            case USER_GROUP_MAPPER + "batchInsert": {
+                Object userIds = paramValue(param, "userIds");
+                if (userIds instanceof Collection<?> ids) {
+                    return () -> ids.forEach(id -> membershipCache.invalidateUser((Long) id));
+                }
+                return membershipCache::invalidateAllUsers;
+            }
+            case "demo.mapper.TaskMapper.deleteById": {
+                Object taskId = paramValue(param, "id");
+                return taskId instanceof Long id ? () -> membershipCache.invalidateTask(id) : null;
+            }
+            case "demo.mapper.UserMapper.deleteById":
+                // A deleted teacher takes their groups with them, and with those the memberships
+                // and tasks of other users. Which groups they owned is no longer known here, and user
+                // deletes are rare enough that dropping every entry costs little
+            case "demo.mapper.GroupMapper.deleteById":
+                // Cascades to user_group and tasks, whose members are not known here
+                return () -> {
+                    membershipCache.invalidateAllUsers();
+                    membershipCache.invalidateAllTasks();
+                };
+            default:
+                return null;
+        }
+    }
+
+    private Object paramValue(Object param, String name) {
+        if (param instanceof Map<?, ?> map) {
+            return map.containsKey(name) ? map.get(name) : null;
+        }
+        // Single-argument statements pass the value itself
+        return param;
+    }
+}
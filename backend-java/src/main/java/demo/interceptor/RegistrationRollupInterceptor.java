@@ -0,0 +1,76 @@
+package demo.interceptor;
+
+import demo.mapper.RegistrationDailyMapper;
+import demo.pojo.User;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * MyBatis plugin keeping user_registration_daily in step with inserts into users.
+ * The bucket is incremented right after the insert, inside the same transaction,
+ * so a rolled-back registration never shows up in the trend.
+ */
+@Slf4j
+@Component
+@Intercepts({@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+public class RegistrationRollupInterceptor implements Interceptor {
+
+    // Lazy: the mapper needs this plugin to be built first
+    @Autowired
+    @Lazy
+    private RegistrationDailyMapper registrationDailyMapper;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        Object param = invocation.getArgs()[1];
+
+        Object result = invocation.proceed();
+
+        List<User> users = insertedUsers(ms.getId(), param);
+        if (!users.isEmpty()) {
+            // One upsert per (day, role) rather than per user, so a batch import costs a handful of statements
+            Map<LocalDate, Map<String, Long>> buckets = users.stream()
+                    .filter(u -> u.getRole() != null)
+                    .collect(Collectors.groupingBy(this::registrationDay,
+                            Collectors.groupingBy(User::getRole, Collectors.counting())));
+            buckets.forEach((day, roles) -> roles.forEach((role, count) ->
+                    registrationDailyMapper.increment(day, role, count.intValue())));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<User> insertedUsers(String statementId, Object param) {
+        switch (statementId) {
+            case "demo.mapper.UserMapper.insert":
+            case "demo.mapper.RegisterMapper.insertUser":
+                return List.of((User) param);
+            case "demo.mapper.UserMapper.batchInsert":
+                // A lone List argument is wrapped by MyBatis under "list"
+                Object list = param instanceof Map<?, ?> map ? map.get("list") : param;
+                return (List<User>) list;
+            default:
+                return Collections.emptyList();
+        }
+    }
+
+    private LocalDate registrationDay(User user) {
+        // RegisterMapper.insertUser stamps created_at with NOW() instead of the object's value
+        return user.getCreatedAt() != null ? user.getCreatedAt().toLocalDate() : LocalDate.now();
+    }
+}
@@ -0,0 +1,152 @@
+package demo.interceptor;
+
+import demo.mapper.TeacherStatsMapper;
+import demo.pojo.Group;
+import demo.pojo.Meeting;
+import demo.pojo.MemberWeeklyGoal;
+import demo.pojo.Task;
+import demo.service.TeacherStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MyBatis plugin marking teacher_stats rows dirty when a write touches a teacher's
+ * groups, members, tasks, meetings or weekly goals.
+ * The owning teacher is looked up before the statement runs, since a delete removes the row
+ * the lookup goes through; the row is marked only after commit, so the refresh sees the new state.
+ */
+@Slf4j
+@Component
+@Intercepts({@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+public class TeacherStatsInterceptor implements Interceptor {
+
+    // Lazy: the service and mapper need this plugin to be built first
+    @Autowired
+    @Lazy
+    private TeacherStatsMapper teacherStatsMapper;
+
+    @Autowired
+    @Lazy
+    private TeacherStatsService teacherStatsService;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        Object param = invocation.getArgs()[1];
+        List<Long> teacherIds = affectedTeachers(ms.getId(), param);
+
+        Object result = invocation.proceed();
+
+        if (!teacherIds.isEmpty()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        teacherStatsService.markDirty(teacherIds);
+                    }
+                });
+            } else {
+                teacherStatsService.markDirty(teacherIds);
+            }
+        }
+        return result;
+    }
+
+    private List<Long> affectedTeachers(String statementId, Object param) {
+        List<Long> teacherIds = new ArrayList<>();
+        try {
+            switch (statementId) {
+                case "demo.mapper.GroupMapper.insert":
+                    teacherIds.add(((Group) param).getTeacherId());
+                    break;
+                case "demo.mapper.GroupMapper.update":
+                    // The owner may change, so both the old and the new teacher are affected
+                    teacherIds.add(teacherStatsMapper.findTeacherIdByGroup(((Group) param).getId()));
+                    teacherIds.add(((Group) param).getTeacherId());
+                    break;
+                case "demo.mapper.GroupMapper.deleteById":
+                    teacherIds.add(teacherStatsMapper.findTeacherIdByGroup(longParam(param, "id")));
+                    break;
+                case "demo.mapper.UserGroupMapper.delete":
+                case "demo.mapper.UserGroupMapper.batchInsert":
+                    teacherIds.add(teacherStatsMapper.findTeacherIdByGroup(longParam(param, "groupId")));
+                    break;
+                case "demo.mapper.UserMapper.deleteById":
+                    teacherIds.addAll(teacherStatsMapper.findTeacherIdsByMember(longParam(param, "id")));
+                    break;
+                case "demo.mapper.TaskMapper.insert":
+                    teacherIds.add(teacherStatsMapper.findTeacherIdByGroup(((Task) param).getGroupId()));
+                    break;
+                case "demo.mapper.TaskMapper.update":
+                    teacherIds.add(teacherStatsMapper.findTeacherIdByTask(((Task) param).getId()));
+                    break;
+                case "demo.mapper.TaskMapper.deleteById":
+                    teacherIds.add(teacherStatsMapper.findTeacherIdByTask(longParam(param, "id")));
+                    break;
+                case "demo.mapper.MeetingMapper.insert":
+                    teacherIds.add(teacherStatsMapper.findTeacherIdByGroup(((Meeting) param).getGroupId()));
+                    break;
+                case "demo.mapper.MeetingMapper.batchInsert":
+                    // Batches are generated for a single task, so the first row identifies the teacher
+                    teacherIds.add(teacherStatsMapper.findTeacherIdByGroup(
+                            firstOf(param, "meetings", Meeting.class).getGroupId()));
+                    break;
+                case "demo.mapper.MeetingMapper.update":
+                    teacherIds.add(teacherStatsMapper.findTeacherIdByMeeting(((Meeting) param).getId()));
+                    break;
+                case "demo.mapper.MeetingMapper.updateStatus":
+                case "demo.mapper.MeetingMapper.deleteById":
+                    teacherIds.add(teacherStatsMapper.findTeacherIdByMeeting(longParam(param, "id")));
+                    break;
+                case "demo.mapper.MemberWeeklyGoalMapper.insert":
+                    teacherIds.add(teacherStatsMapper.findTeacherIdByTask(((MemberWeeklyGoal) param).getTaskId()));
+                    break;
+                case "demo.mapper.MemberWeeklyGoalMapper.batchInsert":
+                    teacherIds.add(teacherStatsMapper.findTeacherIdByTask(
+                            firstOf(param, "goals", MemberWeeklyGoal.class).getTaskId()));
+                    break;
+                case "demo.mapper.MemberWeeklyGoalMapper.update":
+                    teacherIds.add(teacherStatsMapper.findTeacherIdByGoal(((MemberWeeklyGoal) param).getId()));
+                    break;
+                case "demo.mapper.MemberWeeklyGoalMapper.updateStatus":
+                case "demo.mapper.MemberWeeklyGoalMapper.delete":
+                    teacherIds.add(teacherStatsMapper.findTeacherIdByGoal(longParam(param, "id")));
+                    break;
+                default:
+                    break;
+            }
+        } catch (RuntimeException e) {
+            // Never fail the write over statistics; reconciliation catches up
+            log.warn("Unable to resolve teacher for {}: {}", statementId, e.getMessage());
+        }
+        teacherIds.removeIf(id -> id == null);
+        return teacherIds;
+    }
+
+    private <T> T firstOf(Object param, String name, Class<T> type) {
+        List<?> list = (List<?>) ((Map<?, ?>) param).get(name);
+        return type.cast(list.get(0));
+    }
+
+    private Long longParam(Object param, String name) {
+        if (param instanceof Map<?, ?> map) {
+            return map.containsKey(name) ? (Long) map.get(name) : null;
+        }
+        // Single-argument statements pass the value itself
+        return (Long) param;
+    }
+}
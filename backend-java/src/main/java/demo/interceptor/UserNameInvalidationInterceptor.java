@@ -0,0 +1,63 @@
+package demo.interceptor;
+
+import demo.pojo.User;
+import demo.utils.UserNameCache;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+/**
+ * MyBatis plugin dropping UserNameCache entries when a user is updated or deleted
+ * (AdminServiceImpl.updateUser, updateStudent, updateTeacher and the delete paths).
+ * As with membership, the entry is dropped after the statement and again after commit.
+ */
+@Component
+@Intercepts({@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+public class UserNameInvalidationInterceptor implements Interceptor {
+
+    // Lazy: the cache depends on a mapper, which in turn needs this plugin to be built
+    @Autowired
+    @Lazy
+    private UserNameCache userNameCache;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        Long userId = affectedUser(ms.getId(), invocation.getArgs()[1]);
+        if (userId != null) {
+            userNameCache.invalidate(userId);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        userNameCache.invalidate(userId);
+                    }
+                });
+            }
+        }
+        return result;
+    }
+
+    private Long affectedUser(String statementId, Object param) {
+        switch (statementId) {
+            case "demo.mapper.UserMapper.update":
+                return ((User) param).getId();
+            case "demo.mapper.UserMapper.deleteById":
+                return param instanceof Map<?, ?> map ? (Long) map.get("id") : (Long) param;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package demo.mapper;
+
+import demo.pojo.ActivityEvent;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * Activity Event Mapper
+ */
+@Mapper
+public interface ActivityEventMapper {
+
+    @Insert("INSERT INTO activity_events (event_type, actor_id, teacher_id, group_id, task_id, title, description, created_at) " +
+            "VALUES (#{eventType}, #{actorId}, #{teacherId}, #{groupId}, #{taskId}, #{title}, #{description}, #{createdAt})")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    void insert(ActivityEvent event);
+
+    @Insert("INSERT INTO activity_feed (teacher_id, event_id) VALUES (#{teacherId}, #{eventId})")
+    void insertFeedEntry(@Param("teacherId") Long teacherId, @Param("eventId") Long eventId);
+
+    /**
+     * A teacher's feed, newest first, starting below the cursor; walks the (teacher_id, event_id) key
+     */
+    @Select("<script>" +
+            "SELECT e.*, u.name AS actor_name FROM activity_feed f " +
+            "JOIN activity_events e ON e.id = f.event_id " +
+            "LEFT JOIN users u ON u.id = e.actor_id " +
+            "WHERE f.teacher_id = #{teacherId} " +
+            "<if test='beforeId != null'>AND f.event_id &lt; #{beforeId} </if>" +
+            "ORDER BY f.event_id DESC LIMIT #{limit}" +
+            "</script>")
+    List<ActivityEvent> findTeacherFeed(@Param("teacherId") Long teacherId,
+                                        @Param("beforeId") Long beforeId,
+                                        @Param("limit") int limit);
+
+    /**
+     * All events, newest first, starting below the cursor; walks the primary key
+     */
+    @Select("<script>" +
+            "SELECT e.*, u.name AS actor_name FROM activity_events e " +
+            "LEFT JOIN users u ON u.id = e.actor_id " +
+            "<if test='beforeId != null'>WHERE e.id &lt; #{beforeId} </if>" +
+            "ORDER BY e.id DESC LIMIT #{limit}" +
+            "</script>")
+    List<ActivityEvent> findAll(@Param("beforeId") Long beforeId, @Param("limit") int limit);
+}
@@ -0,0 +1,59 @@
+package demo.mapper;
+
+import demo.pojo.AgentJob;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * Agent Job Mapper
+ */
+@Mapper
+public interface AgentJobMapper {
+
+    @Insert("INSERT INTO agent_jobs (job_type, task_id, group_id, user_id, week_no, document_url, status, attempts, created_at, updated_at) " +
+            "VALUES (#{jobType}, #{taskId}, #{groupId}, #{userId}, #{weekNo}, #{documentUrl}, 'PENDING', 0, NOW(), NOW())")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    void insert(AgentJob job);
+
+    @Select("SELECT * FROM agent_jobs WHERE id = #{id}")
+    AgentJob findById(@Param("id") Long id);
+
+    /**
+     * Atomically claim a pending job; returns 1 only for the worker that wins the claim
+     */
+    @Update("UPDATE agent_jobs SET status = 'RUNNING', attempts = attempts + 1, started_at = NOW(), updated_at = NOW() " +
+            "WHERE id = #{id} AND status = 'PENDING'")
+    int claim(@Param("id") Long id);
+
+    @Update("UPDATE agent_jobs SET status = 'SUCCEEDED', result = #{result}, error_message = NULL, " +
+            "finished_at = NOW(), updated_at = NOW() WHERE id = #{id}")
+    void markSucceeded(@Param("id") Long id, @Param("result") String result);
+
+    @Update("UPDATE agent_jobs SET status = #{status}, error_message = #{errorMessage}, " +
+            "finished_at = CASE WHEN #{status} = 'FAILED' THEN NOW() ELSE NULL END, updated_at = NOW() WHERE id = #{id}")
+    void markFailed(@Param("id") Long id, @Param("status") String status, @Param("errorMessage") String errorMessage);
+
+    /** IDs of jobs waiting for a worker, oldest first */
+    @Select("SELECT id FROM agent_jobs WHERE status = 'PENDING' ORDER BY created_at ASC LIMIT #{limit}")
+    List<Long> findPendingIds(@Param("limit") int limit);
+
+    /**
+     * Return jobs whose worker disappeared (e.g. the node restarted) to the queue,
+     * as long as they have attempts left
+     */
+    @Update("UPDATE agent_jobs SET status = 'PENDING', updated_at = NOW() " +
+            "WHERE status = 'RUNNING' AND started_at < DATE_SUB(NOW(), INTERVAL #{staleSeconds} SECOND) " +
+            "AND attempts < #{maxAttempts}")
+    int requeueStale(@Param("staleSeconds") int staleSeconds, @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Give up on abandoned jobs that used all their attempts; a job that keeps killing its worker
+     * would otherwise be retried forever
+     */
+    @Update("UPDATE agent_jobs SET status = 'FAILED', error_message = 'Worker stopped responding on every attempt', " +
+            "finished_at = NOW(), updated_at = NOW() " +
+            "WHERE status = 'RUNNING' AND started_at < DATE_SUB(NOW(), INTERVAL #{staleSeconds} SECOND) " +
+            "AND attempts >= #{maxAttempts}")
+    int failStale(@Param("staleSeconds") int staleSeconds, @Param("maxAttempts") int maxAttempts);
+}
@@ -1,19 +1,46 @@
 package demo.mapper;
 
 import demo.pojo.Conversation;
+import demo.pojo.ConversationArchive;
+import demo.utils.TextCompression;
 import org.apache.ibatis.annotations.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Conversation messages.
+ * Bodies of old or large messages live compressed in conversation_archive, with content left NULL;
+ * the find* reads join the archive and hand back plain text, so callers never see the difference.
+ */
 @Mapper
 public interface ConversationMapper {
-    
-    @Insert("INSERT INTO conversations (task_id, group_id, sender_id, sender_type, content) " +
-            "VALUES (#{taskId}, #{groupId}, #{senderId}, #{senderType}, #{content})")
+
+    @Insert("INSERT INTO conversations (task_id, group_id, sender_id, sender_type, content, content_hash) " +
+            "VALUES (#{taskId}, #{groupId}, #{senderId}, #{senderType}, #{content}, #{contentHash})")
     void insert(Conversation conversation);
+
+    /**
+     * Insert a message unless the same sender posted the same content to this conversation within the window.
+     * The check and the insert are one statement, and the check is an index lookup on
+     * idx_task_group_hash that never reads the message bodies.
+     *
+     * @return 1 if inserted, 0 if it was a duplicate; the new ID is set on the message
+     */
+    @Options(useGeneratedKeys = true, keyProperty = "msg.id")
+    @Insert("INSERT INTO conversations (task_id, group_id, sender_id, sender_type, content, content_hash) " +
+            "SELECT #{msg.taskId}, #{msg.groupId}, #{msg.senderId}, #{msg.senderType}, #{msg.content}, #{msg.contentHash} " +
+            "FROM DUAL WHERE NOT EXISTS (" +
+            "    SELECT 1 FROM conversations " +
+            "    WHERE task_id = #{msg.taskId} AND group_id = #{msg.groupId} AND content_hash = #{msg.contentHash} " +
+            "      AND sender_type = #{msg.senderType} AND sender_id <=> #{msg.senderId} " +
+            "      AND created_at >= NOW() - INTERVAL #{windowSeconds} SECOND)")
+    int insertIfAbsent(@Param("msg") Conversation conversation, @Param("windowSeconds") long windowSeconds);
     
+    /** Whole conversation, oldest first, archived bodies still compressed; use findByTaskIdAndGroupId */
     @Select("SELECT c.id, c.task_id, c.group_id, c.sender_id, c.sender_type, c.content, c.created_at, " +
+            "a.codec AS archive_codec, a.body AS archive_body, " +
             "CASE " +
             "    WHEN c.sender_type = 'AGENT' THEN 'AI Assistant' " +
             "    WHEN c.sender_type = 'USER' AND u.name IS NOT NULL THEN u.name " +
@@ -22,19 +49,151 @@ public interface ConversationMapper {
             "END as sender_name " +
             "FROM conversations c " +
             "LEFT JOIN users u ON c.sender_id = u.id " +
+            "LEFT JOIN conversation_archive a ON a.conversation_id = c.id " +
             "WHERE c.task_id = #{taskId} AND c.group_id = #{groupId} " +
             "ORDER BY c.created_at ASC")
-    List<Map<String, Object>> findByTaskIdAndGroupId(@Param("taskId") Long taskId, @Param("groupId") Long groupId);
+    List<Map<String, Object>> findRawByTaskIdAndGroupId(@Param("taskId") Long taskId, @Param("groupId") Long groupId);
+
+    default List<Map<String, Object>> findByTaskIdAndGroupId(Long taskId, Long groupId) {
+        return unpack(findRawByTaskIdAndGroupId(taskId, groupId));
+    }
     
-    @Delete("DELETE FROM conversations WHERE task_id = #{taskId} AND group_id = #{groupId}")
-    void deleteByTaskIdAndGroupId(@Param("taskId") Long taskId, @Param("groupId") Long groupId);
+    /**
+     * One page of a conversation, newest first, using the message ID as keyset cursor, archived bodies
+     * still compressed; use findPageByTaskAndGroup.
+     * idx_task_group finds the conversation's rows in each monthly partition; only those rows are sorted.
+     */
+    @Select({
+            "<script>",
+            "SELECT c.id, c.task_id, c.group_id, c.sender_id, c.sender_type, c.content, c.created_at, ",
+            "a.codec AS archive_codec, a.body AS archive_body, ",
+            "CASE ",
+            "    WHEN c.sender_type = 'AGENT' THEN 'AI Assistant' ",
+            "    WHEN c.sender_type = 'USER' AND u.name IS NOT NULL THEN u.name ",
+            "    WHEN c.sender_type = 'USER' AND u.name IS NULL THEN 'Unknown User' ",
+            "    ELSE 'Unknown' ",
+            "END as sender_name ",
+            "FROM conversations c ",
+            "LEFT JOIN users u ON c.sender_id = u.id ",
+            "LEFT JOIN conversation_archive a ON a.conversation_id = c.id ",
+            "WHERE c.task_id = #{taskId} AND c.group_id = #{groupId} ",
+            "<if test='beforeId != null'>AND c.id &lt; #{beforeId} </if>",
+            "ORDER BY c.id DESC ",
+            "LIMIT #{limit}",
+            "</script>"
+    })
+    List<Map<String, Object>> findRawPageByTaskAndGroup(@Param("taskId") Long taskId,
+                                                        @Param("groupId") Long groupId,
+                                                        @Param("beforeId") Long beforeId,
+                                                        @Param("limit") int limit);
+
+    default List<Map<String, Object>> findPageByTaskAndGroup(Long taskId, Long groupId, Long beforeId, int limit) {
+        return unpack(findRawPageByTaskAndGroup(taskId, groupId, beforeId, limit));
+    }
 
-    @Select("SELECT c.id, c.task_id, c.group_id, c.sender_id, c.sender_type, c.content, c.created_at " +
+    /** Put the decompressed text of archived rows back under "content" */
+    private static List<Map<String, Object>> unpack(List<Map<String, Object>> rows) {
+        for (Map<String, Object> row : rows) {
+            Object body = row.remove("archive_body");
+            Object codec = row.remove("archive_codec");
+            if (body != null) {
+                row.put("content", TextCompression.decompress((String) codec, (byte[]) body));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Messages in ID order after the given ID, for rebuilding the search index.
+     * Archived bodies are decompressed by MySQL's UNCOMPRESS(), which reads the layout TextCompression writes.
+     */
+    @Select("SELECT c.id, c.task_id, c.group_id, c.sender_id, c.sender_type, c.created_at, " +
+            "COALESCE(c.content, CONVERT(UNCOMPRESS(a.body) USING utf8mb4)) AS content " +
             "FROM conversations c " +
-            "WHERE c.task_id = #{taskId} AND c.group_id = #{groupId} " +
-            "ORDER BY c.created_at DESC " +
-            "LIMIT #{limit}")
-    List<Map<String, Object>> findRecentByTaskAndGroup(@Param("taskId") Long taskId, 
-                                                      @Param("groupId") Long groupId, 
-                                                      @Param("limit") int limit);
-} 
\ No newline at end of file
+            "LEFT JOIN conversation_archive a ON a.conversation_id = c.id " +
+            "WHERE c.id > #{afterId} ORDER BY c.id LIMIT #{limit}")
+    List<Conversation> findAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /** Delete a conversation together with its archived bodies */
+    @Delete("DELETE c, a FROM conversations c " +
+            "LEFT JOIN conversation_archive a ON a.conversation_id = c.id " +
+            "WHERE c.task_id = #{taskId} AND c.group_id = #{groupId}")
+    void deleteByTaskIdAndGroupId(@Param("taskId") Long taskId, @Param("groupId") Long groupId);
+
+    /**
+     * Messages older than the cutoff whose body is still inline, in ID order after the given ID.
+     * The created_at bound prunes the scan to the old partitions.
+     */
+    @Select("SELECT id, content, created_at FROM conversations " +
+            "WHERE id > #{afterId} AND created_at < #{cutoff} AND content IS NOT NULL " +
+            "ORDER BY id LIMIT #{limit}")
+    List<Conversation> findArchiveCandidates(@Param("afterId") long afterId,
+                                             @Param("cutoff") LocalDateTime cutoff,
+                                             @Param("limit") int limit);
+
+    /** Store compressed bodies; rows already archived are left alone */
+    @Insert({
+            "<script>",
+            "INSERT IGNORE INTO conversation_archive (conversation_id, codec, raw_length, body) VALUES ",
+            "<foreach collection='rows' item='r' separator=','>",
+            "(#{r.conversationId}, #{r.codec}, #{r.rawLength}, #{r.body})",
+            "</foreach>",
+            "</script>"
+    })
+    int insertArchive(@Param("rows") List<ConversationArchive> rows);
+
+    /** Drop the inline bodies of messages whose archive row has been written */
+    @Update({
+            "<script>",
+            "UPDATE conversations c JOIN conversation_archive a ON a.conversation_id = c.id ",
+            "SET c.content = NULL WHERE c.id IN ",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"
+    })
+    int clearArchivedContent(@Param("ids") List<Long> ids);
+
+    /** Record a deleted task, group (messages to delete) or user (sender to clear); see conversation_purges */
+    @Insert("INSERT INTO conversation_purges (target_type, target_id) VALUES (#{targetType}, #{targetId})")
+    void insertPurge(@Param("targetType") String targetType, @Param("targetId") Long targetId);
+
+    /** Recorded deletions, oldest first */
+    @Select("SELECT id, target_type, target_id FROM conversation_purges ORDER BY id LIMIT #{limit}")
+    List<Map<String, Object>> findPurges(@Param("limit") int limit);
+
+    @Delete("DELETE FROM conversation_purges WHERE id = #{id}")
+    void deletePurge(@Param("id") Long id);
+
+    /** Delete the messages of a task, with their archived bodies */
+    @Delete("DELETE c, a FROM conversations c " +
+            "LEFT JOIN conversation_archive a ON a.conversation_id = c.id " +
+            "WHERE c.task_id = #{taskId}")
+    int deleteByTaskId(@Param("taskId") Long taskId);
+
+    /** Delete the messages of a group, with their archived bodies */
+    @Delete("DELETE c, a FROM conversations c " +
+            "LEFT JOIN conversation_archive a ON a.conversation_id = c.id " +
+            "WHERE c.group_id = #{groupId}")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+
+    /** Replaces ON DELETE SET NULL of the sender foreign key dropped by partitioning */
+    @Update("UPDATE conversations SET sender_id = NULL WHERE sender_id = #{userId}")
+    int clearSender(@Param("userId") Long userId);
+
+    /** Partitions of the conversations table; a single row with a NULL name when it is not partitioned */
+    @Select("SELECT PARTITION_NAME AS name FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'conversations' " +
+            "ORDER BY PARTITION_ORDINAL_POSITION")
+    List<String> findPartitionNames();
+
+    /**
+     * Split the catch-all p_future partition so that the given month gets its own partition.
+     * Cheap while p_future is still empty, which is why partitions are created ahead of time.
+     *
+     * @param name       partition name, p_yyyyMM
+     * @param upperBound first instant after the month, yyyy-MM-dd HH:mm:ss
+     */
+    @Update("ALTER TABLE conversations REORGANIZE PARTITION p_future INTO (" +
+            "PARTITION ${name} VALUES LESS THAN (UNIX_TIMESTAMP('${upperBound}')), " +
+            "PARTITION p_future VALUES LESS THAN MAXVALUE)")
+    void addPartitionBeforeFuture(@Param("name") String name, @Param("upperBound") String upperBound);
+}
@@ -36,6 +36,9 @@ public interface GroupMapper {
     @Select("SELECT * FROM `groups` WHERE id = #{id}")
     Group findById(@Param("id") Long id);
 
+    @Select("SELECT id FROM `groups` WHERE teacher_id = #{teacherId}")
+    List<Long> findIdsByTeacherId(@Param("teacherId") Long teacherId);
+
     // Count total number of groups
     @Select("SELECT COUNT(*) FROM `groups`")
     Long count();
@@ -0,0 +1,63 @@
+package demo.mapper;
+
+import demo.pojo.ImportJob;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * Import Job Mapper
+ */
+@Mapper
+public interface ImportJobMapper {
+
+    @Insert("INSERT INTO import_jobs (job_type, user_id, file_name, file_path, status, checkpoint_row, processed_rows, " +
+            "success_count, error_count, attempts, created_at, updated_at) " +
+            "VALUES (#{jobType}, #{userId}, #{fileName}, #{filePath}, 'PENDING', 0, 0, 0, 0, 0, NOW(), NOW())")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    void insert(ImportJob job);
+
+    @Select("SELECT * FROM import_jobs WHERE id = #{id}")
+    ImportJob findById(@Param("id") Long id);
+
+    /**
+     * Atomically claim a pending job; returns 1 only for the worker that wins the claim
+     */
+    @Update("UPDATE import_jobs SET status = 'RUNNING', attempts = attempts + 1, started_at = NOW(), updated_at = NOW() " +
+            "WHERE id = #{id} AND status = 'PENDING'")
+    int claim(@Param("id") Long id);
+
+    /**
+     * Record a committed chunk; runs in the same transaction as the chunk's rows,
+     * so the checkpoint never gets ahead of or behind the data
+     */
+    @Update("UPDATE import_jobs SET checkpoint_row = #{checkpointRow}, processed_rows = processed_rows + #{processed}, " +
+            "success_count = success_count + #{success}, error_count = error_count + #{errorCount}, " +
+            "errors = #{errors}, updated_at = NOW() WHERE id = #{id}")
+    void updateProgress(@Param("id") Long id,
+                        @Param("checkpointRow") int checkpointRow,
+                        @Param("processed") int processed,
+                        @Param("success") int success,
+                        @Param("errorCount") int errorCount,
+                        @Param("errors") String errors);
+
+    @Update("UPDATE import_jobs SET status = 'SUCCEEDED', error_message = NULL, " +
+            "finished_at = NOW(), updated_at = NOW() WHERE id = #{id}")
+    void markSucceeded(@Param("id") Long id);
+
+    @Update("UPDATE import_jobs SET status = #{status}, error_message = #{errorMessage}, " +
+            "finished_at = CASE WHEN #{status} = 'FAILED' THEN NOW() ELSE NULL END, updated_at = NOW() WHERE id = #{id}")
+    void markFailed(@Param("id") Long id, @Param("status") String status, @Param("errorMessage") String errorMessage);
+
+    /** IDs of jobs waiting for a worker, oldest first */
+    @Select("SELECT id FROM import_jobs WHERE status = 'PENDING' ORDER BY created_at ASC LIMIT #{limit}")
+    List<Long> findPendingIds(@Param("limit") int limit);
+
+    /**
+     * Return jobs whose worker disappeared (e.g. the node restarted) to the queue.
+     * Progress is written after every chunk, so updated_at tells a live job from an abandoned one
+     */
+    @Update("UPDATE import_jobs SET status = 'PENDING', updated_at = NOW() " +
+            "WHERE status = 'RUNNING' AND updated_at < DATE_SUB(NOW(), INTERVAL #{staleSeconds} SECOND)")
+    int requeueStale(@Param("staleSeconds") int staleSeconds);
+}
@@ -27,6 +27,17 @@ public interface MeetingMapper {
             "VALUES (#{groupId}, #{taskId}, #{meetingNo}, #{meetingDate}, #{status}, #{documentUrl}, NOW(), NOW())")
     @Options(useGeneratedKeys = true, keyProperty = "id")
     void insert(Meeting meeting);
+
+    /** Insert many meetings in one statement */
+    @Insert({
+            "<script>",
+            "INSERT INTO meetings (group_id, task_id, meeting_no, meeting_date, status, document_url, created_at, updated_at) VALUES ",
+            "<foreach collection='meetings' item='m' separator=','>",
+            "(#{m.groupId}, #{m.taskId}, #{m.meetingNo}, #{m.meetingDate}, #{m.status}, #{m.documentUrl}, NOW(), NOW())",
+            "</foreach>",
+            "</script>"
+    })
+    void batchInsert(@Param("meetings") List<Meeting> meetings);
     
     @Update("UPDATE meetings SET status = #{status}, document_url = #{documentUrl}, updated_at = NOW() WHERE id = #{id}")
     void update(Meeting meeting);
@@ -14,6 +14,17 @@ public interface MemberWeeklyGoalMapper {
             "VALUES (#{taskId}, #{studentId}, #{weekNo}, #{goal}, #{status}, NOW(), NOW())")
     void insert(MemberWeeklyGoal goal);
 
+    /** Insert many weekly goals in one statement */
+    @Insert({
+            "<script>",
+            "INSERT INTO member_weekly_goals (task_id, student_id, week_no, goal, status, created_at, updated_at) VALUES ",
+            "<foreach collection='goals' item='g' separator=','>",
+            "(#{g.taskId}, #{g.studentId}, #{g.weekNo}, #{g.goal}, #{g.status}, NOW(), NOW())",
+            "</foreach>",
+            "</script>"
+    })
+    void batchInsert(@Param("goals") List<MemberWeeklyGoal> goals);
+
     @Update("UPDATE member_weekly_goals SET goal=#{goal}, status=#{status}, updated_at=NOW() WHERE id=#{id}")
     void update(MemberWeeklyGoal goal);
 
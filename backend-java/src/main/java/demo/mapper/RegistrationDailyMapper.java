@@ -0,0 +1,24 @@
+package demo.mapper;
+
+import demo.pojo.RegistrationDaily;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Registration Daily Mapper
+ */
+@Mapper
+public interface RegistrationDailyMapper {
+
+    /** Add registrations to a day's bucket, creating it on first use */
+    @Insert("INSERT INTO user_registration_daily (day, role, registrations) VALUES (#{day}, #{role}, #{count}) " +
+            "ON DUPLICATE KEY UPDATE registrations = registrations + VALUES(registrations)")
+    void increment(@Param("day") LocalDate day, @Param("role") String role, @Param("count") int count);
+
+    /** Buckets in [from, to], served by the primary key */
+    @Select("SELECT day, role, registrations FROM user_registration_daily " +
+            "WHERE day BETWEEN #{from} AND #{to} ORDER BY day ASC")
+    List<RegistrationDaily> findRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,67 @@
+package demo.mapper;
+
+import demo.pojo.TeacherStats;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * Teacher Stats Mapper
+ */
+@Mapper
+public interface TeacherStatsMapper {
+
+    @Select("SELECT * FROM teacher_stats WHERE teacher_id = #{teacherId}")
+    TeacherStats findByTeacherId(@Param("teacherId") Long teacherId);
+
+    /**
+     * Recompute one teacher's row from the source tables.
+     * Every aggregate is scoped through groups.teacher_id, so the cost grows with that
+     * teacher's own data rather than with the size of the tables
+     */
+    @Insert("INSERT INTO teacher_stats (teacher_id, total_students, total_groups, tasks_initializing, tasks_in_progress, " +
+            "tasks_completed, meetings_total, meetings_completed, goals_not_uploaded, goals_processing, goals_finished, refreshed_at) " +
+            "SELECT #{teacherId}, " +
+            "(SELECT COUNT(DISTINCT ug.user_id) FROM user_group ug JOIN `groups` g ON g.id = ug.group_id WHERE g.teacher_id = #{teacherId}), " +
+            "(SELECT COUNT(*) FROM `groups` g WHERE g.teacher_id = #{teacherId}), " +
+            "t.initializing, t.in_progress, t.completed, m.total, m.completed, w.not_uploaded, w.processing, w.finished, NOW() " +
+            "FROM (SELECT COALESCE(SUM(t.status = 'INITIALIZING'), 0) AS initializing, " +
+            "             COALESCE(SUM(t.status = 'IN_PROGRESS'), 0) AS in_progress, " +
+            "             COALESCE(SUM(t.status = 'COMPLETED'), 0) AS completed " +
+            "      FROM tasks t JOIN `groups` g ON g.id = t.group_id WHERE g.teacher_id = #{teacherId}) t, " +
+            "     (SELECT COUNT(*) AS total, COALESCE(SUM(m.status = 'COMPLETED'), 0) AS completed " +
+            "      FROM meetings m JOIN `groups` g ON g.id = m.group_id WHERE g.teacher_id = #{teacherId}) m, " +
+            "     (SELECT COALESCE(SUM(w.status = 'NOTUPLOADED'), 0) AS not_uploaded, " +
+            "             COALESCE(SUM(w.status = 'PROCESSING'), 0) AS processing, " +
+            "             COALESCE(SUM(w.status = 'FINISHED'), 0) AS finished " +
+            "      FROM member_weekly_goals w JOIN tasks t ON t.id = w.task_id JOIN `groups` g ON g.id = t.group_id " +
+            "      WHERE g.teacher_id = #{teacherId}) w " +
+            "ON DUPLICATE KEY UPDATE total_students = VALUES(total_students), total_groups = VALUES(total_groups), " +
+            "tasks_initializing = VALUES(tasks_initializing), tasks_in_progress = VALUES(tasks_in_progress), " +
+            "tasks_completed = VALUES(tasks_completed), meetings_total = VALUES(meetings_total), " +
+            "meetings_completed = VALUES(meetings_completed), goals_not_uploaded = VALUES(goals_not_uploaded), " +
+            "goals_processing = VALUES(goals_processing), goals_finished = VALUES(goals_finished), refreshed_at = NOW()")
+    void refresh(@Param("teacherId") Long teacherId);
+
+    @Select("SELECT id FROM users WHERE role = 'TEACHER'")
+    List<Long> findAllTeacherIds();
+
+    // --- Owner lookups used to find whose stats a write affects ---
+
+    @Select("SELECT teacher_id FROM `groups` WHERE id = #{groupId}")
+    Long findTeacherIdByGroup(@Param("groupId") Long groupId);
+
+    @Select("SELECT g.teacher_id FROM tasks t JOIN `groups` g ON g.id = t.group_id WHERE t.id = #{taskId}")
+    Long findTeacherIdByTask(@Param("taskId") Long taskId);
+
+    @Select("SELECT g.teacher_id FROM meetings m JOIN `groups` g ON g.id = m.group_id WHERE m.id = #{meetingId}")
+    Long findTeacherIdByMeeting(@Param("meetingId") Long meetingId);
+
+    @Select("SELECT g.teacher_id FROM member_weekly_goals w JOIN tasks t ON t.id = w.task_id " +
+            "JOIN `groups` g ON g.id = t.group_id WHERE w.id = #{goalId}")
+    Long findTeacherIdByGoal(@Param("goalId") Long goalId);
+
+    /** Teachers of every group the user belongs to */
+    @Select("SELECT DISTINCT g.teacher_id FROM user_group ug JOIN `groups` g ON g.id = ug.group_id WHERE ug.user_id = #{userId}")
+    List<Long> findTeacherIdsByMember(@Param("userId") Long userId);
+}
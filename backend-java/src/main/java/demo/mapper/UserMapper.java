@@ -6,8 +6,8 @@ import demo.pojo.Task;
 import demo.pojo.TaskAssignment;
 import org.apache.ibatis.annotations.*;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 
 /**
  * General User Mapper
@@ -49,6 +49,55 @@ public interface UserMapper {
     @Options(useGeneratedKeys = true, keyProperty = "id")
     void insert(User user);
 
+    /**
+     * Insert many users in one statement; generated IDs are written back in order
+     */
+    @Insert({
+            "<script>",
+            "INSERT INTO users (username, password, name, email, phone, role, status, created_at, updated_at) VALUES ",
+            "<foreach collection='list' item='u' separator=','>",
+            "(#{u.username}, #{u.password}, #{u.name}, #{u.email}, #{u.phone}, #{u.role}, #{u.status}, #{u.createdAt}, #{u.updatedAt})",
+            "</foreach>",
+            "</script>"
+    })
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    void batchInsert(List<User> users);
+
+    /**
+     * Insert student information for many users (uses id and studentNo)
+     */
+    @Insert({
+            "<script>",
+            "INSERT INTO students (user_id, student_no) VALUES ",
+            "<foreach collection='users' item='u' separator=','>",
+            "(#{u.id}, #{u.studentNo})",
+            "</foreach>",
+            "</script>"
+    })
+    void batchInsertStudentInfo(@Param("users") List<User> users);
+
+    /**
+     * Return those of the given usernames that are already taken
+     */
+    @Select({
+            "<script>",
+            "SELECT username FROM users WHERE username IN ",
+            "<foreach collection='usernames' item='n' open='(' separator=',' close=')'>#{n}</foreach>",
+            "</script>"
+    })
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * Return those of the given student numbers that are already taken
+     */
+    @Select({
+            "<script>",
+            "SELECT student_no FROM students WHERE student_no IN ",
+            "<foreach collection='studentNos' item='n' open='(' separator=',' close=')'>#{n}</foreach>",
+            "</script>"
+    })
+    List<String> findExistingStudentNos(@Param("studentNos") Collection<String> studentNos);
+
     /**
      * Update existing user
      */
@@ -76,16 +125,6 @@ public interface UserMapper {
     List<User> findTeachersByCondition(@Param("name") String name,
                                        @Param("id") Long id);
 
-    /**
-     * Count user registrations by day
-     */
-    List<Map<String, Object>> countUserRegistrationByDay();
-
-    /**
-     * Retrieve recent activities
-     */
-    List<Map<String, Object>> getRecentActivities();
-
     /**
      * Count users by role
      */
@@ -98,6 +137,17 @@ public interface UserMapper {
     @Select("SELECT * FROM users WHERE id = #{id}")
     User findById(@Param("id") Long id);
 
+    /**
+     * Find the names of many users in one query; only id and name are populated
+     */
+    @Select({
+            "<script>",
+            "SELECT id, name FROM users WHERE id IN ",
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"
+    })
+    List<User> findNamesByIds(@Param("ids") Collection<Long> ids);
+
     /**
      * Find user by username
      */
@@ -0,0 +1,28 @@
+package demo.pojo;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Activity feed event POJO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityEvent {
+    private Long id;                    // Primary key, also the feed cursor
+    private String eventType;           // Event type, e.g. GROUP_CREATED
+    private Long actorId;               // User who caused the event
+    private Long teacherId;             // Teacher whose feed shows the event
+    private Long groupId;               // Group ID
+    private Long taskId;                // Task ID
+    private String title;               // Short summary
+    private String description;         // Details
+    private LocalDateTime createdAt;    // Creation timestamp
+
+    // Not persisted, joined on read
+    private String actorName;           // Name of the actor
+}
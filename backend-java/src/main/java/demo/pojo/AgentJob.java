@@ -0,0 +1,31 @@
+package demo.pojo;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Background agent job POJO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgentJob {
+    private Long id;                    // Primary key
+    private String jobType;             // Job type, e.g. WEEKLY_PROGRESS
+    private Long taskId;                // Task ID
+    private Long groupId;               // Group ID
+    private Long userId;                // Requesting user ID
+    private Integer weekNo;             // Week number
+    private String documentUrl;         // URL of the meeting document
+    private String status;              // Status: PENDING, RUNNING, SUCCEEDED, FAILED
+    private String result;              // Agent output
+    private String errorMessage;        // Failure reason
+    private Integer attempts;           // Number of executions started
+    private LocalDateTime createdAt;    // Creation timestamp
+    private LocalDateTime startedAt;    // Start of the latest attempt
+    private LocalDateTime finishedAt;   // Completion timestamp
+    private LocalDateTime updatedAt;    // Last update timestamp
+}
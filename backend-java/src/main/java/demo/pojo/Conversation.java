@@ -16,5 +16,6 @@ public class Conversation {
     private Long senderId;
     private String senderType; // USER or AGENT
     private String content;
+    private String contentHash; // SHA-256 of content, hex
     private LocalDateTime createdAt;
 } 
\ No newline at end of file
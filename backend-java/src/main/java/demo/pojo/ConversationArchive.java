@@ -0,0 +1,21 @@
+package demo.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compressed body of a conversation message in cold storage
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationArchive {
+    private Long conversationId;
+    private String codec;           // ZLIB
+    private Integer rawLength;      // Characters in the original text
+    private byte[] body;            // Compressed text
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,33 @@
+package demo.pojo;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Background batch-import job POJO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJob {
+    private Long id;                    // Primary key
+    private String jobType;             // Import type: STUDENTS, TEACHERS, GROUPS, TASKS
+    private Long userId;                // Submitting user ID
+    private String fileName;            // Original filename
+    private String filePath;            // Spooled copy of the upload
+    private String status;              // Status: PENDING, RUNNING, SUCCEEDED, FAILED
+    private Integer checkpointRow;      // Last spreadsheet row committed
+    private Integer processedRows;      // Rows processed so far
+    private Integer successCount;       // Rows imported so far
+    private Integer errorCount;         // Errors reported so far
+    private String errors;              // Error messages as a JSON array (capped)
+    private String errorMessage;        // Failure reason
+    private Integer attempts;           // Number of executions started
+    private LocalDateTime createdAt;    // Creation timestamp
+    private LocalDateTime startedAt;    // Start of the latest attempt
+    private LocalDateTime finishedAt;   // Completion timestamp
+    private LocalDateTime updatedAt;    // Last update timestamp
+}
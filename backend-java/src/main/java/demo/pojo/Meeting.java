@@ -23,4 +23,7 @@ public class Meeting {
     private String documentUrl;         // URL of the meeting document
     private LocalDateTime createdAt;    // Creation timestamp
     private LocalDateTime updatedAt;    // Last update timestamp
+
+    // ID of the background agent analysis job, set only in the upload response
+    private Long agentJobId;
 }
@@ -0,0 +1,19 @@
+package demo.pojo;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Daily registration rollup POJO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegistrationDaily {
+    private LocalDate day;          // Calendar day of created_at
+    private String role;            // ADMIN / TEACHER / STUDENT
+    private Integer registrations;  // Users registered that day
+}
@@ -0,0 +1,20 @@
+package demo.pojo;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One full-text search result
+ */
+@Data
+@NoArgsConstructor
+public class SearchHit {
+    private String type;            // CONVERSATION, TASK_FILE or MEETING_DOCUMENT
+    private String key;             // Conversation message ID, or the document's source key
+    private Long taskId;
+    private Long groupId;
+    private String title;           // Sender type for messages, document title otherwise
+    private String snippet;         // Text around the first matching term
+    private Long createdAt;         // Epoch milliseconds
+    private Float score;            // BM25
+}
@@ -0,0 +1,19 @@
+package demo.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Where an indexed document comes from, and the group whose teacher may find it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchSource {
+    private String type;    // TASK_FILE or MEETING_DOCUMENT
+    private String key;     // Unique within the type, e.g. the task ID or "taskId:weekNo"
+    private Long taskId;
+    private Long groupId;
+    private String title;   // Shown in results
+}
@@ -0,0 +1,28 @@
+package demo.pojo;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Materialized teacher dashboard statistics POJO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeacherStats {
+    private Long teacherId;             // Teacher user ID
+    private Integer totalStudents;      // Distinct students across the teacher's groups
+    private Integer totalGroups;        // Groups owned by the teacher
+    private Integer tasksInitializing;  // Tasks in INITIALIZING
+    private Integer tasksInProgress;    // Tasks in IN_PROGRESS
+    private Integer tasksCompleted;     // Tasks in COMPLETED
+    private Integer meetingsTotal;      // Meetings scheduled
+    private Integer meetingsCompleted;  // Meetings in COMPLETED
+    private Integer goalsNotUploaded;   // Weekly goals in NOTUPLOADED
+    private Integer goalsProcessing;    // Weekly goals in PROCESSING
+    private Integer goalsFinished;      // Weekly goals in FINISHED
+    private LocalDateTime refreshedAt;  // Last recomputation
+}
@@ -0,0 +1,51 @@
+package demo.service;
+
+import demo.pojo.ActivityEvent;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Activity feed service interface
+ */
+public interface ActivityService {
+
+    /**
+     * Append an event to the activity log. The write happens off the calling thread once the
+     * caller's transaction commits, and is skipped if it rolls back; it never fails the caller
+     *
+     * @param event event to record; the teacher is derived from the group or task when not set
+     */
+    void record(ActivityEvent event);
+
+    /**
+     * Append an event to the activity log, see {@link #record(ActivityEvent)}
+     *
+     * @param eventType   event type, e.g. GROUP_CREATED
+     * @param actorId     ID of the user who caused the event, may be null
+     * @param groupId     ID of the group concerned, may be null
+     * @param taskId      ID of the task concerned, may be null
+     * @param title       short summary
+     * @param description details, may be null
+     */
+    void record(String eventType, Long actorId, Long groupId, Long taskId, String title, String description);
+
+    /**
+     * A teacher's feed, newest first
+     *
+     * @param teacherId ID of the teacher
+     * @param beforeId  cursor: only events with a smaller ID are returned; null for the newest
+     * @param limit     maximum number of events
+     * @return events; the ID of the last one is the cursor for the next page
+     */
+    List<Map<String, Object>> getTeacherFeed(Long teacherId, Long beforeId, Integer limit);
+
+    /**
+     * All events, newest first, for the admin dashboard
+     *
+     * @param beforeId cursor: only events with a smaller ID are returned; null for the newest
+     * @param limit    maximum number of events
+     * @return events; the ID of the last one is the cursor for the next page
+     */
+    List<Map<String, Object>> getAllActivities(Long beforeId, Integer limit);
+}
@@ -3,10 +3,9 @@ package demo.service;
 import demo.pojo.PageBean;
 import demo.pojo.User;
 import demo.pojo.Group;
-import org.springframework.web.multipart.MultipartFile;
+import demo.utils.SpreadsheetRowReader;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * Administrator service interface: CRUD and approval for teachers, students, and groups
@@ -41,31 +40,16 @@ public interface AdminService {
     void updateGroup(Group group);
     void deleteGroup(Long groupId);
 
-    /**
-     * Get user registration trends
-     */
-    List<Map<String, Object>> getRegistrationTrend();
-
-    /**
-     * Get recent activities (paginated)
-     */
-    List<Map<String, Object>> getRecentActivities(Integer page, Integer pageSize);
-
     // --- Batch import operations ---
 
     /**
-     * Batch import students from an Excel file
-     *
-     * @param file Excel file containing student data
-     * @return import result statistics
-     */
-    Map<String, Object> batchImportStudents(MultipartFile file) throws Exception;
-
-    /**
-     * Batch import teachers from an Excel file
+     * Import users from a chunk of spreadsheet rows (username, password, name, email, phone
+     * and, for students, student number). Runs in the caller's transaction
      *
-     * @param file Excel file containing teacher data
-     * @return import result statistics
+     * @param rows   spreadsheet rows, header excluded
+     * @param role   STUDENT or TEACHER
+     * @param errors per-row error messages are appended here
+     * @return number of users imported
      */
-    Map<String, Object> batchImportTeachers(MultipartFile file) throws Exception;
+    int importUserRows(List<SpreadsheetRowReader.SheetRow> rows, String role, List<String> errors);
 }
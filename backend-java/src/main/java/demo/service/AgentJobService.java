@@ -0,0 +1,39 @@
+package demo.service;
+
+import demo.pojo.AgentJob;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Background agent job service interface
+ */
+public interface AgentJobService {
+
+    /**
+     * Queue a weekly progress analysis; the job starts once the caller's transaction commits
+     *
+     * @param userId      ID of the requesting user
+     * @param taskId      ID of the task
+     * @param weekNo      week number
+     * @param documentUrl URL of the meeting document to analyze
+     * @return the persisted job in PENDING state
+     */
+    AgentJob submitWeeklyProgressAnalysis(Long userId, Long taskId, Integer weekNo, String documentUrl);
+
+    /**
+     * Retrieve a job visible to the user
+     *
+     * @param userId ID of the requesting user
+     * @param jobId  ID of the job
+     * @return the job
+     */
+    AgentJob getJob(Long userId, Long jobId);
+
+    /**
+     * Subscribe to the completion of a job; the emitter receives one "job" event and completes
+     *
+     * @param userId ID of the requesting user
+     * @param jobId  ID of the job
+     * @return server-sent event emitter
+     */
+    SseEmitter subscribe(Long userId, Long jobId);
+}
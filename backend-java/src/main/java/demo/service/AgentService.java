@@ -2,6 +2,7 @@ package demo.service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Agent service interface
@@ -24,12 +25,14 @@ public interface AgentService {
      * @param groupId              ID of the group
      * @param originalAssignments  list of original assignment maps
      * @param updatedAssignments   list of updated assignment maps
+     * @param refresh              ask the agent again instead of reusing an answer to the same inputs
      * @return advice string
      */
     String getConfirmationAdvice(Long taskId,
                                  Long groupId,
                                  List<Map<String, Object>> originalAssignments,
-                                 List<Map<String, Object>> updatedAssignments);
+                                 List<Map<String, Object>> updatedAssignments,
+                                 boolean refresh);
 
     /**
      * Send a message into the conversation
@@ -41,6 +44,28 @@ public interface AgentService {
      */
     String sendMessageToConversation(Long taskId, Long userId, String message);
 
+    /**
+     * Streaming variant of {@link #getInitialAssignmentAdvice}; the advice is saved once the stream completes
+     *
+     * @param taskId  ID of the task
+     * @param userId  ID of the requesting user
+     * @param onChunk receives each piece of text as it arrives from the agent
+     * @return the complete advice string
+     */
+    String streamInitialAssignmentAdvice(Long taskId, Long userId, Consumer<String> onChunk);
+
+    /**
+     * Streaming variant of {@link #sendMessageToConversation}; saves the user message up front
+     * and the agent's reply once the stream completes
+     *
+     * @param taskId  ID of the task
+     * @param userId  ID of the sending user
+     * @param message content to send
+     * @param onChunk receives each piece of text as it arrives from the agent
+     * @return the complete agent response
+     */
+    String streamMessageToConversation(Long taskId, Long userId, String message, Consumer<String> onChunk);
+
     /**
      * Get the conversation history for a task and group
      *
@@ -61,13 +86,24 @@ public interface AgentService {
      */
     String analyzeWeeklyProgress(Long taskId, Integer weekNo, String meetingDocumentUrl, Long userId);
 
+    /**
+     * Analyze weekly progress, failing instead of answering with an error text, so that
+     * background jobs can retry a failed analysis and record why it failed
+     *
+     * @return analysis result string
+     * @throws IllegalStateException if the task has no group or the agent backend reports an error
+     * @throws RuntimeException      if gathering the context or calling the agent backend fails
+     */
+    String analyzeWeeklyProgressOrThrow(Long taskId, Integer weekNo, String meetingDocumentUrl, Long userId);
+
     /**
      * Generate a weekly goal for a student
      *
      * @param taskId    ID of the task
      * @param studentId ID of the student
      * @param weekNo    week number
+     * @param refresh   ask the agent again instead of reusing an answer to the same inputs
      * @return map containing the generated weekly goal
      */
-    Map<String, String> generateWeeklyGoal(Long taskId, Long studentId, Integer weekNo);
+    Map<String, String> generateWeeklyGoal(Long taskId, Long studentId, Integer weekNo, boolean refresh);
 }
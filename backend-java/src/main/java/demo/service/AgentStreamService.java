@@ -0,0 +1,30 @@
+package demo.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Relays agent replies to the browser as server-sent events while they are being generated
+ */
+public interface AgentStreamService {
+
+    /**
+     * Send a conversation message and stream the agent's reply.
+     * The emitter receives "chunk" events with text fragments, then one "done" event
+     * carrying the full response (or one "error" event) and completes.
+     *
+     * @param userId  ID of the sending user
+     * @param taskId  ID of the task
+     * @param content message content
+     * @return server-sent event emitter
+     */
+    SseEmitter streamMessage(Long userId, Long taskId, String content);
+
+    /**
+     * Stream the initial assignment advice for a task, with the same events as {@link #streamMessage}
+     *
+     * @param userId ID of the requesting user
+     * @param taskId ID of the task
+     * @return server-sent event emitter
+     */
+    SseEmitter streamInitialAdvice(Long userId, Long taskId);
+}
@@ -0,0 +1,37 @@
+package demo.service;
+
+/**
+ * Cold storage and partition upkeep of the conversations table
+ */
+public interface ConversationArchiveService {
+
+    /**
+     * Compress the bodies of messages older than the archive threshold into conversation_archive
+     *
+     * @return number of messages archived
+     */
+    int archiveOldMessages();
+
+    /**
+     * Make sure monthly partitions exist up to the configured number of months ahead;
+     * a no-op when the table is not partitioned
+     */
+    void ensurePartitions();
+
+    /**
+     * Record, in the caller's transaction, that a group was deleted; its messages go with the next sweep
+     */
+    void recordGroupDeleted(Long groupId);
+
+    /**
+     * Record, in the caller's transaction, that a user was deleted; their messages lose the sender with the next sweep
+     */
+    void recordUserDeleted(Long userId);
+
+    /**
+     * Apply recorded task, group and user deletions to the conversations table and the search index
+     *
+     * @return number of deletions applied
+     */
+    int purgeOrphanedConversations();
+}
@@ -0,0 +1,36 @@
+package demo.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Map;
+
+/**
+ * Background batch-import job service interface
+ */
+public interface ImportJobService {
+
+    String STUDENTS = "STUDENTS";
+    String TEACHERS = "TEACHERS";
+    String GROUPS = "GROUPS";
+    String TASKS = "TASKS";
+
+    /**
+     * Spool an uploaded spreadsheet to disk and queue it for import
+     *
+     * @param jobType STUDENTS, TEACHERS, GROUPS or TASKS
+     * @param file    uploaded .xlsx, .xls or .csv file
+     * @param userId  ID of the submitting user; groups and tasks are created for this teacher
+     * @return job status, see {@link #getJobStatus}
+     */
+    Map<String, Object> submit(String jobType, MultipartFile file, Long userId) throws Exception;
+
+    /**
+     * Progress of a job submitted by the user
+     *
+     * @param userId ID of the requesting user
+     * @param jobId  ID of the job
+     * @return jobId, jobType, status, fileName, total (rows processed), success, failed, errors,
+     *         errorMessage, createdAt and finishedAt
+     */
+    Map<String, Object> getJobStatus(Long userId, Long jobId);
+}
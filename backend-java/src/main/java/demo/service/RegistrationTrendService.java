@@ -0,0 +1,21 @@
+package demo.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * User registration time series, read from the daily rollup
+ */
+public interface RegistrationTrendService {
+
+    /**
+     * Registrations per bucket over a date range; empty buckets are reported as zero
+     *
+     * @param from        first day, inclusive; defaults to the configured number of days before to
+     * @param to          last day, inclusive; defaults to today
+     * @param granularity day, week (buckets start on Monday) or month
+     * @return one entry per bucket with date, count, students and teachers
+     */
+    List<Map<String, Object>> getTrend(LocalDate from, LocalDate to, String granularity);
+}
@@ -0,0 +1,53 @@
+package demo.service;
+
+import demo.pojo.Conversation;
+import demo.pojo.SearchHit;
+import demo.pojo.SearchSource;
+
+import java.util.List;
+
+/**
+ * Full-text search over conversation messages and parsed task and meeting documents
+ */
+public interface SearchService {
+
+    /**
+     * Add a saved message to the index once the surrounding transaction commits
+     *
+     * @param message the message, with its ID and full text set
+     */
+    void indexConversationMessage(Conversation message);
+
+    /**
+     * Add or replace a parsed document; unchanged text is not indexed again
+     *
+     * @param source where the text comes from
+     * @param text   parsed text
+     */
+    void indexDocument(SearchSource source, String text);
+
+    /**
+     * Remove everything indexed for a task's conversation and documents in a group
+     */
+    void deleteByTaskAndGroup(Long taskId, Long groupId);
+
+    /**
+     * Remove everything indexed for a task, in any group
+     */
+    void deleteByTask(Long taskId);
+
+    /**
+     * Remove everything indexed for a group
+     */
+    void deleteByGroup(Long groupId);
+
+    /**
+     * Search the groups of a teacher, best matches first
+     *
+     * @param teacherId ID of the teacher
+     * @param groupId   restrict to one of the teacher's groups; null for all of them
+     * @param query     free text
+     * @param limit     maximum number of results
+     */
+    List<SearchHit> search(Long teacherId, Long groupId, String query, int limit);
+}
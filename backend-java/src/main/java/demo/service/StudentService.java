@@ -72,6 +72,18 @@ public interface StudentService {
     /** Retrieve conversation history for a task and group */
     List<Map<String, Object>> getConversationHistory(Long userId, Long taskId, Long groupId);
 
+    /**
+     * Retrieve one page of conversation history, oldest first within the page
+     *
+     * @param cursor ID of the oldest message already loaded; null for the latest page
+     * @param limit  maximum number of messages
+     * @return map with "messages", "nextCursor" (null when there is nothing older) and "hasMore"
+     */
+    Map<String, Object> getConversationPage(Long userId, Long taskId, Long groupId, Long cursor, int limit);
+
+    /** Retrieve the latest messages of a conversation, oldest first (for Agent context) */
+    List<Map<String, Object>> getRecentConversation(Long userId, Long taskId, Long groupId, int limit);
+
     /** Get username by ID (for Agent service use) */
     String getUserNameById(Long userId);
 
@@ -3,7 +3,7 @@ package demo.service;
 import demo.pojo.PageBean;
 import demo.pojo.User;
 import demo.pojo.Group;
-import org.springframework.web.multipart.MultipartFile;
+import demo.utils.SpreadsheetRowReader;
 
 import java.util.List;
 import java.util.Map;
@@ -14,17 +14,11 @@ import java.util.Map;
 public interface TeacherService {
     /**
      * Retrieve statistics for the teacher dashboard
-     */
-    Map<String, Object> getDashboardStats();
-
-    /**
-     * Retrieve the teacher's recent activities (paginated)
      *
-     * @param page     page number
-     * @param pageSize number of items per page
-     * @return list of activity maps
+     * @param teacherId ID of the teacher
+     * @return students, groups, tasks by status, meetings and weekly goals by status
      */
-    List<Map<String, Object>> getRecentActivities(Integer page, Integer pageSize);
+    Map<String, Object> getDashboardStats(Long teacherId);
 
     /**
      * Retrieve the teacher's tasks (paginated) filtered by status
@@ -81,22 +75,24 @@ public interface TeacherService {
     List<Map<String, Object>> searchStudent(String name);
 
     /**
-     * Batch import groups from an Excel file
+     * Import groups from a chunk of spreadsheet rows (name, description, comma-separated student IDs).
+     * Runs in the caller's transaction
      *
-     * @param file      Excel file containing group data
+     * @param rows      spreadsheet rows, header excluded
      * @param teacherId ID of the teacher performing the import
-     * @return import result statistics
-     * @throws Exception on import errors
+     * @param errors    per-row error messages are appended here
+     * @return number of groups created
      */
-    Map<String, Object> batchImportGroups(MultipartFile file, Long teacherId) throws Exception;
+    int importGroupRows(List<SpreadsheetRowReader.SheetRow> rows, Long teacherId, List<String> errors);
 
     /**
-     * Batch import tasks from an Excel file
+     * Import tasks from a chunk of spreadsheet rows (title, description, group ID, due date, cycle, file URL).
+     * Runs in the caller's transaction
      *
-     * @param file      Excel file containing task data
+     * @param rows      spreadsheet rows, header excluded
      * @param teacherId ID of the teacher performing the import
-     * @return import result statistics
-     * @throws Exception on import errors
+     * @param errors    per-row error messages are appended here
+     * @return number of tasks created
      */
-    Map<String, Object> batchImportTasks(MultipartFile file, Long teacherId) throws Exception;
+    int importTaskRows(List<SpreadsheetRowReader.SheetRow> rows, Long teacherId, List<String> errors);
 }
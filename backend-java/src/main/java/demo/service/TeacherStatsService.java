@@ -0,0 +1,26 @@
+package demo.service;
+
+import demo.pojo.TeacherStats;
+
+import java.util.Collection;
+
+/**
+ * Materialized teacher dashboard statistics
+ */
+public interface TeacherStatsService {
+
+    /**
+     * Read a teacher's statistics; computed on the spot the first time a teacher is seen
+     *
+     * @param teacherId ID of the teacher
+     * @return the materialized row
+     */
+    TeacherStats getStats(Long teacherId);
+
+    /**
+     * Schedule the teachers' rows for recomputation; called once the write that affected them commits
+     *
+     * @param teacherIds IDs of affected teachers; nulls are ignored
+     */
+    void markDirty(Collection<Long> teacherIds);
+}
@@ -0,0 +1,205 @@
+package demo.service.impl;
+
+import demo.mapper.ActivityEventMapper;
+import demo.mapper.GroupMapper;
+import demo.pojo.ActivityEvent;
+import demo.pojo.Group;
+import demo.service.ActivityService;
+import demo.utils.ActivityProperties;
+import demo.utils.GroupMembershipCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Append-only activity log with a per-teacher fan-out index.
+ * Events are handed to a small pool after the business transaction commits, so recording
+ * one adds no statements or locks to that transaction. Feeds are read by keyset on
+ * (teacher_id, event_id) or on the event ID, so a page costs the same however long the history grows.
+ */
+@Slf4j
+@Service
+public class ActivityServiceImpl implements ActivityService {
+
+    private static final DateTimeFormatter SHORT_TIME = DateTimeFormatter.ofPattern("MM-dd HH:mm");
+
+    // Column sizes of activity_events; titles embed user-supplied names, which can be longer
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 1000;
+
+    @Autowired
+    private ActivityEventMapper activityEventMapper;
+
+    @Autowired
+    private GroupMapper groupMapper;
+
+    @Autowired
+    private GroupMembershipCache membershipCache;
+
+    @Autowired
+    private ActivityProperties properties;
+
+    @Autowired
+    @Qualifier("activityExecutor")
+    private ThreadPoolTaskExecutor activityExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public ActivityServiceImpl(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void record(ActivityEvent event) {
+        event.setCreatedAt(LocalDateTime.now());
+        // An oversized value would fail the asynchronous insert and lose the event
+        event.setTitle(truncate(event.getTitle(), MAX_TITLE_LENGTH));
+        event.setDescription(truncate(event.getDescription(), MAX_DESCRIPTION_LENGTH));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(event);
+                }
+            });
+        } else {
+            submit(event);
+        }
+    }
+
+    @Override
+    public void record(String eventType, Long actorId, Long groupId, Long taskId, String title, String description) {
+        ActivityEvent event = new ActivityEvent();
+        event.setEventType(eventType);
+        event.setActorId(actorId);
+        event.setGroupId(groupId);
+        event.setTaskId(taskId);
+        event.setTitle(title);
+        event.setDescription(description);
+        record(event);
+    }
+
+    @Override
+    public List<Map<String, Object>> getTeacherFeed(Long teacherId, Long beforeId, Integer limit) {
+        return activityEventMapper.findTeacherFeed(teacherId, beforeId, pageSize(limit)).stream()
+                .map(this::toView)
+                .toList();
+    }
+
+    @Override
+    public List<Map<String, Object>> getAllActivities(Long beforeId, Integer limit) {
+        return activityEventMapper.findAll(beforeId, pageSize(limit)).stream()
+                .map(this::toView)
+                .toList();
+    }
+
+    private void submit(ActivityEvent event) {
+        try {
+            activityExecutor.execute(() -> write(event));
+        } catch (TaskRejectedException e) {
+            // The feed is informational; losing an event beats slowing the request down
+            log.warn("Activity queue full, dropped {} event", event.getEventType());
+        }
+    }
+
+    private void write(ActivityEvent event) {
+        try {
+            if (event.getTeacherId() == null) {
+                event.setTeacherId(resolveTeacher(event));
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                activityEventMapper.insert(event);
+                if (event.getTeacherId() != null) {
+                    activityEventMapper.insertFeedEntry(event.getTeacherId(), event.getId());
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Failed to record {} event: {}", event.getEventType(), e.getMessage());
+        }
+    }
+
+    private Long resolveTeacher(ActivityEvent event) {
+        Long groupId = event.getGroupId();
+        if (groupId == null && event.getTaskId() != null) {
+            groupId = membershipCache.getTaskGroupId(event.getTaskId());
+            event.setGroupId(groupId);
+        }
+        if (groupId == null) {
+            return null;
+        }
+        Group group = groupMapper.findById(groupId);
+        return group != null ? group.getTeacherId() : null;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        int end = maxLength - 3;
+        if (Character.isHighSurrogate(value.charAt(end - 1))) {
+            end--;
+        }
+        return value.substring(0, end) + "...";
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return 10;
+        }
+        return Math.min(limit, properties.getMaxPageSize());
+    }
+
+    /** Fields read by both dashboards' timeline components */
+    private Map<String, Object> toView(ActivityEvent event) {
+        String type = event.getEventType();
+        Map<String, Object> view = new HashMap<>();
+        view.put("id", event.getId());
+        view.put("type", type.toLowerCase(Locale.ROOT));
+        // Titles of events with an actor are verb phrases; the name is joined on read so renames show up
+        String title = event.getTitle();
+        if (event.getActorId() != null) {
+            title = (event.getActorName() != null ? event.getActorName() : "A former user") + " " + title;
+        }
+        view.put("title", title);
+        view.put("content", title);
+        view.put("description", event.getDescription());
+        view.put("actorName", event.getActorName());
+        view.put("groupId", event.getGroupId());
+        view.put("taskId", event.getTaskId());
+        view.put("time", event.getCreatedAt());
+        view.put("timestamp", event.getCreatedAt().format(SHORT_TIME));
+        if (type.startsWith("STUDENT")) {
+            view.put("activity_type", "primary");
+            view.put("color", "#409eff");
+            view.put("menu_index", "students");
+        } else if (type.startsWith("TEACHER")) {
+            view.put("activity_type", "warning");
+            view.put("color", "#e6a23c");
+            view.put("menu_index", "teachers");
+        } else if (type.startsWith("GROUP") || type.startsWith("MEMBER_")) {
+            view.put("activity_type", "info");
+            view.put("color", "#909399");
+            view.put("menu_index", "groups");
+        } else {
+            view.put("activity_type", "success");
+            view.put("color", "#67c23a");
+            view.put("menu_index", "dashboard");
+        }
+        return view;
+    }
+}
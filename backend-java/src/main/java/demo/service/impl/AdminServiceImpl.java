@@ -2,21 +2,21 @@ package demo.service.impl;
 
 import demo.mapper.GroupMapper;
 import demo.mapper.UserMapper;
+import demo.pojo.ActivityEvent;
 import demo.pojo.User;
 import demo.pojo.Group;
 import demo.pojo.PageBean;
+import demo.service.ActivityService;
 import demo.service.AdminService;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import demo.service.ConversationArchiveService;
+import demo.utils.SpreadsheetRowReader;
+import demo.utils.UserBulkImporter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 import com.github.pagehelper.Page;
 import com.github.pagehelper.PageHelper;
 
-import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -30,6 +30,12 @@ public class AdminServiceImpl implements AdminService {
     private UserMapper userMapper;
     @Autowired
     private GroupMapper groupMapper;
+    @Autowired
+    private UserBulkImporter userBulkImporter;
+    @Autowired
+    private ActivityService activityService;
+    @Autowired
+    private ConversationArchiveService conversationArchiveService;
 
     @Override
     public PageBean<Group> pageGroups(Integer page, Integer pageSize, String name) {
@@ -80,6 +86,8 @@ public class AdminServiceImpl implements AdminService {
     @Transactional(rollbackFor = Exception.class)
     public void approveTeacher(Long teacherId) {
         userMapper.updateStatus(teacherId, "ACTIVE");
+        activityService.record("TEACHER_APPROVED", teacherId, null, null,
+                "was approved as a teacher", "Teacher account activated");
     }
 
     @Override
@@ -91,7 +99,7 @@ public class AdminServiceImpl implements AdminService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void deleteTeacher(Long teacherId) {
-        userMapper.deleteById(teacherId);
+        deleteUserAndConversations(teacherId);
     }
 
     @Override
@@ -106,6 +114,8 @@ public class AdminServiceImpl implements AdminService {
         group.setCreatedAt(now);
         group.setUpdatedAt(now);
         groupMapper.insert(group);
+        activityService.record("GROUP_CREATED", null, group.getId(), null,
+                "Group '" + group.getName() + "' created", group.getDescription());
     }
 
     @Override
@@ -113,24 +123,24 @@ public class AdminServiceImpl implements AdminService {
     public void updateGroup(Group group) {
         group.setUpdatedAt(LocalDateTime.now());
         groupMapper.update(group);
+        activityService.record("GROUP_UPDATED", null, group.getId(), null,
+                "Group '" + group.getName() + "' updated", null);
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void deleteGroup(Long groupId) {
+        // The group is gone by the time the event is written, so capture its teacher now
+        Group group = groupMapper.findById(groupId);
         groupMapper.deleteById(groupId);
-    }
-
-    @Override
-    public List<Map<String, Object>> getRegistrationTrend() {
-        return userMapper.countUserRegistrationByDay();
-    }
-
-    @Override
-    public List<Map<String, Object>> getRecentActivities(Integer page, Integer pageSize) {
-        // Set pagination
-        PageHelper.startPage(page, pageSize);
-        return userMapper.getRecentActivities();
+        conversationArchiveService.recordGroupDeleted(groupId);
+        if (group != null) {
+            ActivityEvent event = new ActivityEvent();
+            event.setEventType("GROUP_DELETED");
+            event.setTeacherId(group.getTeacherId());
+            event.setTitle("Group '" + group.getName() + "' deleted");
+            activityService.record(event);
+        }
     }
 
     @Override
@@ -154,6 +164,8 @@ public class AdminServiceImpl implements AdminService {
         userMapper.insert(student);
         // Save to students table
         userMapper.insertStudentInfo(student.getId(), student.getStudentNo());
+        activityService.record("STUDENT_CREATED", student.getId(), null, null,
+                "was added as a student", "Student account created by an administrator");
     }
 
     @Override
@@ -183,6 +195,7 @@ public class AdminServiceImpl implements AdminService {
     @Transactional(rollbackFor = Exception.class)
     public void deleteStudent(Long studentId) {
         userMapper.deleteById(studentId);
+        conversationArchiveService.recordUserDeleted(studentId);
     }
 
     @Override
@@ -194,6 +207,8 @@ public class AdminServiceImpl implements AdminService {
         teacher.setCreatedAt(LocalDateTime.now());
         teacher.setUpdatedAt(LocalDateTime.now());
         userMapper.insert(teacher);
+        activityService.record("TEACHER_CREATED", teacher.getId(), null, null,
+                "was added as a teacher", "Teacher account created by an administrator");
     }
 
     @Override
@@ -225,180 +240,64 @@ public class AdminServiceImpl implements AdminService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void deleteUser(Long userId) {
+        deleteUserAndConversations(userId);
+    }
+
+    /**
+     * Deleting a teacher cascades away their groups (and with them tasks and memberships), so the
+     * conversations of those groups are queued for purging along with the user's own messages
+     */
+    private void deleteUserAndConversations(Long userId) {
+        List<Long> ownedGroupIds = groupMapper.findIdsByTeacherId(userId);
         userMapper.deleteById(userId);
+        for (Long groupId : ownedGroupIds) {
+            conversationArchiveService.recordGroupDeleted(groupId);
+        }
+        conversationArchiveService.recordUserDeleted(userId);
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public Map<String, Object> batchImportStudents(MultipartFile file) throws Exception {
-        Map<String, Object> result = new HashMap<>();
-        int total = 0, success = 0;
-        List<String> errors = new ArrayList<>();
-
-        Workbook workbook = createWorkbook(file);
-        Sheet sheet = workbook.getSheetAt(0);
-
-        for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-            total++;
-            Row row = sheet.getRow(i);
-            if (row == null) {
-                errors.add("Row " + (i + 1) + ": Empty row skipped");
+    public int importUserRows(List<SpreadsheetRowReader.SheetRow> rows, String role, List<String> errors) {
+        boolean students = "STUDENT".equals(role);
+
+        // Check required fields; duplicates are checked in bulk afterwards
+        Map<Integer, User> users = new LinkedHashMap<>();
+        for (SpreadsheetRowReader.SheetRow row : rows) {
+            int rowNo = row.getRowNumber();
+            if (row.isBlank()) {
+                errors.add("Row " + rowNo + ": Empty row skipped");
                 continue;
             }
-            try {
-                String username  = getCellValueAsString(row.getCell(0));
-                String password  = getCellValueAsString(row.getCell(1));
-                String name      = getCellValueAsString(row.getCell(2));
-                String email     = getCellValueAsString(row.getCell(3));
-                String phone     = getCellValueAsString(row.getCell(4));
-                String studentNo = getCellValueAsString(row.getCell(5));
-
-                // Validate required fields
+            String username = row.get(0);
+            String password = row.get(1);
+            String name     = row.get(2);
+            String email    = row.get(3);
+            String phone    = row.get(4);
+
+            // Validate required fields
+            if (students) {
+                String studentNo = row.get(5);
                 if (isEmpty(username) || isEmpty(password) || isEmpty(name) || isEmpty(studentNo)) {
-                    errors.add("Row " + (i + 1) + ": Username, password, name, and student number are required");
-                    continue;
-                }
-
-                if (isUsernameExists(username)) {
-                    errors.add("Row " + (i + 1) + ": Username '" + username + "' already exists");
+                    errors.add("Row " + rowNo + ": Username, password, name, and student number are required");
                     continue;
                 }
-                if (isStudentNoExists(studentNo)) {
-                    errors.add("Row " + (i + 1) + ": Student number '" + studentNo + "' already exists");
-                    continue;
-                }
-
-                User student = new User();
-                student.setUsername(username);
-                student.setPassword(password);
-                student.setName(name);
-                student.setEmail(email);
-                student.setPhone(phone);
-                student.setRole("STUDENT");
-                student.setStatus("ACTIVE");
-                student.setCreatedAt(LocalDateTime.now());
-                student.setUpdatedAt(LocalDateTime.now());
-
-                userMapper.insert(student);
-                userMapper.insertStudentInfo(student.getId(), studentNo);
-                success++;
-            } catch (Exception e) {
-                errors.add("Row " + (i + 1) + ": Import failed - " + e.getMessage());
-            }
-        }
-
-        workbook.close();
-        result.put("total", total);
-        result.put("success", success);
-        result.put("failed", total - success);
-        result.put("errors", errors);
-        return result;
-    }
-
-    @Override
-    @Transactional(rollbackFor = Exception.class)
-    public Map<String, Object> batchImportTeachers(MultipartFile file) throws Exception {
-        Map<String, Object> result = new HashMap<>();
-        int total = 0, success = 0;
-        List<String> errors = new ArrayList<>();
-
-        Workbook workbook = createWorkbook(file);
-        Sheet sheet = workbook.getSheetAt(0);
-
-        for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-            total++;
-            Row row = sheet.getRow(i);
-            if (row == null) {
-                errors.add("Row " + (i + 1) + ": Empty row skipped");
+            } else if (isEmpty(username) || isEmpty(password) || isEmpty(name)) {
+                errors.add("Row " + rowNo + ": Username, password, and name are required");
                 continue;
             }
-            try {
-                String username = getCellValueAsString(row.getCell(0));
-                String password = getCellValueAsString(row.getCell(1));
-                String name     = getCellValueAsString(row.getCell(2));
-                String email    = getCellValueAsString(row.getCell(3));
-                String phone    = getCellValueAsString(row.getCell(4));
-
-                // Validate required fields
-                if (isEmpty(username) || isEmpty(password) || isEmpty(name)) {
-                    errors.add("Row " + (i + 1) + ": Username, password, and name are required");
-                    continue;
-                }
-
-                if (isUsernameExists(username)) {
-                    errors.add("Row " + (i + 1) + ": Username '" + username + "' already exists");
-                    continue;
-                }
 
-                User teacher = new User();
-                teacher.setUsername(username);
-                teacher.setPassword(password);
-                teacher.setName(name);
-                teacher.setEmail(email);
-                teacher.setPhone(phone);
-                teacher.setRole("TEACHER");
-                teacher.setStatus("ACTIVE");
-                teacher.setCreatedAt(LocalDateTime.now());
-                teacher.setUpdatedAt(LocalDateTime.now());
-
-                userMapper.insert(teacher);
-                success++;
-            } catch (Exception e) {
-                errors.add("Row " + (i + 1) + ": Import failed - " + e.getMessage());
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword(password);
+            user.setName(name);
+            user.setEmail(email);
+            user.setPhone(phone);
+            if (students) {
+                user.setStudentNo(row.get(5));
             }
+            users.put(rowNo, user);
         }
-
-        workbook.close();
-        result.put("total", total);
-        result.put("success", success);
-        result.put("failed", total - success);
-        result.put("errors", errors);
-        return result;
-    }
-
-    /**
-     * Create a Workbook based on file extension
-     */
-    private Workbook createWorkbook(MultipartFile file) throws Exception {
-        String filename = file.getOriginalFilename();
-        InputStream is = file.getInputStream();
-
-        if (filename.endsWith(".xlsx")) {
-            return new XSSFWorkbook(is);
-        } else if (filename.endsWith(".xls")) {
-            return new HSSFWorkbook(is);
-        } else {
-            throw new Exception("Unsupported file format. Only .xlsx and .xls are supported");
-        }
-    }
-
-    /**
-     * Get cell value as String
-     */
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) {
-            return "";
-        }
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getDateCellValue().toString();
-                } else {
-                    return String.valueOf((long) cell.getNumericCellValue());
-                }
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                try {
-                    return cell.getStringCellValue();
-                } catch (Exception e) {
-                    return String.valueOf(cell.getNumericCellValue());
-                }
-            default:
-                return "";
-        }
+        return userBulkImporter.importUsers(users, role, errors);
     }
 
     /**
@@ -408,13 +307,6 @@ public class AdminServiceImpl implements AdminService {
         return str == null || str.trim().isEmpty();
     }
 
-    /**
-     * Check if a username exists
-     */
-    private boolean isUsernameExists(String username) {
-        return userMapper.findByUsername(username) != null;
-    }
-
     /**
      * Check if a student number exists
      */
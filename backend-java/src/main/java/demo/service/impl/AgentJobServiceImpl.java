@@ -0,0 +1,207 @@
+package demo.service.impl;
+
+import demo.mapper.AgentJobMapper;
+import demo.pojo.AgentJob;
+import demo.service.AgentJobService;
+import demo.service.AgentService;
+import demo.utils.AgentJobProperties;
+import demo.utils.GroupMembershipCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Slf4j
+@Service
+public class AgentJobServiceImpl implements AgentJobService {
+
+    private static final String WEEKLY_PROGRESS = "WEEKLY_PROGRESS";
+
+    @Autowired
+    private AgentJobMapper agentJobMapper;
+
+    @Autowired
+    private GroupMembershipCache membershipCache;
+
+    @Autowired
+    private AgentService agentService;
+
+    @Autowired
+    private AgentJobProperties properties;
+
+    @Autowired
+    @Qualifier("agentJobExecutor")
+    private ThreadPoolTaskExecutor agentJobExecutor;
+
+    /** Jobs handed to the executor and not finished yet, so the sweeper does not queue them twice */
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    @Override
+    public AgentJob submitWeeklyProgressAnalysis(Long userId, Long taskId, Integer weekNo, String documentUrl) {
+        AgentJob job = new AgentJob();
+        job.setJobType(WEEKLY_PROGRESS);
+        job.setTaskId(taskId);
+        job.setGroupId(membershipCache.getTaskGroupId(taskId));
+        job.setUserId(userId);
+        job.setWeekNo(weekNo);
+        job.setDocumentUrl(documentUrl);
+        job.setStatus("PENDING");
+        job.setAttempts(0);
+        agentJobMapper.insert(job);
+        log.info("Queued agent job {} for task {} week {}", job.getId(), taskId, weekNo);
+
+        // The worker must see the committed row, so dispatch only after commit
+        Long jobId = job.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(jobId);
+                }
+            });
+        } else {
+            dispatch(jobId);
+        }
+        return job;
+    }
+
+    @Override
+    public AgentJob getJob(Long userId, Long jobId) {
+        AgentJob job = agentJobMapper.findById(jobId);
+        if (job == null) {
+            throw new RuntimeException("Agent job not found");
+        }
+        if (!userId.equals(job.getUserId())
+                && !membershipCache.isMember(userId, job.getGroupId())) {
+            throw new RuntimeException("User does not belong to this group");
+        }
+        return job;
+    }
+
+    @Override
+    public SseEmitter subscribe(Long userId, Long jobId) {
+        AgentJob job = getJob(userId, jobId);
+        SseEmitter emitter = new SseEmitter(properties.getSubscribeTimeoutMs());
+        if (isFinished(job)) {
+            send(emitter, job);
+            return emitter;
+        }
+
+        List<SseEmitter> list = subscribers.computeIfAbsent(jobId, k -> new CopyOnWriteArrayList<>());
+        list.add(emitter);
+        emitter.onCompletion(() -> list.remove(emitter));
+        emitter.onTimeout(() -> list.remove(emitter));
+        emitter.onError(e -> list.remove(emitter));
+
+        // The job may have finished between the first read and the registration
+        AgentJob latest = agentJobMapper.findById(jobId);
+        if (isFinished(latest)) {
+            notifySubscribers(latest);
+        }
+        return emitter;
+    }
+
+    /** Re-queue abandoned jobs (or fail those out of attempts) and hand pending ones to the worker pool */
+    @Scheduled(fixedDelayString = "${agent.jobs.sweep-interval-ms:30000}")
+    public void sweep() {
+        int failed = agentJobMapper.failStale(properties.getStaleAfterSeconds(), properties.getMaxAttempts());
+        if (failed > 0) {
+            log.error("Gave up on {} agent jobs abandoned on their last attempt", failed);
+            subscribers.keySet().forEach(id -> notifySubscribers(agentJobMapper.findById(id)));
+        }
+        int requeued = agentJobMapper.requeueStale(properties.getStaleAfterSeconds(), properties.getMaxAttempts());
+        if (requeued > 0) {
+            log.warn("Re-queued {} abandoned agent jobs", requeued);
+        }
+        for (Long id : agentJobMapper.findPendingIds(properties.getQueueCapacity())) {
+            dispatch(id);
+        }
+    }
+
+    /** Resume jobs left over from before a restart */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        try {
+            sweep();
+        } catch (Exception e) {
+            log.error("Failed to resume agent jobs on startup", e);
+        }
+    }
+
+    private void dispatch(Long jobId) {
+        if (!queued.add(jobId)) {
+            return;
+        }
+        try {
+            agentJobExecutor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    queued.remove(jobId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Stays PENDING in the table; the sweeper retries once workers free up
+            queued.remove(jobId);
+            log.warn("Agent job pool saturated, job {} left pending", jobId);
+        }
+    }
+
+    private void run(Long jobId) {
+        if (agentJobMapper.claim(jobId) == 0) {
+            return; // already taken by another worker or node
+        }
+        AgentJob job = agentJobMapper.findById(jobId);
+        log.info("Running agent job {} (attempt {})", jobId, job.getAttempts());
+        try {
+            String analysis = agentService.analyzeWeeklyProgressOrThrow(
+                    job.getTaskId(), job.getWeekNo(), job.getDocumentUrl(), job.getUserId());
+            agentJobMapper.markSucceeded(jobId, analysis);
+        } catch (Exception e) {
+            boolean retry = job.getAttempts() < properties.getMaxAttempts();
+            log.error("Agent job {} failed, {}", jobId, retry ? "will retry" : "giving up", e);
+            agentJobMapper.markFailed(jobId, retry ? "PENDING" : "FAILED", e.getMessage());
+        }
+        notifySubscribers(agentJobMapper.findById(jobId));
+    }
+
+    private void notifySubscribers(AgentJob job) {
+        if (job == null || !isFinished(job)) {
+            return;
+        }
+        List<SseEmitter> list = subscribers.remove(job.getId());
+        if (list != null) {
+            list.forEach(emitter -> send(emitter, job));
+        }
+    }
+
+    private void send(SseEmitter emitter, AgentJob job) {
+        try {
+            emitter.send(SseEmitter.event().name("job").data(job));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Subscriber for agent job {} went away: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private boolean isFinished(AgentJob job) {
+        return "SUCCEEDED".equals(job.getStatus()) || "FAILED".equals(job.getStatus());
+    }
+}
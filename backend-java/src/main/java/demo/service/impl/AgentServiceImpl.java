@@ -7,29 +7,53 @@ import demo.pojo.Task;
 import demo.pojo.TaskAssignment;
 import demo.pojo.User;
 import demo.pojo.MemberWeeklyGoal;
+import demo.pojo.SearchSource;
 import demo.mapper.TaskAssignmentMapper;
 import demo.mapper.UserMapper;
 import demo.mapper.UserGroupMapper;
 import demo.mapper.MemberWeeklyGoalMapper;
+import demo.utils.AgentContextProperties;
+import demo.utils.AgentResponseCache;
 import demo.utils.DocumentParser;
+import demo.utils.UserNameCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
 public class AgentServiceImpl implements AgentService {
 
+    // Starts the error trailer the Python streaming endpoints send when generation fails part-way
+    private static final char STREAM_ERROR_MARKER = '\u0000';
+
     @Autowired
     private RestTemplate restTemplate;
 
@@ -51,6 +75,19 @@ public class AgentServiceImpl implements AgentService {
     @Autowired
     private MemberWeeklyGoalMapper memberWeeklyGoalMapper;
 
+    @Autowired
+    private AgentContextProperties agentContextProperties;
+
+    @Autowired
+    private UserNameCache userNameCache;
+
+    @Autowired
+    private AgentResponseCache agentResponseCache;
+
+    @Autowired
+    @Qualifier("agentContextExecutor")
+    private ThreadPoolTaskExecutor agentContextExecutor;
+
     @Value("${python.backend.url:http://localhost:8000}")
     private String pythonBackendUrl;
 
@@ -61,45 +98,9 @@ public class AgentServiceImpl implements AgentService {
             Task task = studentService.getTaskById(taskId);
             Group group = studentService.getGroupById(task.getGroupId());
 
-            // Retrieve existing assignments
-            List<TaskAssignment> assignments = taskAssignmentMapper.findByTaskId(taskId);
-
-            // Transform to API format
-            List<Map<String, Object>> assignmentList = assignments.stream()
-                    .map(a -> {
-                        Map<String, Object> map = new HashMap<>();
-                        map.put("user_id", a.getUserId());
-                        map.put("user_name", getUserNameById(a.getUserId()));
-                        map.put("description", a.getDescription());
-                        return map;
-                    })
-                    .toList();
-
-            // Parse task file content if available
-            String taskFileContent;
-            if (task.getFileUrl() != null && !task.getFileUrl().trim().isEmpty()) {
-                log.info("Starting to parse task file: {}", task.getFileUrl());
-                taskFileContent = documentParser.parseDocumentFromUrl(task.getFileUrl());
-                log.info("Completed parsing task file, length: {}", taskFileContent.length());
-                log.info("Task file content preview (first 200 chars): {}",
-                        taskFileContent.length() > 200
-                                ? taskFileContent.substring(0, 200)
-                                : taskFileContent);
-            } else {
-                taskFileContent = task.getDescription() != null
-                        ? task.getDescription()
-                        : "No task file provided";
-                log.warn("Task file URL is empty, using task description instead");
-            }
-
-            // Build request payload
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("project_url", task.getFileUrl() != null ? task.getFileUrl() : "Not provided");
-            requestBody.put("task_description", task.getDescription());
-            requestBody.put("task_file_content", taskFileContent);
-            requestBody.put("group_name", group.getName());
-            requestBody.put("task_name", task.getTitle());
-            requestBody.put("assignments", assignmentList);
+            Map<String, Object> requestBody = buildInitialAdviceRequest(task, group);
+            String taskFileContent = (String) requestBody.get("task_file_content");
+            List<?> assignmentList = (List<?>) requestBody.get("assignments");
 
             log.info("Prepared initial assignment data to send to Python backend:");
             log.info("  project_url: {}", task.getFileUrl());
@@ -150,7 +151,8 @@ public class AgentServiceImpl implements AgentService {
     @Override
     public String getConfirmationAdvice(Long taskId, Long groupId,
                                         List<Map<String, Object>> originalAssignments,
-                                        List<Map<String, Object>> updatedAssignments) {
+                                        List<Map<String, Object>> updatedAssignments,
+                                        boolean refresh) {
         try {
             // Retrieve task and group info
             Task task = studentService.getTaskById(taskId);
@@ -171,10 +173,11 @@ public class AgentServiceImpl implements AgentService {
 
             String url = pythonBackendUrl + "/task-assignment/confirmation-advice";
             log.info("Sending confirmation request to Python backend: {}", url);
-            ResponseEntity<Map> response = restTemplate.postForEntity(url, entity, Map.class);
+            Map<String, Object> body = agentResponseCache.get("confirmation-advice", requestBody, refresh,
+                    () -> postForBody(url, entity), this::isSuccess);
 
-            if (response.getBody() != null && "success".equals(response.getBody().get("status"))) {
-                String advice = (String) response.getBody().get("advice");
+            if (isSuccess(body)) {
+                String advice = (String) body.get("advice");
                 addAgentMessageToConversation(taskId, groupId, advice);
                 return advice;
             } else {
@@ -190,18 +193,7 @@ public class AgentServiceImpl implements AgentService {
     @Override
     public String sendMessageToConversation(Long taskId, Long userId, String message) {
         try {
-            Task task = studentService.getTaskById(taskId);
-            Group group = studentService.getGroupById(task.getGroupId());
-            List<Map<String, Object>> history = studentService.getConversationHistory(userId, taskId, group.getId());
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("user_message", message);
-            requestBody.put("task_id", taskId);
-            requestBody.put("group_id", task.getGroupId());
-            requestBody.put("task_name", task.getTitle());
-            requestBody.put("task_description", task.getDescription());
-            requestBody.put("group_name", group.getName());
-            requestBody.put("conversation_history", history);
+            Map<String, Object> requestBody = buildChatRequest(taskId, userId, message);
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -223,6 +215,79 @@ public class AgentServiceImpl implements AgentService {
         }
     }
 
+    @Override
+    public String streamInitialAssignmentAdvice(Long taskId, Long userId, Consumer<String> onChunk) {
+        Task task = studentService.getTaskById(taskId);
+        Group group = studentService.getGroupById(task.getGroupId());
+        Map<String, Object> requestBody = buildInitialAdviceRequest(task, group);
+
+        String advice = streamFromPython("/task-assignment/initial-advice/stream", requestBody, onChunk);
+        log.info("Streamed initial advice for task {}, length: {}", taskId, advice.length());
+
+        // Persist only the complete answer, never a partial one
+        studentService.saveConversationMessage(taskId, task.getGroupId(), userId, "USER",
+                "Submit initial division of labor");
+        studentService.saveConversationMessage(taskId, task.getGroupId(), null, "AGENT", advice);
+        return advice;
+    }
+
+    @Override
+    public String streamMessageToConversation(Long taskId, Long userId, String message, Consumer<String> onChunk) {
+        Task task = studentService.getTaskById(taskId);
+        studentService.saveConversationMessage(taskId, task.getGroupId(), userId, "USER", message);
+        Map<String, Object> requestBody = buildChatRequest(taskId, userId, message);
+
+        String response = streamFromPython("/conversation/chat/stream", requestBody, onChunk);
+        log.info("Streamed chat reply for task {}, length: {}", taskId, response.length());
+
+        // Persist only the complete answer, never a partial one
+        studentService.saveConversationMessage(taskId, task.getGroupId(), null, "AGENT", response);
+        return response;
+    }
+
+    /**
+     * POST a JSON body to a streaming Python endpoint and hand every chunk to the callback as it arrives.
+     * An error trailer from Python ends the call with an exception, so a partial answer is never saved.
+     *
+     * @return the concatenated response text
+     */
+    private String streamFromPython(String path, Map<String, Object> requestBody, Consumer<String> onChunk) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.TEXT_PLAIN));
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+
+        String url = pythonBackendUrl + path;
+        log.info("Opening stream to Python backend: {}", url);
+        RequestCallback requestCallback = restTemplate.httpEntityCallback(entity);
+        ResponseExtractor<String> extractor = response -> {
+            StringBuilder full = new StringBuilder();
+            try (Reader reader = new InputStreamReader(response.getBody(), StandardCharsets.UTF_8)) {
+                char[] buffer = new char[256];
+                int n;
+                while ((n = reader.read(buffer)) != -1) {
+                    String chunk = new String(buffer, 0, n);
+                    int marker = chunk.indexOf(STREAM_ERROR_MARKER);
+                    if (marker >= 0) {
+                        // The rest of the stream describes the failure and is not part of the answer
+                        if (marker > 0) {
+                            onChunk.accept(chunk.substring(0, marker));
+                        }
+                        StringWriter detail = new StringWriter().append(chunk, marker + 1, chunk.length());
+                        reader.transferTo(detail);
+                        throw new IllegalStateException("Agent stream failed: "
+                                + detail.toString().replaceFirst("^ERROR:", ""));
+                    }
+                    full.append(chunk);
+                    onChunk.accept(chunk);
+                }
+            }
+            return full.toString();
+        };
+        String result = restTemplate.execute(url, HttpMethod.POST, requestCallback, extractor);
+        return result != null ? result : "";
+    }
+
     @Override
     public List<Map<String, Object>> getConversationHistory(Long taskId, Long groupId) {
         try {
@@ -252,42 +317,150 @@ public class AgentServiceImpl implements AgentService {
         }
     }
 
+    /**
+     * Assemble the payload for the initial-advice endpoints (blocking and streaming).
+     */
+    private Map<String, Object> buildInitialAdviceRequest(Task task, Group group) {
+        Long taskId = task.getId();
+
+        // Retrieve existing assignments
+        List<TaskAssignment> assignments = taskAssignmentMapper.findByTaskId(taskId);
+
+        // Transform to API format
+        List<Map<String, Object>> assignmentList = toAssignmentList(assignments);
+
+        // Parse task file content if available
+        String taskFileContent;
+        if (task.getFileUrl() != null && !task.getFileUrl().trim().isEmpty()) {
+            log.info("Starting to parse task file: {}", task.getFileUrl());
+            taskFileContent = documentParser.parseDocumentFromUrl(task.getFileUrl(), taskFileSource(task));
+            log.info("Completed parsing task file, length: {}", taskFileContent.length());
+            log.info("Task file content preview (first 200 chars): {}",
+                    taskFileContent.length() > 200
+                            ? taskFileContent.substring(0, 200)
+                            : taskFileContent);
+        } else {
+            taskFileContent = task.getDescription() != null
+                    ? task.getDescription()
+                    : "No task file provided";
+            log.warn("Task file URL is empty, using task description instead");
+        }
+
+        // Build request payload
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("project_url", task.getFileUrl() != null ? task.getFileUrl() : "Not provided");
+        requestBody.put("task_description", task.getDescription());
+        requestBody.put("task_file_content", taskFileContent);
+        requestBody.put("group_name", group.getName());
+        requestBody.put("task_name", task.getTitle());
+        requestBody.put("assignments", assignmentList);
+        return requestBody;
+    }
+
+    /**
+     * Assemble the payload for the chat endpoints (blocking and streaming).
+     */
+    private Map<String, Object> buildChatRequest(Long taskId, Long userId, String message) {
+        Task task = studentService.getTaskById(taskId);
+        Group group = studentService.getGroupById(task.getGroupId());
+        List<Map<String, Object>> history = getContextWindow(userId, taskId, group.getId());
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("user_message", message);
+        requestBody.put("task_id", taskId);
+        requestBody.put("group_id", task.getGroupId());
+        requestBody.put("task_name", task.getTitle());
+        requestBody.put("task_description", task.getDescription());
+        requestBody.put("group_name", group.getName());
+        requestBody.put("conversation_history", history);
+        return requestBody;
+    }
+
+    /**
+     * Latest messages of the conversation that fit the configured message and token budget,
+     * so the cost of a chat turn does not grow with the age of the project
+     */
+    private List<Map<String, Object>> getContextWindow(Long userId, Long taskId, Long groupId) {
+        List<Map<String, Object>> recent = studentService.getRecentConversation(
+                userId, taskId, groupId, agentContextProperties.getMaxMessages());
+
+        int start = recent.size();
+        long tokens = 0;
+        while (start > 0) {
+            Object content = recent.get(start - 1).get("content");
+            long messageTokens = content != null ? content.toString().length() / 4 + 1 : 1;
+            if (tokens + messageTokens > agentContextProperties.getMaxTokens() && start < recent.size()) {
+                break;
+            }
+            tokens += messageTokens;
+            start--;
+        }
+        log.info("Agent context for task {}: {} of {} recent messages, ~{} tokens",
+                taskId, recent.size() - start, recent.size(), tokens);
+        return recent.subList(start, recent.size());
+    }
+
     private String getUserNameById(Long userId) {
-        return studentService.getUserNameById(userId);
+        return userNameCache.getName(userId);
+    }
+
+    /**
+     * Assignments in the API format, with every member's name resolved in one lookup.
+     */
+    private List<Map<String, Object>> toAssignmentList(List<TaskAssignment> assignments) {
+        Map<Long, String> names = userNameCache.getNames(
+                assignments.stream().map(TaskAssignment::getUserId).toList());
+        return assignments.stream()
+                .map(a -> {
+                    Map<String, Object> map = new HashMap<>();
+                    map.put("user_id", a.getUserId());
+                    map.put("user_name", names.getOrDefault(a.getUserId(), UserNameCache.UNKNOWN_USER));
+                    map.put("description", a.getDescription());
+                    return map;
+                })
+                .toList();
     }
 
     @Override
     public String analyzeWeeklyProgress(Long taskId, Integer weekNo, String meetingDocumentUrl, Long userId) {
+        try {
+            return analyzeWeeklyProgressOrThrow(taskId, weekNo, meetingDocumentUrl, userId);
+        } catch (IllegalStateException e) {
+            return e.getMessage();
+        } catch (Exception e) {
+            log.error("Error analyzing weekly progress", e);
+            return "Error analyzing weekly progress. Please try again later.";
+        }
+    }
+
+    @Override
+    public String analyzeWeeklyProgressOrThrow(Long taskId, Integer weekNo, String meetingDocumentUrl, Long userId) {
         log.info("Analyzing weekly progress for task {} week {}, document URL: {}", taskId, weekNo, meetingDocumentUrl);
         log.info("==================================================");
 
         try {
             Long groupId = userGroupMapper.findGroupIdByTaskId(taskId);
             if (groupId == null) {
-                return "Unable to find group for the specified task";
+                throw new IllegalStateException("Unable to find group for the specified task");
             }
 
             String userName = getUserNameById(userId);
             String requestMsg = String.format("%s requested Agent suggestions for week %d", userName, weekNo);
             studentService.saveConversationMessage(taskId, groupId, userId, "USER", requestMsg);
 
-            String taskContent = getTaskContent(taskId);
-            String assignments = getTaskAssignments(taskId);
-            String weeklyGoals = getWeeklyGoals(taskId, weekNo);
-
-            String meetingContent = "";
-            if (meetingDocumentUrl != null && !meetingDocumentUrl.trim().isEmpty()) {
-                log.info("Starting to parse meeting document: {}", meetingDocumentUrl);
-                meetingContent = documentParser.parseDocumentFromUrl(meetingDocumentUrl);
-                log.info("Completed parsing meeting document, length: {}", meetingContent.length());
-                log.info("Meeting document preview: {}",
-                        meetingContent.length() > 200
-                                ? meetingContent.substring(0, 200)
-                                : meetingContent);
-            } else {
-                meetingContent = "No meeting document provided";
-                log.warn("Meeting document URL is empty");
-            }
+            // The four parts are independent; fetch them side by side so the slowest one sets the latency
+            ContextParts context = new ContextParts();
+            Future<String> taskContentF = context.add(() -> getTaskContent(taskId));
+            Future<String> assignmentsF = context.add(() -> getTaskAssignments(taskId));
+            Future<String> weeklyGoalsF = context.add(() -> getWeeklyGoals(taskId, weekNo));
+            Future<String> meetingContentF = context.add(() -> parseMeetingDocument(meetingDocumentUrl,
+                    new SearchSource("MEETING_DOCUMENT", taskId + ":" + weekNo, taskId, groupId, "Week " + weekNo + " meeting")));
+            context.await();
+
+            String taskContent = taskContentF.get();
+            String assignments = assignmentsF.get();
+            String weeklyGoals = weeklyGoalsF.get();
+            String meetingContent = meetingContentF.get();
 
             Map<String, Object> requestData = new HashMap<>();
             requestData.put("task_id", taskId);
@@ -331,17 +504,18 @@ public class AgentServiceImpl implements AgentService {
                         ? (String) response.getBody().get("message")
                         : "Unknown error";
                 log.error("Python backend returned error: {}", errorMsg);
-                return "Failed to analyze weekly progress: " + errorMsg;
+                throw new IllegalStateException("Failed to analyze weekly progress: " + errorMsg);
             }
 
+        } catch (RuntimeException e) {
+            throw e;
         } catch (Exception e) {
-            log.error("Error analyzing weekly progress", e);
-            return "Error analyzing weekly progress. Please try again later.";
+            throw new RuntimeException("Error analyzing weekly progress: " + e.getMessage(), e);
         }
     }
 
     @Override
-    public Map<String, String> generateWeeklyGoal(Long taskId, Long studentId, Integer weekNo) {
+    public Map<String, String> generateWeeklyGoal(Long taskId, Long studentId, Integer weekNo, boolean refresh) {
         log.info("Generating weekly goal for task {} student {} week {}", taskId, studentId, weekNo);
         log.info("==================================================");
 
@@ -356,63 +530,21 @@ public class AgentServiceImpl implements AgentService {
                 throw new RuntimeException("Group not found");
             }
 
-            List<TaskAssignment> assignments = taskAssignmentMapper.findByTaskId(taskId);
-            List<Map<String, Object>> assignmentList = assignments.stream()
-                    .map(a -> {
-                        Map<String, Object> map = new HashMap<>();
-                        map.put("user_id", a.getUserId());
-                        map.put("user_name", getUserNameById(a.getUserId()));
-                        map.put("description", a.getDescription());
-                        return map;
-                    })
-                    .toList();
-
-            String taskFileContent;
-            if (task.getFileUrl() != null && !task.getFileUrl().trim().isEmpty()) {
-                log.info("Starting to parse task file: {}", task.getFileUrl());
-                taskFileContent = documentParser.parseDocumentFromUrl(task.getFileUrl());
-                log.info("Completed parsing task file, length: {}", taskFileContent.length());
-                log.info("Task file content preview: {}",
-                        taskFileContent.length() > 200
-                                ? taskFileContent.substring(0, 200)
-                                : taskFileContent);
-            } else {
-                taskFileContent = task.getDescription() != null
-                        ? task.getDescription()
-                        : "No task file provided";
-                log.warn("Task file URL is empty, using task description");
-            }
-
-            List<MemberWeeklyGoal> previousGoals = null;
-            if (weekNo > 1) {
-                previousGoals = memberWeeklyGoalMapper.findByTaskIdAndStudentId(taskId, studentId);
-                log.info("Retrieved {} previous weekly goals",
-                        previousGoals != null ? previousGoals.size() : 0);
-                if (previousGoals != null) {
-                    previousGoals.forEach(g -> log.info(
-                            "Previous goal: week={}, status={}, goal={}",
-                            g.getWeekNo(),
-                            g.getStatus(),
-                            g.getGoal() != null && g.getGoal().length() > 50
-                                    ? g.getGoal().substring(0,50) + "..."
-                                    : g.getGoal()
-                    ));
-                }
-            }
-
-            String previousMeetingContent = null;
-            if (weekNo > 1) {
-                String prevUrl = getMeetingDocumentUrl(taskId, weekNo - 1);
-                if (prevUrl != null && !prevUrl.isEmpty()) {
-                    log.info("Parsing previous meeting document: {}", prevUrl);
-                    previousMeetingContent = documentParser.parseDocumentFromUrl(prevUrl);
-                    log.info("Completed parsing previous meeting doc, length: {}", previousMeetingContent.length());
-                    log.info("Previous meeting doc preview: {}",
-                            previousMeetingContent.length() > 200
-                                    ? previousMeetingContent.substring(0, 200)
-                                    : previousMeetingContent);
-                }
-            }
+            // Assignments, the task file and the previous week's goals and meeting are independent
+            ContextParts context = new ContextParts();
+            Future<List<Map<String, Object>>> assignmentListF =
+                    context.add(() -> toAssignmentList(taskAssignmentMapper.findByTaskId(taskId)));
+            Future<String> taskFileContentF = context.add(() -> parseTaskFile(task));
+            Future<List<MemberWeeklyGoal>> previousGoalsF = context.add(() ->
+                    weekNo > 1 ? findPreviousGoals(taskId, studentId) : null);
+            Future<String> previousMeetingContentF = context.add(() ->
+                    weekNo > 1 ? parsePreviousMeetingDocument(taskId, weekNo - 1) : null);
+            context.await();
+
+            List<Map<String, Object>> assignmentList = assignmentListF.get();
+            String taskFileContent = taskFileContentF.get();
+            List<MemberWeeklyGoal> previousGoals = previousGoalsF.get();
+            String previousMeetingContent = previousMeetingContentF.get();
 
             Map<String, Object> requestBody = new HashMap<>();
             requestBody.put("task_id", taskId);
@@ -454,16 +586,17 @@ public class AgentServiceImpl implements AgentService {
 
             String url = pythonBackendUrl + "/weekly-goal/generate";
             log.info("Sending weekly goal generation request to Python backend: {}", url);
-            ResponseEntity<Map> response = restTemplate.postForEntity(url, entity, Map.class);
+            Map<String, Object> body = agentResponseCache.get("weekly-goal", requestBody, refresh,
+                    () -> postForBody(url, entity), this::isSuccess);
 
-            if (response.getBody() != null && "success".equals(response.getBody().get("status"))) {
+            if (isSuccess(body)) {
                 @SuppressWarnings("unchecked")
-                Map<String, String> weeklyGoal = (Map<String, String>) response.getBody().get("weekly_goal");
+                Map<String, String> weeklyGoal = (Map<String, String>) body.get("weekly_goal");
                 log.info("Received weekly goal from Python backend: {}", weeklyGoal);
                 return weeklyGoal;
             } else {
-                String errorMsg = response.getBody() != null
-                        ? (String) response.getBody().get("message")
+                String errorMsg = body != null
+                        ? (String) body.get("message")
                         : "Unknown error";
                 log.error("Python backend returned error: {}", errorMsg);
                 throw new RuntimeException("Weekly goal generation failed: " + errorMsg);
@@ -475,6 +608,128 @@ public class AgentServiceImpl implements AgentService {
         }
     }
 
+    /** POST to the Python backend and return the JSON body */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> postForBody(String url, HttpEntity<Map<String, Object>> entity) {
+        return restTemplate.postForEntity(url, entity, Map.class).getBody();
+    }
+
+    private boolean isSuccess(Map<String, Object> body) {
+        return body != null && "success".equals(body.get("status"));
+    }
+
+    /**
+     * The independent parts of one agent request context, fetched side by side on the context pool
+     * under one overall deadline that starts before the first part is submitted.
+     * A part that fails, is rejected by a full pool, or is still running at the deadline fails the
+     * whole request; the other parts are cancelled, which interrupts their threads.
+     */
+    private final class ContextParts {
+        private final long timeoutMs = agentContextProperties.getGatherTimeoutMs();
+        private final long startNanos = System.nanoTime();
+        private final long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        private final List<Future<?>> parts = new ArrayList<>();
+
+        <T> Future<T> add(Callable<T> part) {
+            try {
+                Future<T> future = agentContextExecutor.submit(part);
+                parts.add(future);
+                return future;
+            } catch (TaskRejectedException e) {
+                cancelAll();
+                throw new RuntimeException("Agent is busy, please try again shortly", e);
+            }
+        }
+
+        void await() throws Exception {
+            try {
+                for (Future<?> part : parts) {
+                    part.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+            } catch (TimeoutException e) {
+                cancelAll();
+                throw new RuntimeException("Timed out after " + timeoutMs + " ms gathering agent context");
+            } catch (ExecutionException e) {
+                cancelAll();
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+            log.info("Gathered agent context ({} parts) in {} ms", parts.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+
+        private void cancelAll() {
+            parts.forEach(part -> part.cancel(true));
+        }
+    }
+
+    private String parseMeetingDocument(String meetingDocumentUrl, SearchSource source) {
+        if (meetingDocumentUrl == null || meetingDocumentUrl.trim().isEmpty()) {
+            log.warn("Meeting document URL is empty");
+            return "No meeting document provided";
+        }
+        log.info("Starting to parse meeting document: {}", meetingDocumentUrl);
+        String meetingContent = documentParser.parseDocumentFromUrl(meetingDocumentUrl, source);
+        log.info("Completed parsing meeting document, length: {}", meetingContent.length());
+        log.info("Meeting document preview: {}",
+                meetingContent.length() > 200
+                        ? meetingContent.substring(0, 200)
+                        : meetingContent);
+        return meetingContent;
+    }
+
+    private String parseTaskFile(Task task) {
+        if (task.getFileUrl() == null || task.getFileUrl().trim().isEmpty()) {
+            log.warn("Task file URL is empty, using task description");
+            return task.getDescription() != null
+                    ? task.getDescription()
+                    : "No task file provided";
+        }
+        log.info("Starting to parse task file: {}", task.getFileUrl());
+        String taskFileContent = documentParser.parseDocumentFromUrl(task.getFileUrl(), taskFileSource(task));
+        log.info("Completed parsing task file, length: {}", taskFileContent.length());
+        log.info("Task file content preview: {}",
+                taskFileContent.length() > 200
+                        ? taskFileContent.substring(0, 200)
+                        : taskFileContent);
+        return taskFileContent;
+    }
+
+    private SearchSource taskFileSource(Task task) {
+        return new SearchSource("TASK_FILE", task.getId().toString(), task.getId(), task.getGroupId(), task.getTitle());
+    }
+
+    private List<MemberWeeklyGoal> findPreviousGoals(Long taskId, Long studentId) {
+        List<MemberWeeklyGoal> previousGoals = memberWeeklyGoalMapper.findByTaskIdAndStudentId(taskId, studentId);
+        log.info("Retrieved {} previous weekly goals",
+                previousGoals != null ? previousGoals.size() : 0);
+        if (previousGoals != null) {
+            previousGoals.forEach(g -> log.info(
+                    "Previous goal: week={}, status={}, goal={}",
+                    g.getWeekNo(),
+                    g.getStatus(),
+                    g.getGoal() != null && g.getGoal().length() > 50
+                            ? g.getGoal().substring(0,50) + "..."
+                            : g.getGoal()
+            ));
+        }
+        return previousGoals;
+    }
+
+    private String parsePreviousMeetingDocument(Long taskId, Integer weekNo) {
+        String prevUrl = getMeetingDocumentUrl(taskId, weekNo);
+        if (prevUrl == null || prevUrl.isEmpty()) {
+            return null;
+        }
+        log.info("Parsing previous meeting document: {}", prevUrl);
+        String previousMeetingContent = documentParser.parseDocumentFromUrl(prevUrl);
+        log.info("Completed parsing previous meeting doc, length: {}", previousMeetingContent.length());
+        log.info("Previous meeting doc preview: {}",
+                previousMeetingContent.length() > 200
+                        ? previousMeetingContent.substring(0, 200)
+                        : previousMeetingContent);
+        return previousMeetingContent;
+    }
+
     /** TODO: Implement method to retrieve the meeting document URL for a specific week */
     private String getMeetingDocumentUrl(Long taskId, Integer weekNo) {
         return null;
@@ -501,9 +756,11 @@ public class AgentServiceImpl implements AgentService {
             if (assignments.isEmpty()) {
                 return "No assignment information available";
             }
+            Map<Long, String> names = userNameCache.getNames(
+                    assignments.stream().map(TaskAssignment::getUserId).toList());
             StringBuilder sb = new StringBuilder();
             for (TaskAssignment a : assignments) {
-                String userName = getUserNameById(a.getUserId());
+                String userName = names.getOrDefault(a.getUserId(), UserNameCache.UNKNOWN_USER);
                 sb.append(String.format("Member: %s, Task: %s\n", userName, a.getDescription()));
             }
             return sb.toString();
@@ -520,6 +777,8 @@ public class AgentServiceImpl implements AgentService {
             if (goals.isEmpty()) {
                 return String.format("No goals set for week %d", weekNo);
             }
+            Map<Long, String> names = userNameCache.getNames(
+                    goals.stream().map(MemberWeeklyGoal::getStudentId).toList());
             StringBuilder sb = new StringBuilder();
             sb.append(String.format("Week %d group member goals:\n", weekNo));
             List<MemberWeeklyGoal> currentGoals = goals.stream()
@@ -528,13 +787,13 @@ public class AgentServiceImpl implements AgentService {
             if (currentGoals.isEmpty()) {
                 sb.append("(No specific goals found for the current week. Showing all set goals for reference):\n");
                 for (MemberWeeklyGoal g : goals) {
-                    String name = getUserNameById(g.getStudentId());
+                    String name = names.getOrDefault(g.getStudentId(), UserNameCache.UNKNOWN_USER);
                     sb.append(String.format("Member: %s, Week %d goal: %s, Status: %s\n",
                             name, g.getWeekNo(), g.getGoal(), getStatusText(g.getStatus())));
                 }
             } else {
                 for (MemberWeeklyGoal g : currentGoals) {
-                    String name = getUserNameById(g.getStudentId());
+                    String name = names.getOrDefault(g.getStudentId(), UserNameCache.UNKNOWN_USER);
                     sb.append(String.format("Member: %s, Goal: %s, Status: %s\n",
                             name, g.getGoal(), getStatusText(g.getStatus())));
                 }
@@ -0,0 +1,95 @@
+package demo.service.impl;
+
+import demo.service.AgentService;
+import demo.service.AgentStreamService;
+import demo.utils.AgentStreamProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+public class AgentStreamServiceImpl implements AgentStreamService {
+
+    @Autowired
+    private AgentService agentService;
+
+    @Autowired
+    private AgentStreamProperties properties;
+
+    @Autowired
+    @Qualifier("agentStreamExecutor")
+    private ThreadPoolTaskExecutor agentStreamExecutor;
+
+    @Override
+    public SseEmitter streamMessage(Long userId, Long taskId, String content) {
+        return relay("message", taskId,
+                onChunk -> agentService.streamMessageToConversation(taskId, userId, content, onChunk));
+    }
+
+    @Override
+    public SseEmitter streamInitialAdvice(Long userId, Long taskId) {
+        return relay("initial advice", taskId,
+                onChunk -> agentService.streamInitialAssignmentAdvice(taskId, userId, onChunk));
+    }
+
+    /**
+     * Run the agent call on the stream pool and forward its chunks to a new emitter.
+     * A browser that goes away does not abort the call, so the reply is still saved in full.
+     */
+    private SseEmitter relay(String kind, Long taskId, Function<Consumer<String>, String> call) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeoutMs());
+        AtomicBoolean clientGone = new AtomicBoolean(false);
+        emitter.onTimeout(() -> clientGone.set(true));
+        emitter.onError(e -> clientGone.set(true));
+
+        try {
+            agentStreamExecutor.execute(() -> {
+                try {
+                    String full = call.apply(chunk -> {
+                        if (!clientGone.get()) {
+                            send(emitter, clientGone, SseEmitter.event().name("chunk")
+                                    .data(chunk, MediaType.TEXT_PLAIN));
+                        }
+                    });
+                    send(emitter, clientGone, SseEmitter.event().name("done").data(Map.of("response", full)));
+                    emitter.complete();
+                } catch (Exception e) {
+                    log.error("Failed to stream {} for task {}", kind, taskId, e);
+                    send(emitter, clientGone, SseEmitter.event().name("error")
+                            .data(Map.of("message", "Failed to stream agent response: " + e.getMessage())));
+                    emitter.complete();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            log.warn("Agent stream pool is full, rejecting {} stream for task {}", kind, taskId);
+            send(emitter, clientGone, SseEmitter.event().name("error")
+                    .data(Map.of("message", "Agent is busy, please try again shortly")));
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    private void send(SseEmitter emitter, AtomicBoolean clientGone, SseEmitter.SseEventBuilder event) {
+        if (clientGone.get()) {
+            return;
+        }
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Agent stream client went away: {}", e.getMessage());
+            clientGone.set(true);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package demo.service.impl;
+
+import demo.mapper.ConversationMapper;
+import demo.pojo.Conversation;
+import demo.pojo.ConversationArchive;
+import demo.service.ConversationArchiveService;
+import demo.service.SearchService;
+import demo.utils.ConversationProperties;
+import demo.utils.TextCompression;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves old conversation bodies to compressed cold storage and keeps the monthly partitions ahead of time.
+ * Each batch compresses its rows, writes the archive rows and clears the inline bodies in one transaction,
+ * so a message is always readable from exactly one place.
+ */
+@Slf4j
+@Service
+public class ConversationArchiveServiceImpl implements ConversationArchiveService {
+
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String PURGE_TASK = "TASK";
+    private static final String PURGE_GROUP = "GROUP";
+    private static final String PURGE_USER = "USER";
+
+    @Autowired
+    private ConversationMapper conversationMapper;
+
+    @Autowired
+    private ConversationProperties properties;
+
+    @Autowired
+    private SearchService searchService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /** Highest message ID already looked at, so each sweep continues where the previous one stopped */
+    private final AtomicLong archivedUpTo = new AtomicLong();
+
+    @Autowired
+    public ConversationArchiveServiceImpl(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${conversation.archive-interval-ms:3600000}",
+            fixedDelayString = "${conversation.archive-interval-ms:3600000}")
+    public void sweep() {
+        try {
+            ensurePartitions();
+            int orphaned = purgeOrphanedConversations();
+            int archived = archiveOldMessages();
+            log.info("Conversation sweep: archived {} messages, applied {} task/group/user deletions", archived, orphaned);
+        } catch (Exception e) {
+            log.warn("Conversation sweep failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int archiveOldMessages() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(properties.getArchiveAfterDays());
+        int total = 0;
+        while (true) {
+            List<Conversation> batch = conversationMapper.findArchiveCandidates(
+                    archivedUpTo.get(), cutoff, properties.getArchiveBatchSize());
+            if (batch.isEmpty()) {
+                return total;
+            }
+            List<ConversationArchive> rows = new ArrayList<>(batch.size());
+            for (Conversation msg : batch) {
+                byte[] body = TextCompression.compress(msg.getContent());
+                // Text that does not shrink (short or already dense) stays inline
+                if (body.length < msg.getContent().length()) {
+                    rows.add(new ConversationArchive(msg.getId(), TextCompression.CODEC,
+                            msg.getContent().length(), body, null));
+                }
+            }
+            if (!rows.isEmpty()) {
+                List<Long> ids = rows.stream().map(ConversationArchive::getConversationId).toList();
+                transactionTemplate.executeWithoutResult(status -> {
+                    conversationMapper.insertArchive(rows);
+                    conversationMapper.clearArchivedContent(ids);
+                });
+                total += rows.size();
+            }
+            archivedUpTo.set(batch.get(batch.size() - 1).getId());
+        }
+    }
+
+    @Override
+    public void ensurePartitions() {
+        List<String> names = conversationMapper.findPartitionNames().stream()
+                .filter(Objects::nonNull)
+                .toList();
+        if (!names.contains("p_future")) {
+            log.debug("conversations is not partitioned by month, skipping partition upkeep");
+            return;
+        }
+        YearMonth last = names.stream()
+                .filter(n -> n.matches("p_\\d{6}"))
+                .map(n -> YearMonth.parse(n.substring(2), PARTITION_MONTH))
+                .max(YearMonth::compareTo)
+                .orElse(YearMonth.now().minusMonths(1));
+        YearMonth target = YearMonth.now().plusMonths(properties.getPartitionMonthsAhead());
+        for (YearMonth month = last.plusMonths(1); !month.isAfter(target); month = month.plusMonths(1)) {
+            String name = "p_" + month.format(PARTITION_MONTH);
+            conversationMapper.addPartitionBeforeFuture(name, month.plusMonths(1).atDay(1) + " 00:00:00");
+            log.info("Added conversations partition {}", name);
+        }
+    }
+
+    @Override
+    public void recordGroupDeleted(Long groupId) {
+        conversationMapper.insertPurge(PURGE_GROUP, groupId);
+    }
+
+    @Override
+    public void recordUserDeleted(Long userId) {
+        conversationMapper.insertPurge(PURGE_USER, userId);
+    }
+
+    /**
+     * The partitioned table has no foreign keys, so deletions are recorded by the services that make them
+     * and applied here by ID through the task, group and sender indexes, without scanning every partition.
+     */
+    @Override
+    public int purgeOrphanedConversations() {
+        int total = 0;
+        List<Map<String, Object>> purges;
+        while (!(purges = conversationMapper.findPurges(properties.getArchiveBatchSize())).isEmpty()) {
+            for (Map<String, Object> purge : purges) {
+                long targetId = ((Number) purge.get("target_id")).longValue();
+                switch ((String) purge.get("target_type")) {
+                    case PURGE_TASK -> {
+                        conversationMapper.deleteByTaskId(targetId);
+                        searchService.deleteByTask(targetId);
+                    }
+                    case PURGE_GROUP -> {
+                        conversationMapper.deleteByGroupId(targetId);
+                        searchService.deleteByGroup(targetId);
+                    }
+                    case PURGE_USER -> conversationMapper.clearSender(targetId);
+                    default -> log.warn("Unknown conversation purge type {}", purge.get("target_type"));
+                }
+                conversationMapper.deletePurge(((Number) purge.get("id")).longValue());
+                total++;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,308 @@
+package demo.service.impl;
+
+import com.alibaba.fastjson.JSON;
+import demo.mapper.ImportJobMapper;
+import demo.pojo.ActivityEvent;
+import demo.pojo.ImportJob;
+import demo.service.ActivityService;
+import demo.service.AdminService;
+import demo.service.ImportJobService;
+import demo.service.TeacherService;
+import demo.utils.ImportJobProperties;
+import demo.utils.SpreadsheetRowReader;
+import demo.utils.SpreadsheetRowReader.SheetRow;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs batch imports off the request thread.
+ * Rows are committed in chunks, each in its own transaction together with the job's checkpoint,
+ * so row locks are held for one chunk at a time and a job interrupted by a restart resumes
+ * after the last committed row instead of starting over.
+ */
+@Slf4j
+@Service
+public class ImportJobServiceImpl implements ImportJobService {
+
+    private static final Set<String> JOB_TYPES = Set.of(STUDENTS, TEACHERS, GROUPS, TASKS);
+
+    @Autowired
+    private ImportJobMapper importJobMapper;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private TeacherService teacherService;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private ImportJobProperties properties;
+
+    @Autowired
+    @Qualifier("importJobExecutor")
+    private ThreadPoolTaskExecutor importJobExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /** Jobs handed to the executor and not finished yet, so the sweeper does not queue them twice */
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    private Path spoolDir;
+
+    @Autowired
+    public ImportJobServiceImpl(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        String dir = properties.getSpoolDir();
+        spoolDir = dir == null || dir.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "import-jobs")
+                : Paths.get(dir);
+        Files.createDirectories(spoolDir);
+    }
+
+    @Override
+    public Map<String, Object> submit(String jobType, MultipartFile file, Long userId) throws Exception {
+        if (!JOB_TYPES.contains(jobType)) {
+            throw new RuntimeException("Unsupported import type: " + jobType);
+        }
+        String fileName = file.getOriginalFilename();
+        String lower = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        if (!lower.endsWith(".xlsx") && !lower.endsWith(".xls") && !lower.endsWith(".csv")) {
+            throw new RuntimeException("Unsupported file format, please use .xlsx, .xls or .csv");
+        }
+
+        // The multipart temp file is gone once the request ends, so keep our own copy
+        Path spooled = spoolDir.resolve(UUID.randomUUID() + lower.substring(lower.lastIndexOf('.')));
+        file.transferTo(spooled);
+
+        ImportJob job = new ImportJob();
+        job.setJobType(jobType);
+        job.setUserId(userId);
+        job.setFileName(fileName);
+        job.setFilePath(spooled.toAbsolutePath().toString());
+        try {
+            importJobMapper.insert(job);
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+        log.info("Queued {} import job {} for user {}, file {} ({} bytes)",
+                jobType, job.getId(), userId, fileName, file.getSize());
+
+        dispatch(job.getId());
+        return toStatus(importJobMapper.findById(job.getId()));
+    }
+
+    @Override
+    public Map<String, Object> getJobStatus(Long userId, Long jobId) {
+        ImportJob job = importJobMapper.findById(jobId);
+        if (job == null || !userId.equals(job.getUserId())) {
+            throw new RuntimeException("Import job not found");
+        }
+        return toStatus(job);
+    }
+
+    /** Re-queue abandoned jobs and hand pending ones to the worker pool */
+    @Scheduled(fixedDelayString = "${import.jobs.sweep-interval-ms:30000}")
+    public void sweep() {
+        int requeued = importJobMapper.requeueStale(properties.getStaleAfterSeconds());
+        if (requeued > 0) {
+            log.warn("Re-queued {} abandoned import jobs", requeued);
+        }
+        for (Long id : importJobMapper.findPendingIds(properties.getQueueCapacity())) {
+            dispatch(id);
+        }
+    }
+
+    /** Resume jobs left over from before a restart */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        try {
+            sweep();
+        } catch (Exception e) {
+            log.error("Failed to resume import jobs on startup", e);
+        }
+    }
+
+    private void dispatch(Long jobId) {
+        if (!queued.add(jobId)) {
+            return;
+        }
+        try {
+            importJobExecutor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    queued.remove(jobId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Stays PENDING in the table; the sweeper retries once workers free up
+            queued.remove(jobId);
+            log.warn("Import job pool saturated, job {} left pending", jobId);
+        }
+    }
+
+    private void run(Long jobId) {
+        if (importJobMapper.claim(jobId) == 0) {
+            return; // already taken by another worker or node
+        }
+        ImportJob job = importJobMapper.findById(jobId);
+        log.info("Running {} import job {} from row {} (attempt {})",
+                job.getJobType(), jobId, job.getCheckpointRow(), job.getAttempts());
+
+        Progress progress = new Progress(job);
+        try {
+            List<SheetRow> chunk = new ArrayList<>(properties.getChunkSize());
+            SpreadsheetRowReader.read(Paths.get(job.getFilePath()), job.getFileName(), true, row -> {
+                if (row.getRowNumber() <= job.getCheckpointRow()) {
+                    return; // committed by an earlier attempt
+                }
+                chunk.add(row);
+                if (chunk.size() >= properties.getChunkSize()) {
+                    commitChunk(job, chunk, progress);
+                    chunk.clear();
+                }
+            });
+            if (!chunk.isEmpty()) {
+                commitChunk(job, chunk, progress);
+            }
+            importJobMapper.markSucceeded(jobId);
+            deleteSpooledFile(job);
+            recordImported(job, progress);
+            log.info("Import job {} finished: {} rows, {} imported, {} errors",
+                    jobId, progress.processed, progress.success, progress.errorCount);
+        } catch (Exception e) {
+            boolean retry = job.getAttempts() < properties.getMaxAttempts() && Files.exists(Paths.get(job.getFilePath()));
+            log.error("Import job {} failed after row {}, {}", jobId, progress.checkpointRow,
+                    retry ? "will resume" : "giving up", e);
+            importJobMapper.markFailed(jobId, retry ? "PENDING" : "FAILED", e.getMessage());
+            if (!retry) {
+                deleteSpooledFile(job);
+            }
+        }
+    }
+
+    /** Import one chunk and advance the checkpoint in the same transaction */
+    private void commitChunk(ImportJob job, List<SheetRow> chunk, Progress progress) {
+        List<String> errors = new ArrayList<>();
+        List<String> kept = new ArrayList<>(progress.errors);
+        int lastRow = chunk.get(chunk.size() - 1).getRowNumber();
+        Integer success = transactionTemplate.execute(status -> {
+            int imported = importChunk(job, chunk, errors);
+            errors.stream().limit(Math.max(0, properties.getMaxErrors() - kept.size())).forEach(kept::add);
+            importJobMapper.updateProgress(job.getId(), lastRow, chunk.size(), imported, errors.size(),
+                    JSON.toJSONString(kept));
+            return imported;
+        });
+        progress.advance(lastRow, chunk.size(), success, errors.size(), kept);
+    }
+
+    private int importChunk(ImportJob job, List<SheetRow> rows, List<String> errors) {
+        switch (job.getJobType()) {
+            case STUDENTS:
+                return adminService.importUserRows(rows, "STUDENT", errors);
+            case TEACHERS:
+                return adminService.importUserRows(rows, "TEACHER", errors);
+            case GROUPS:
+                return teacherService.importGroupRows(rows, job.getUserId(), errors);
+            case TASKS:
+                return teacherService.importTaskRows(rows, job.getUserId(), errors);
+            default:
+                throw new IllegalStateException("Unsupported import type: " + job.getJobType());
+        }
+    }
+
+    private void recordImported(ImportJob job, Progress progress) {
+        ActivityEvent event = new ActivityEvent();
+        event.setEventType(job.getJobType() + "_IMPORTED");
+        event.setActorId(job.getUserId());
+        // Groups and tasks are created for the submitting teacher, so the event belongs in their feed
+        if (GROUPS.equals(job.getJobType()) || TASKS.equals(job.getJobType())) {
+            event.setTeacherId(job.getUserId());
+        }
+        event.setTitle("imported " + progress.success + " " + job.getJobType().toLowerCase(Locale.ROOT)
+                + " from " + job.getFileName());
+        event.setDescription(progress.errorCount + " rows reported errors");
+        activityService.record(event);
+    }
+
+    private void deleteSpooledFile(ImportJob job) {
+        try {
+            Files.deleteIfExists(Paths.get(job.getFilePath()));
+        } catch (IOException e) {
+            log.warn("Failed to delete spooled import file {}: {}", job.getFilePath(), e.getMessage());
+        }
+    }
+
+    private Map<String, Object> toStatus(ImportJob job) {
+        Map<String, Object> status = new HashMap<>();
+        status.put("jobId", job.getId());
+        status.put("jobType", job.getJobType());
+        status.put("status", job.getStatus());
+        status.put("fileName", job.getFileName());
+        status.put("total", job.getProcessedRows());
+        status.put("success", job.getSuccessCount());
+        status.put("failed", job.getErrorCount());
+        status.put("errors", job.getErrors() == null ? List.of() : JSON.parseArray(job.getErrors(), String.class));
+        status.put("errorMessage", job.getErrorMessage());
+        status.put("createdAt", job.getCreatedAt());
+        status.put("finishedAt", job.getFinishedAt());
+        return status;
+    }
+
+    /** Running totals of a job, advanced only after a chunk commits */
+    private static class Progress {
+        int checkpointRow;
+        int processed;
+        int success;
+        int errorCount;
+        List<String> errors;
+
+        Progress(ImportJob job) {
+            checkpointRow = job.getCheckpointRow();
+            processed = job.getProcessedRows();
+            success = job.getSuccessCount();
+            errorCount = job.getErrorCount();
+            errors = job.getErrors() == null ? new ArrayList<>() : JSON.parseArray(job.getErrors(), String.class);
+        }
+
+        void advance(int lastRow, int rows, int imported, int newErrors, List<String> kept) {
+            checkpointRow = lastRow;
+            processed += rows;
+            success += imported;
+            errorCount += newErrors;
+            errors = kept;
+        }
+    }
+}
@@ -3,11 +3,13 @@ package demo.service.impl;
 import demo.mapper.MeetingMapper;
 import demo.mapper.MemberWeeklyGoalMapper;
 import demo.mapper.UserGroupMapper;
+import demo.pojo.AgentJob;
 import demo.pojo.Meeting;
 import demo.pojo.MemberWeeklyGoal;
 import demo.pojo.User;
 import demo.service.MeetingService;
-import demo.service.AgentService;
+import demo.service.AgentJobService;
+import demo.service.ActivityService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -33,7 +35,10 @@ public class MeetingServiceImpl implements MeetingService {
     private UserGroupMapper userGroupMapper;
 
     @Autowired
-    private AgentService agentService;
+    private AgentJobService agentJobService;
+
+    @Autowired
+    private ActivityService activityService;
 
     @Override
     public List<Meeting> getMeetingsByTaskId(Long taskId) {
@@ -84,11 +89,15 @@ public class MeetingServiceImpl implements MeetingService {
             meetingMapper.update(meeting);
         }
 
-        // 4. Call Agent service for automated analysis
+        activityService.record("MEETING_DOCUMENT_UPLOADED", userId, meeting.getGroupId(), taskId,
+                "uploaded the document for meeting " + meetingNo, null);
+
+        // 4. Queue the Agent analysis; it runs on the job pool after this transaction commits
         try {
-            agentService.analyzeWeeklyProgress(taskId, meetingNo, documentUrl, userId);
+            AgentJob job = agentJobService.submitWeeklyProgressAnalysis(userId, taskId, meetingNo, documentUrl);
+            meeting.setAgentJobId(job.getId());
         } catch (Exception e) {
-            log.error("Failed to call Agent service", e);
+            log.error("Failed to queue Agent analysis", e);
             // Do not impact meeting upload, only log error
         }
 
@@ -182,6 +191,8 @@ public class MeetingServiceImpl implements MeetingService {
             }
         }
 
+        activityService.record("MEETING_COMPLETED", null, meeting.getGroupId(), meeting.getTaskId(),
+                "Meeting " + meeting.getMeetingNo() + " completed", "Weekly goals of that week marked finished");
         log.info("Meeting {} completed, associated weekly goals updated to FINISHED", meetingId);
     }
 
@@ -8,6 +8,7 @@ import demo.pojo.TeacherRegisterRequest;
 import demo.pojo.User;
 import demo.service.RegisterService;
 import demo.exception.UsernameExistsException;
+import demo.service.ActivityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,6 +19,9 @@ public class RegisterServiceImpl implements RegisterService {
     @Autowired
     private RegisterMapper registerMapper;
 
+    @Autowired
+    private ActivityService activityService;
+
     /**
      * Student registration: activates the account immediately upon successful registration
      */
@@ -47,6 +51,9 @@ public class RegisterServiceImpl implements RegisterService {
         student.setUserId(user.getId());
         student.setStudentNo(req.getStudentNo());
         registerMapper.insertStudent(student);
+
+        activityService.record("STUDENT_REGISTERED", user.getId(), null, null,
+                "registered as a student", "New student registration");
     }
 
     /**
@@ -76,5 +83,8 @@ public class RegisterServiceImpl implements RegisterService {
         Teacher teacher = new Teacher();
         teacher.setUserId(user.getId());
         registerMapper.insertTeacher(teacher);
+
+        activityService.record("TEACHER_REGISTERED", user.getId(), null, null,
+                "registered as a teacher", "New teacher registration, awaiting approval");
     }
 }
@@ -0,0 +1,133 @@
+package demo.service.impl;
+
+import demo.mapper.RegistrationDailyMapper;
+import demo.pojo.RegistrationDaily;
+import demo.service.RegistrationTrendService;
+import demo.utils.RegistrationTrendProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Builds the registration trend from user_registration_daily (see RegistrationRollupInterceptor).
+ * Closed days never change, so they are read straight from the rollup; today's bucket is the only
+ * one still moving and is held in memory for a few seconds so dashboard refreshes share one read.
+ */
+@Service
+public class RegistrationTrendServiceImpl implements RegistrationTrendService {
+
+    @Autowired
+    private RegistrationDailyMapper registrationDailyMapper;
+
+    @Autowired
+    private RegistrationTrendProperties properties;
+
+    private volatile TodaySnapshot today;
+
+    @Override
+    public List<Map<String, Object>> getTrend(LocalDate from, LocalDate to, String granularity) {
+        LocalDate currentDay = LocalDate.now();
+        if (to == null) {
+            to = currentDay;
+        }
+        if (from == null) {
+            from = to.minusDays(properties.getDefaultDays() - 1L);
+        }
+        if (from.isAfter(to)) {
+            throw new RuntimeException("'from' must not be after 'to'");
+        }
+        ChronoUnit unit = bucketUnit(granularity);
+        LocalDate firstBucket = bucketStart(from, unit);
+        if (unit.between(firstBucket, to) >= properties.getMaxBuckets()) {
+            throw new RuntimeException("Range too large, at most " + properties.getMaxBuckets() + " buckets per request");
+        }
+
+        List<RegistrationDaily> days = new ArrayList<>();
+        if (!from.isAfter(currentDay.minusDays(1))) {
+            LocalDate closedTo = to.isBefore(currentDay) ? to : currentDay.minusDays(1);
+            days.addAll(registrationDailyMapper.findRange(from, closedTo));
+        }
+        if (!currentDay.isBefore(from) && !currentDay.isAfter(to)) {
+            days.addAll(todayRows(currentDay));
+        }
+
+        // Pre-fill every bucket so gaps render as zero instead of being skipped by the chart
+        Map<LocalDate, Map<String, Object>> buckets = new LinkedHashMap<>();
+        for (LocalDate b = firstBucket; !b.isAfter(to); b = b.plus(1, unit)) {
+            Map<String, Object> bucket = new HashMap<>();
+            bucket.put("date", b.toString());
+            bucket.put("count", 0);
+            bucket.put("students", 0);
+            bucket.put("teachers", 0);
+            buckets.put(b, bucket);
+        }
+        for (RegistrationDaily day : days) {
+            Map<String, Object> bucket = buckets.get(bucketStart(day.getDay(), unit));
+            int n = day.getRegistrations();
+            bucket.merge("count", n, (a, b) -> (Integer) a + (Integer) b);
+            if ("STUDENT".equals(day.getRole())) {
+                bucket.merge("students", n, (a, b) -> (Integer) a + (Integer) b);
+            } else if ("TEACHER".equals(day.getRole())) {
+                bucket.merge("teachers", n, (a, b) -> (Integer) a + (Integer) b);
+            }
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    private List<RegistrationDaily> todayRows(LocalDate currentDay) {
+        TodaySnapshot snapshot = today;
+        long now = System.currentTimeMillis();
+        if (snapshot == null || !snapshot.day.equals(currentDay)
+                || now - snapshot.loadedAt > properties.getTodayCacheSeconds() * 1000L) {
+            snapshot = new TodaySnapshot(currentDay, registrationDailyMapper.findRange(currentDay, currentDay), now);
+            today = snapshot;
+        }
+        return snapshot.rows;
+    }
+
+    private ChronoUnit bucketUnit(String granularity) {
+        switch (granularity == null ? "day" : granularity.toLowerCase(Locale.ROOT)) {
+            case "day":
+                return ChronoUnit.DAYS;
+            case "week":
+                return ChronoUnit.WEEKS;
+            case "month":
+                return ChronoUnit.MONTHS;
+            default:
+                throw new RuntimeException("Unsupported granularity: " + granularity + ", use day, week or month");
+        }
+    }
+
+    private LocalDate bucketStart(LocalDate day, ChronoUnit unit) {
+        if (unit == ChronoUnit.WEEKS) {
+            return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+        if (unit == ChronoUnit.MONTHS) {
+            return day.withDayOfMonth(1);
+        }
+        return day;
+    }
+
+    /** Today's rollup rows and when they were read */
+    private static final class TodaySnapshot {
+        private final LocalDate day;
+        private final List<RegistrationDaily> rows;
+        private final long loadedAt;
+
+        TodaySnapshot(LocalDate day, List<RegistrationDaily> rows, long loadedAt) {
+            this.day = day;
+            this.rows = rows;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package demo.service.impl;
+
+import demo.mapper.ConversationMapper;
+import demo.mapper.GroupMapper;
+import demo.pojo.Conversation;
+import demo.pojo.SearchHit;
+import demo.pojo.SearchSource;
+import demo.service.SearchService;
+import demo.utils.SearchIndexProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lucene index on local disk, ranked with BM25.
+ * Messages are added once their transaction commits and parsed documents whenever DocumentParser
+ * produces text; both become searchable within search.index.refresh-interval-ms. Segments are merged
+ * in the background by Lucene's merge scheduler. Each commit records the highest message ID indexed,
+ * held back below any message that failed to index, and on startup the index catches up with the
+ * conversations table from search.index.catch-up-overlap IDs before that position, since transactions
+ * can commit out of ID order. Failed messages are retried on every commit.
+ */
+@Slf4j
+@Service
+public class SearchServiceImpl implements SearchService {
+
+    private static final String CONVERSATION = "CONVERSATION";
+    private static final String INDEXED_UP_TO = "conversations.indexed_up_to";
+    private static final int MAX_QUERY_TERMS = 32;
+
+    @Autowired
+    private SearchIndexProperties properties;
+
+    @Autowired
+    private ConversationMapper conversationMapper;
+
+    @Autowired
+    private GroupMapper groupMapper;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    /** Highest message ID known to be in the index */
+    private final AtomicLong indexedUpTo = new AtomicLong();
+    /** Messages whose indexing failed, by ID; the committed position stays below the lowest */
+    private final ConcurrentSkipListMap<Long, Conversation> failed = new ConcurrentSkipListMap<>();
+    private volatile boolean caughtUp;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Path dir = Paths.get(properties.getDir()).toAbsolutePath().normalize();
+        Files.createDirectories(dir);
+        directory = FSDirectory.open(dir);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setSimilarity(new BM25Similarity())
+                .setRAMBufferSizeMB(properties.getRamBufferMb());
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, new SearcherFactory() {
+            @Override
+            public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                searcher.setSimilarity(new BM25Similarity());
+                return searcher;
+            }
+        });
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (INDEXED_UP_TO.equals(entry.getKey())) {
+                    indexedUpTo.set(Long.parseLong(entry.getValue()));
+                }
+            }
+        }
+        log.info("Search index at {}, {} documents, messages indexed up to ID {}",
+                dir, writer.getDocStats().numDocs, indexedUpTo.get());
+    }
+
+    /** Index messages saved since the last commit, off the startup thread */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStartup() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Thread thread = new Thread(this::catchUp, "search-catch-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void catchUp() {
+        // Re-indexing a message replaces its document, so the overlap only costs time
+        long start = Math.max(0, indexedUpTo.get() - properties.getCatchUpOverlap());
+        long cursor = start;
+        try {
+            List<Conversation> batch;
+            while (!(batch = conversationMapper.findAfter(cursor, properties.getBackfillBatchSize())).isEmpty()) {
+                for (Conversation msg : batch) {
+                    writer.updateDocument(idTerm(CONVERSATION, msg.getId().toString()), conversationDocument(msg));
+                }
+                cursor = batch.get(batch.size() - 1).getId();
+                indexedUpTo.accumulateAndGet(cursor, Math::max);
+            }
+            caughtUp = true;
+            log.info("Search index caught up with conversations, IDs {} to {}", start, indexedUpTo.get());
+        } catch (Exception e) {
+            log.error("Search index catch-up stopped at message {}", cursor, e);
+        }
+    }
+
+    @Override
+    public void indexConversationMessage(Conversation message) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addConversation(message);
+                }
+            });
+        } else {
+            addConversation(message);
+        }
+    }
+
+    private void addConversation(Conversation message) {
+        // Before catch-up finishes, the recorded position must stay where catch-up is
+        if (caughtUp) {
+            indexedUpTo.accumulateAndGet(message.getId(), Math::max);
+        }
+        try {
+            writer.updateDocument(idTerm(CONVERSATION, message.getId().toString()), conversationDocument(message));
+            failed.remove(message.getId());
+        } catch (Exception e) {
+            failed.put(message.getId(), message);
+            log.warn("Failed to index conversation message {}: {}", message.getId(), e.getMessage());
+        }
+    }
+
+    /** Position safe to record: below the lowest message that is not in the index yet */
+    private long committablePosition() {
+        Long lowestFailed = failed.isEmpty() ? null : failed.firstKey();
+        long position = indexedUpTo.get();
+        return lowestFailed != null ? Math.min(position, lowestFailed - 1) : position;
+    }
+
+    @Override
+    public void indexDocument(SearchSource source, String text) {
+        if (!properties.isEnabled() || text == null || text.isBlank()) {
+            return;
+        }
+        try {
+            Term id = idTerm(source.getType(), source.getKey());
+            String hash = sha256(text);
+            if (hash.equals(storedHash(id))) {
+                return;
+            }
+            Document doc = new Document();
+            doc.add(new StringField("id", id.text(), Field.Store.YES));
+            doc.add(new StringField("type", source.getType(), Field.Store.YES));
+            doc.add(new StoredField("key", source.getKey()));
+            doc.add(new StringField("task_id", String.valueOf(source.getTaskId()), Field.Store.YES));
+            doc.add(new StringField("group_id", String.valueOf(source.getGroupId()), Field.Store.YES));
+            if (source.getTitle() != null) {
+                doc.add(new StoredField("title", source.getTitle()));
+            }
+            doc.add(new StoredField("created_at", System.currentTimeMillis()));
+            doc.add(new StoredField("hash", hash));
+            doc.add(new TextField("text", text, Field.Store.YES));
+            writer.updateDocument(id, doc);
+        } catch (Exception e) {
+            log.warn("Failed to index {} {}: {}", source.getType(), source.getKey(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void deleteByTaskAndGroup(Long taskId, Long groupId) {
+        delete(taskId, groupId);
+    }
+
+    @Override
+    public void deleteByTask(Long taskId) {
+        delete(taskId, null);
+    }
+
+    @Override
+    public void deleteByGroup(Long groupId) {
+        delete(null, groupId);
+    }
+
+    /** Remove documents of a task and/or group; null matches any */
+    private void delete(Long taskId, Long groupId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        failed.values().removeIf(m -> (taskId == null || taskId.equals(m.getTaskId()))
+                && (groupId == null || groupId.equals(m.getGroupId())));
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        if (taskId != null) {
+            query.add(new TermQuery(new Term("task_id", String.valueOf(taskId))), BooleanClause.Occur.FILTER);
+        }
+        if (groupId != null) {
+            query.add(new TermQuery(new Term("group_id", String.valueOf(groupId))), BooleanClause.Occur.FILTER);
+        }
+        try {
+            writer.deleteDocuments(query.build());
+        } catch (IOException e) {
+            log.warn("Failed to remove task {} group {} from the search index: {}", taskId, groupId, e.getMessage());
+        }
+    }
+
+    @Override
+    public List<SearchHit> search(Long teacherId, Long groupId, String query, int limit) {
+        if (!properties.isEnabled()) {
+            throw new RuntimeException("Search is disabled");
+        }
+        List<Long> groupIds = groupMapper.findIdsByTeacherId(teacherId);
+        if (groupId != null) {
+            if (!groupIds.contains(groupId)) {
+                throw new RuntimeException("You do not have permission to search this group");
+            }
+            groupIds = List.of(groupId);
+        }
+        List<String> terms = analyze(query);
+        if (groupIds.isEmpty() || terms.isEmpty()) {
+            return List.of();
+        }
+
+        BooleanQuery.Builder text = new BooleanQuery.Builder();
+        terms.forEach(t -> text.add(new TermQuery(new Term("text", t)), BooleanClause.Occur.SHOULD));
+        // The group filter only restricts matches; it does not take part in scoring
+        Query scoped = new BooleanQuery.Builder()
+                .add(text.build(), BooleanClause.Occur.MUST)
+                .add(new TermInSetQuery("group_id", groupIds.stream()
+                        .map(id -> new BytesRef(id.toString())).toList()), BooleanClause.Occur.FILTER)
+                .build();
+
+        int n = Math.max(1, Math.min(limit, properties.getMaxResults()));
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(scoped, n);
+                StoredFields fields = searcher.storedFields();
+                List<SearchHit> hits = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc sd : top.scoreDocs) {
+                    hits.add(toHit(fields.document(sd.doc), sd.score, terms));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Search failed: " + e.getMessage(), e);
+        }
+    }
+
+    /** Make recently added documents visible to searches */
+    @Scheduled(fixedDelayString = "${search.index.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (searcherManager == null) {
+            return;
+        }
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("Failed to refresh the search index: {}", e.getMessage());
+        }
+    }
+
+    /** Persist the index together with the position reached in the conversations table */
+    @Scheduled(fixedDelayString = "${search.index.commit-interval-ms:30000}")
+    public void commit() {
+        if (writer == null) {
+            return;
+        }
+        failed.values().forEach(this::addConversation);
+        if (!writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            writer.setLiveCommitData(Map.of(INDEXED_UP_TO, String.valueOf(committablePosition())).entrySet());
+            writer.commit();
+        } catch (IOException e) {
+            log.warn("Failed to commit the search index: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private Document conversationDocument(Conversation msg) {
+        Document doc = new Document();
+        doc.add(new StringField("id", CONVERSATION + ":" + msg.getId(), Field.Store.YES));
+        doc.add(new StringField("type", CONVERSATION, Field.Store.YES));
+        doc.add(new StoredField("key", msg.getId().toString()));
+        doc.add(new StringField("task_id", String.valueOf(msg.getTaskId()), Field.Store.YES));
+        doc.add(new StringField("group_id", String.valueOf(msg.getGroupId()), Field.Store.YES));
+        doc.add(new StoredField("title", String.valueOf(msg.getSenderType())));
+        long createdAt = msg.getCreatedAt() != null
+                ? msg.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+        doc.add(new StoredField("created_at", createdAt));
+        doc.add(new TextField("text", msg.getContent() != null ? msg.getContent() : "", Field.Store.YES));
+        return doc;
+    }
+
+    private SearchHit toHit(Document doc, float score, List<String> terms) {
+        SearchHit hit = new SearchHit();
+        hit.setType(doc.get("type"));
+        hit.setKey(doc.get("key"));
+        hit.setTaskId(parseId(doc.get("task_id")));
+        hit.setGroupId(parseId(doc.get("group_id")));
+        hit.setTitle(doc.get("title"));
+        hit.setSnippet(snippet(doc.get("text"), terms));
+        hit.setCreatedAt(doc.getField("created_at").numericValue().longValue());
+        hit.setScore(score);
+        return hit;
+    }
+
+    /** Text around the first occurrence of a query term, or the beginning of the text */
+    private String snippet(String text, List<String> terms) {
+        if (text == null) {
+            return "";
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int at = terms.stream()
+                .mapToInt(lower::indexOf)
+                .filter(i -> i >= 0)
+                .min()
+                .orElse(0);
+        int width = properties.getSnippetChars();
+        int from = Math.max(0, Math.min(at - width / 4, text.length() - width));
+        int to = Math.min(text.length(), from + width);
+        return (from > 0 ? "..." : "") + text.substring(from, to) + (to < text.length() ? "..." : "");
+    }
+
+    /** Tokenize the query with the same analyzer as the indexed text */
+    private List<String> analyze(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        try (TokenStream stream = analyzer.tokenStream("text", query)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken() && terms.size() < MAX_QUERY_TERMS) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to parse search query", e);
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private String storedHash(Term id) throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs top = searcher.search(new TermQuery(id), 1);
+            if (top.scoreDocs.length == 0) {
+                return null;
+            }
+            return searcher.storedFields().document(top.scoreDocs[0].doc).get("hash");
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private static Term idTerm(String type, String key) {
+        return new Term("id", type + ":" + key);
+    }
+
+    private static Long parseId(String value) {
+        return value == null || "null".equals(value) ? null : Long.valueOf(value);
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -12,28 +12,49 @@ import demo.mapper.TaskWeekMapper;
 import demo.mapper.UserGroupMapper;
 import demo.mapper.UserMapper;
 import demo.pojo.Conversation;
+import demo.pojo.ConversationArchive;
 import demo.pojo.Group;
 import demo.pojo.MemberWeeklyGoal;
 import demo.pojo.PageBean;
 import demo.pojo.Task;
 import demo.pojo.TaskAssignment;
 import demo.pojo.User;
+import demo.service.ActivityService;
+import demo.service.SearchService;
 import demo.service.StudentService;
+import demo.utils.ConversationProperties;
+import demo.utils.GroupMembershipCache;
+import demo.utils.TextCompression;
+import demo.utils.UserNameCache;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class StudentServiceImpl implements StudentService {
 
     private static final Logger log = LoggerFactory.getLogger(StudentServiceImpl.class);
 
+    // Rows per multi-row INSERT, keeps a long cycle well under max_allowed_packet
+    private static final int INSERT_CHUNK = 500;
+
     @Autowired
     private UserMapper userMapper;
 
@@ -61,6 +82,31 @@ public class StudentServiceImpl implements StudentService {
     @Autowired
     private MemberWeeklyGoalMapper memberWeeklyGoalMapper;
 
+    @Autowired
+    private GroupMembershipCache membershipCache;
+
+    @Autowired
+    private UserNameCache userNameCache;
+
+    @Autowired
+    private ConversationProperties conversationProperties;
+
+    @Autowired
+    private SearchService searchService;
+
+    private ReentrantLock[] conversationLocks;
+
+    @PostConstruct
+    public void init() {
+        conversationLocks = new ReentrantLock[conversationProperties.getWriteLockStripes()];
+        for (int i = 0; i < conversationLocks.length; i++) {
+            conversationLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @Autowired
+    private ActivityService activityService;
+
     @Override
     public PageBean<User> page(Integer page, Integer pageSize, String name, Long id) {
         PageHelper.startPage(page, pageSize);
@@ -84,6 +130,7 @@ public class StudentServiceImpl implements StudentService {
     @Transactional(rollbackFor = Exception.class)
     public void leaveGroup(Long userId, Long groupId) {
         ugMapper.delete(userId, groupId);
+        activityService.record("MEMBER_LEFT", userId, groupId, null, "left the group", null);
     }
 
     @Override
@@ -94,20 +141,14 @@ public class StudentServiceImpl implements StudentService {
     @Override
     public List<Task> getGroupTasks(Long userId, Long groupId) {
         // Verify the user belongs to the group
-        List<Long> userGroupIds = ugMapper.findGroupIdsByUserId(userId);
-        if (!userGroupIds.contains(groupId)) {
-            throw new RuntimeException("User does not belong to this group");
-        }
+        membershipCache.checkMember(userId, groupId);
         return taskMapper.findByGroupId(groupId);
     }
 
     @Override
     public List<User> getGroupMembers(Long userId, Long groupId) {
         // Verify the user belongs to the group
-        List<Long> userGroupIds = ugMapper.findGroupIdsByUserId(userId);
-        if (!userGroupIds.contains(groupId)) {
-            throw new RuntimeException("User does not belong to this group");
-        }
+        membershipCache.checkMember(userId, groupId);
         return ugMapper.findMembersByGroupId(groupId);
     }
 
@@ -120,14 +161,7 @@ public class StudentServiceImpl implements StudentService {
                 (List<Map<String, Object>>) assignmentData.get("assignments");
 
         // Validate task and permission
-        Task task = taskMapper.findById(taskId);
-        if (task == null) {
-            throw new RuntimeException("Task does not exist");
-        }
-        List<Long> userGroupIds = ugMapper.findGroupIdsByUserId(userId);
-        if (!userGroupIds.contains(task.getGroupId())) {
-            throw new RuntimeException("User does not belong to this group");
-        }
+        membershipCache.checkTaskAccess(userId, taskId);
 
         // Remove existing assignments for the task
         taskAssignmentMapper.deleteByTaskId(taskId);
@@ -143,19 +177,14 @@ public class StudentServiceImpl implements StudentService {
             assignment.setStatus("SUBMITTED");
             taskAssignmentMapper.insert(assignment);
         }
+        activityService.record("ASSIGNMENT_SUBMITTED", userId, null, taskId,
+                "submitted the task assignment", assignments.size() + " member roles");
     }
 
     @Override
     public Map<String, Object> getTaskAssignmentStatus(Long userId, Long taskId) {
         // Validate task and permission
-        Task task = taskMapper.findById(taskId);
-        if (task == null) {
-            throw new RuntimeException("Task does not exist");
-        }
-        List<Long> userGroupIds = ugMapper.findGroupIdsByUserId(userId);
-        if (!userGroupIds.contains(task.getGroupId())) {
-            throw new RuntimeException("User does not belong to this group");
-        }
+        membershipCache.checkTaskAccess(userId, taskId);
 
         List<TaskAssignment> assignments = taskAssignmentMapper.findByTaskId(taskId);
         Map<String, Object> result = new HashMap<>();
@@ -188,14 +217,7 @@ public class StudentServiceImpl implements StudentService {
                 (List<Map<String, Object>>) assignmentData.get("assignments");
 
         // Validate task and permission
-        Task task = taskMapper.findById(taskId);
-        if (task == null) {
-            throw new RuntimeException("Task does not exist");
-        }
-        List<Long> userGroupIds = ugMapper.findGroupIdsByUserId(userId);
-        if (!userGroupIds.contains(task.getGroupId())) {
-            throw new RuntimeException("User does not belong to this group");
-        }
+        membershipCache.checkTaskAccess(userId, taskId);
 
         // Remove existing assignments
         taskAssignmentMapper.deleteByTaskId(taskId);
@@ -211,36 +233,25 @@ public class StudentServiceImpl implements StudentService {
             assignment.setStatus("SUBMITTED");
             taskAssignmentMapper.insert(assignment);
         }
+        activityService.record("ASSIGNMENT_UPDATED", userId, null, taskId,
+                "updated the task assignment", assignments.size() + " member roles");
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void finalizeTaskAssignment(Long userId, Long taskId) {
         // Validate task and permission
-        Task task = taskMapper.findById(taskId);
-        if (task == null) {
-            throw new RuntimeException("Task does not exist");
-        }
-        List<Long> userGroupIds = ugMapper.findGroupIdsByUserId(userId);
-        if (!userGroupIds.contains(task.getGroupId())) {
-            throw new RuntimeException("User does not belong to this group");
-        }
+        membershipCache.checkTaskAccess(userId, taskId);
 
         // Mark all assignments as FINALIZED
         taskAssignmentMapper.updateStatusByTaskId(taskId, "FINALIZED");
+        activityService.record("ASSIGNMENT_FINALIZED", userId, null, taskId, "finalized the task assignment", null);
     }
 
     @Override
     public List<TaskAssignment> getFinalizedAssignments(Long userId, Long taskId) {
         // Validate task and permission
-        Task task = taskMapper.findById(taskId);
-        if (task == null) {
-            throw new RuntimeException("Task does not exist");
-        }
-        List<Long> userGroupIds = ugMapper.findGroupIdsByUserId(userId);
-        if (!userGroupIds.contains(task.getGroupId())) {
-            throw new RuntimeException("User does not belong to this group");
-        }
+        membershipCache.checkTaskAccess(userId, taskId);
         return taskAssignmentMapper.findByTaskIdAndStatus(taskId, "FINALIZED");
     }
 
@@ -251,27 +262,62 @@ public class StudentServiceImpl implements StudentService {
                                         Long senderId,
                                         String senderType,
                                         String content) {
-        // Prevent duplicate messages
-        List<Map<String, Object>> recent = conversationMapper
-                .findRecentByTaskAndGroup(taskId, groupId, 5);
-        for (Map<String, Object> msg : recent) {
-            if (content.equals(msg.get("content")) &&
-                    senderType.equals(msg.get("sender_type")) &&
-                    (senderId == null
-                            ? msg.get("sender_id") == null
-                            : senderId.equals(msg.get("sender_id")))) {
-                log.info("Duplicate message detected, skipping save");
-                return;
-            }
-        }
-        // Save new message
         Conversation msg = new Conversation();
         msg.setTaskId(taskId);
         msg.setGroupId(groupId);
         msg.setSenderId(senderId);
         msg.setSenderType(senderType);
         msg.setContent(content);
-        conversationMapper.insert(msg);
+        msg.setContentHash(sha256(content));
+
+        // Long messages (typically agent reports) go straight to compressed storage
+        ConversationArchive archived = null;
+        if (content.length() >= conversationProperties.getCompressMinChars()) {
+            byte[] body = TextCompression.compress(content);
+            if (body.length < content.length()) {
+                archived = new ConversationArchive(null, TextCompression.CODEC, content.length(), body, null);
+                msg.setContent(null);
+            }
+        }
+
+        // Writes to one conversation are serialized until commit, so two identical sends cannot both
+        // pass the duplicate check; the check itself compares hashes inside the INSERT
+        lockConversation(taskId, groupId);
+        if (conversationMapper.insertIfAbsent(msg, conversationProperties.getDedupWindowSeconds()) == 0) {
+            log.info("Duplicate message detected, skipping save");
+        } else {
+            if (archived != null) {
+                archived.setConversationId(msg.getId());
+                conversationMapper.insertArchive(List.of(archived));
+            }
+            msg.setContent(content);
+            searchService.indexConversationMessage(msg);
+        }
+    }
+
+    /** Hold the (task, group) write lock until the surrounding transaction completes */
+    private void lockConversation(Long taskId, Long groupId) {
+        ReentrantLock lock = conversationLocks[Math.floorMod(Objects.hash(taskId, groupId), conversationLocks.length)];
+        lock.lock();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        } else {
+            lock.unlock();
+        }
+    }
+
+    private static String sha256(String content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     @Override
@@ -279,10 +325,7 @@ public class StudentServiceImpl implements StudentService {
                                                             Long taskId,
                                                             Long groupId) {
         // Validate permission
-        List<Long> userGroupIds = ugMapper.findGroupIdsByUserId(userId);
-        if (!userGroupIds.contains(groupId)) {
-            throw new RuntimeException("User does not belong to this group");
-        }
+        membershipCache.checkMember(userId, groupId);
         List<Map<String, Object>> conv = conversationMapper
                 .findByTaskIdAndGroupId(taskId, groupId);
         log.info("Retrieved {} conversation entries for taskId={}, groupId={}",
@@ -298,6 +341,41 @@ public class StudentServiceImpl implements StudentService {
         return conv;
     }
 
+    @Override
+    public Map<String, Object> getConversationPage(Long userId,
+                                                   Long taskId,
+                                                   Long groupId,
+                                                   Long cursor,
+                                                   int limit) {
+        // Validate permission
+        membershipCache.checkMember(userId, groupId);
+
+        // Fetch one extra row to learn whether an older page exists
+        List<Map<String, Object>> rows = conversationMapper
+                .findPageByTaskAndGroup(taskId, groupId, cursor, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<Map<String, Object>> messages = new ArrayList<>(rows.subList(0, Math.min(limit, rows.size())));
+        Collections.reverse(messages);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("messages", messages);
+        result.put("hasMore", hasMore);
+        result.put("nextCursor", hasMore ? messages.get(0).get("id") : null);
+        return result;
+    }
+
+    @Override
+    public List<Map<String, Object>> getRecentConversation(Long userId,
+                                                           Long taskId,
+                                                           Long groupId,
+                                                           int limit) {
+        membershipCache.checkMember(userId, groupId);
+        List<Map<String, Object>> messages = new ArrayList<>(conversationMapper
+                .findPageByTaskAndGroup(taskId, groupId, null, limit));
+        Collections.reverse(messages);
+        return messages;
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void confirmTaskAssignment(Long userId,
@@ -308,10 +386,7 @@ public class StudentServiceImpl implements StudentService {
         if (task == null) {
             throw new RuntimeException("Task does not exist");
         }
-        List<Long> userGroupIds = ugMapper.findGroupIdsByUserId(userId);
-        if (!userGroupIds.contains(task.getGroupId())) {
-            throw new RuntimeException("User does not belong to this group");
-        }
+        membershipCache.checkMember(userId, task.getGroupId());
         List<TaskAssignment> assignments = taskAssignmentMapper.findByTaskId(taskId);
         if (assignments.isEmpty()) {
             throw new RuntimeException("Task assignments have not been submitted");
@@ -327,14 +402,12 @@ public class StudentServiceImpl implements StudentService {
         task.setStatus("IN_PROGRESS");
         taskMapper.update(task);
 
-        // Finalize assignments
-        assignments.forEach(a -> {
-            a.setStatus("FINALIZED");
-            taskAssignmentMapper.update(a);
-        });
+        // Finalize assignments, generate each member's weekly goals and one meeting per week.
+        // One UPDATE and two multi-row INSERTs regardless of group size and cycle length
+        taskAssignmentMapper.updateStatusByTaskId(taskId, "FINALIZED");
 
-        // Create MemberWeeklyGoal entries
-        assignments.forEach(a -> {
+        List<MemberWeeklyGoal> goals = new ArrayList<>(assignments.size() * cycle);
+        for (TaskAssignment a : assignments) {
             for (int weekNo = 1; weekNo <= cycle; weekNo++) {
                 MemberWeeklyGoal goal = new MemberWeeklyGoal();
                 goal.setTaskId(taskId);
@@ -342,11 +415,14 @@ public class StudentServiceImpl implements StudentService {
                 goal.setWeekNo(weekNo);
                 goal.setGoal("");
                 goal.setStatus("NOTUPLOADED");
-                memberWeeklyGoalMapper.insert(goal);
+                goals.add(goal);
             }
-        });
+        }
+        for (int from = 0; from < goals.size(); from += INSERT_CHUNK) {
+            memberWeeklyGoalMapper.batchInsert(goals.subList(from, Math.min(from + INSERT_CHUNK, goals.size())));
+        }
 
-        // Create Meeting entries
+        List<demo.pojo.Meeting> meetings = new ArrayList<>(cycle);
         for (int i = 1; i <= cycle; i++) {
             demo.pojo.Meeting m = new demo.pojo.Meeting();
             m.setGroupId(task.getGroupId());
@@ -354,44 +430,34 @@ public class StudentServiceImpl implements StudentService {
             m.setMeetingNo(i);
             m.setMeetingDate(java.time.LocalDate.now().plusWeeks(i - 1));
             m.setStatus("UNFINISHED");
-            meetingMapper.insert(m);
+            meetings.add(m);
+        }
+        for (int from = 0; from < meetings.size(); from += INSERT_CHUNK) {
+            meetingMapper.batchInsert(meetings.subList(from, Math.min(from + INSERT_CHUNK, meetings.size())));
         }
 
+        activityService.record("ASSIGNMENT_CONFIRMED", userId, task.getGroupId(), taskId,
+                "started task '" + task.getTitle() + "'", cycle + " weekly cycles planned");
         log.info("Task assignment confirmed for taskId={}, cycle={}", taskId, cycle);
     }
 
     @Override
     public List<demo.pojo.Meeting> getTaskMeetings(Long userId, Long taskId) {
         // Validate task and permission
-        Task task = taskMapper.findById(taskId);
-        if (task == null) {
-            throw new RuntimeException("Task does not exist");
-        }
-        List<Long> userGroupIds = ugMapper.findGroupIdsByUserId(userId);
-        if (!userGroupIds.contains(task.getGroupId())) {
-            throw new RuntimeException("User does not belong to this group");
-        }
+        membershipCache.checkTaskAccess(userId, taskId);
         return meetingMapper.findByTaskId(taskId);
     }
 
     @Override
     public List<MemberWeeklyGoal> getStudentWeeklyGoals(Long userId, Long taskId) {
         // Validate task and permission
-        Task task = taskMapper.findById(taskId);
-        if (task == null) {
-            throw new RuntimeException("Task does not exist");
-        }
-        List<Long> userGroupIds = ugMapper.findGroupIdsByUserId(userId);
-        if (!userGroupIds.contains(task.getGroupId())) {
-            throw new RuntimeException("User does not belong to this group");
-        }
+        membershipCache.checkTaskAccess(userId, taskId);
         return memberWeeklyGoalMapper.findByTaskAndStudent(taskId, userId);
     }
 
     @Override
     public String getUserNameById(Long userId) {
-        User user = userMapper.findById(userId);
-        return user != null ? user.getName() : "Unknown User";
+        return userNameCache.getName(userId);
     }
 
     @Override
@@ -403,6 +469,8 @@ public class StudentServiceImpl implements StudentService {
         weeklyGoal.setGoal(goal);
         weeklyGoal.setStatus("PROCESSING");
         memberWeeklyGoalMapper.update(weeklyGoal);
+        activityService.record("GOAL_UPDATED", weeklyGoal.getStudentId(), null, weeklyGoal.getTaskId(),
+                "set the goal for week " + weeklyGoal.getWeekNo(), null);
     }
 
     @Override
@@ -429,5 +497,7 @@ public class StudentServiceImpl implements StudentService {
         if (!found) {
             memberWeeklyGoalMapper.insert(goal);
         }
+        activityService.record("GOAL_UPDATED", goal.getStudentId(), null, goal.getTaskId(),
+                "set the goal for week " + goal.getWeekNo(), null);
     }
 }
@@ -3,6 +3,7 @@ package demo.service.impl;
 import demo.pojo.Task;
 import demo.mapper.TaskMapper;
 import demo.service.TaskService;
+import demo.service.ActivityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.List;
@@ -12,9 +13,14 @@ public class TaskServiceImpl implements TaskService {
     @Autowired
     private TaskMapper taskMapper;
 
+    @Autowired
+    private ActivityService activityService;
+
     @Override
     public void addTask(Task task) {
         taskMapper.insert(task);
+        activityService.record("TASK_CREATED", null, task.getGroupId(), task.getId(),
+                "Task '" + task.getTitle() + "' created", task.getDescription());
     }
 
     @Override
@@ -12,20 +12,19 @@ import demo.pojo.Group;
 import demo.pojo.PageBean;
 import demo.pojo.User;
 import demo.pojo.Task;
+import demo.pojo.TeacherStats;
+import demo.service.ActivityService;
 import demo.service.TeacherService;
+import demo.service.TeacherStatsService;
 import demo.utils.JwtUtils;
+import demo.utils.SpreadsheetRowReader;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -56,55 +55,41 @@ public class TeacherServiceImpl implements TeacherService {
     @Autowired
     private TaskMapper taskMapper;
 
+    @Autowired
+    private TeacherStatsService teacherStatsService;
+
+    @Autowired
+    private ActivityService activityService;
+
     @Override
-    public Map<String, Object> getDashboardStats() {
+    public Map<String, Object> getDashboardStats(Long teacherId) {
+        // Materialized per teacher and refreshed on writes, so this is a primary-key read
+        TeacherStats ts = teacherStatsService.getStats(teacherId);
         Map<String, Object> stats = new HashMap<>();
-        
-        // Get total number of students
-        Long totalStudents = userMapper.countByRole("STUDENT");
-        stats.put("totalStudents", totalStudents);
-        
-        // Get total number of groups
-        Long totalGroups = groupMapper.count();
-        stats.put("totalGroups", totalGroups);
-        
-        // Simulated active tasks count
-        stats.put("activeTasks", 5);
-        
-        // Simulated completed tasks count
-        stats.put("completedTasks", 12);
-        
+        stats.put("totalStudents", ts.getTotalStudents());
+        stats.put("totalGroups", ts.getTotalGroups());
+        stats.put("activeTasks", ts.getTasksInitializing() + ts.getTasksInProgress());
+        stats.put("completedTasks", ts.getTasksCompleted());
+
+        Map<String, Object> tasks = new HashMap<>();
+        tasks.put("INITIALIZING", ts.getTasksInitializing());
+        tasks.put("IN_PROGRESS", ts.getTasksInProgress());
+        tasks.put("COMPLETED", ts.getTasksCompleted());
+        stats.put("tasksByStatus", tasks);
+
+        stats.put("totalMeetings", ts.getMeetingsTotal());
+        stats.put("completedMeetings", ts.getMeetingsCompleted());
+
+        Map<String, Object> goals = new HashMap<>();
+        goals.put("NOTUPLOADED", ts.getGoalsNotUploaded());
+        goals.put("PROCESSING", ts.getGoalsProcessing());
+        goals.put("FINISHED", ts.getGoalsFinished());
+        stats.put("goalsByStatus", goals);
+
+        stats.put("refreshedAt", ts.getRefreshedAt());
         return stats;
     }
 
-    @Override
-    public List<Map<String, Object>> getRecentActivities(Integer page, Integer pageSize) {
-        List<Map<String, Object>> activities = new ArrayList<>();
-        
-        // Simulate recent activity data
-        String[] activityTypes = {"student_joined", "assignment_submitted", "group_created", "task_completed"};
-        String[] activityContents = {
-                "A new student has joined your group",
-                "A group assignment was submitted",
-                "A new group was created",
-                "A task was completed"
-        };
-        
-        int offset = (page - 1) * pageSize;
-        for (int i = 0; i < pageSize && i < 10; i++) {
-            Map<String, Object> activity = new HashMap<>();
-            activity.put("id", offset + i + 1);
-            activity.put("type", activityTypes[i % activityTypes.length]);
-            activity.put("content", activityContents[i % activityContents.length]);
-            LocalDateTime time = LocalDateTime.now().minusHours(i + 1);
-            activity.put("time", time.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-            activity.put("timestamp", time.format(DateTimeFormatter.ofPattern("MM-dd HH:mm")));
-            activities.add(activity);
-        }
-        
-        return activities;
-    }
-
     @Override
     public PageBean<Map<String, Object>> getTasks(Integer page, Integer pageSize, String status) {
         // Simulate paginated task data
@@ -189,6 +174,8 @@ public class TeacherServiceImpl implements TeacherService {
         if (group.getMembers() != null && !group.getMembers().isEmpty()) {
             userGroupMapper.batchInsert(group.getId(), group.getMembers());
         }
+        activityService.record("GROUP_CREATED", group.getTeacherId(), group.getId(), null,
+                "created group '" + group.getName() + "'", group.getDescription());
         
         return group;
     }
@@ -199,174 +186,150 @@ public class TeacherServiceImpl implements TeacherService {
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public Map<String, Object> batchImportGroups(MultipartFile file, Long teacherId) throws Exception {
-        Map<String, Object> result = new HashMap<>();
-        List<String> errors = new ArrayList<>();
+    public int importGroupRows(List<SpreadsheetRowReader.SheetRow> rows, Long teacherId, List<String> errors) {
         int successCount = 0;
+        for (SpreadsheetRowReader.SheetRow row : rows) {
+            if (row.isBlank()) continue;
+            int rowNo = row.getRowNumber();
+
+            try {
+                String name      = row.get(0);
+                String desc      = row.get(1);
+                String membersStr = row.get(2);
+
+                if (isEmpty(name)) {
+                    errors.add("Row " + rowNo + ": group name is required");
+                    continue;
+                }
 
-        try (InputStream is = file.getInputStream()) {
-            Workbook workbook = createWorkbook(is, file.getOriginalFilename());
-            Sheet sheet = workbook.getSheetAt(0);
-
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-
-                try {
-                    String name      = getCellValueAsString(row.getCell(0));
-                    String desc      = getCellValueAsString(row.getCell(1));
-                    String membersStr = getCellValueAsString(row.getCell(2));
-
-                    if (isEmpty(name)) {
-                        errors.add("Row " + (i + 1) + ": group name is required");
-                        continue;
-                    }
-
-                    if (groupMapper.findByName(name) != null) {
-                        errors.add("Row " + (i + 1) + ": group '" + name + "' already exists");
-                        continue;
-                    }
-
-                    Group group = new Group();
-                    group.setName(name);
-                    group.setDescription(desc);
-                    group.setTeacherId(teacherId);
-                    group.setCreatedAt(LocalDateTime.now());
-                    group.setUpdatedAt(LocalDateTime.now());
-                    groupMapper.insert(group);
-
-                    List<Long> memberIds = parseMembers(membersStr);
-                    List<Long> valid = new ArrayList<>();
-                    List<String> invalid = new ArrayList<>();
-
-                    for (Long sid : memberIds) {
-                        User u = userMapper.findById(sid);
-                        if (u != null && "STUDENT".equals(u.getRole())) {
-                            valid.add(sid);
-                        } else {
-                            invalid.add(String.valueOf(sid));
-                        }
-                    }
+                if (groupMapper.findByName(name) != null) {
+                    errors.add("Row " + rowNo + ": group '" + name + "' already exists");
+                    continue;
+                }
 
-                    if (!invalid.isEmpty()) {
-                        errors.add("Row " + (i + 1) + ": invalid student IDs: " +
-                                String.join(", ", invalid));
+                Group group = new Group();
+                group.setName(name);
+                group.setDescription(desc);
+                group.setTeacherId(teacherId);
+                group.setCreatedAt(LocalDateTime.now());
+                group.setUpdatedAt(LocalDateTime.now());
+                groupMapper.insert(group);
+
+                List<Long> memberIds = parseMembers(membersStr);
+                List<Long> valid = new ArrayList<>();
+                List<String> invalid = new ArrayList<>();
+
+                for (Long sid : memberIds) {
+                    User u = userMapper.findById(sid);
+                    if (u != null && "STUDENT".equals(u.getRole())) {
+                        valid.add(sid);
+                    } else {
+                        invalid.add(String.valueOf(sid));
                     }
+                }
 
-                    if (!valid.isEmpty()) {
-                        userGroupMapper.batchInsert(group.getId(), valid);
-                    } else if (!memberIds.isEmpty()) {
-                        groupMapper.deleteById(group.getId());
-                        errors.add("Row " + (i + 1) + ": no valid student IDs, group creation cancelled");
-                        continue;
-                    }
+                if (!invalid.isEmpty()) {
+                    errors.add("Row " + rowNo + ": invalid student IDs: " +
+                            String.join(", ", invalid));
+                }
 
-                    successCount++;
-                } catch (Exception e) {
-                    errors.add("Row " + (i + 1) + ": import failed – " + e.getMessage());
-                    log.error("Import failed at row {}", i + 1, e);
+                if (!valid.isEmpty()) {
+                    userGroupMapper.batchInsert(group.getId(), valid);
+                } else if (!memberIds.isEmpty()) {
+                    groupMapper.deleteById(group.getId());
+                    errors.add("Row " + rowNo + ": no valid student IDs, group creation cancelled");
+                    continue;
                 }
+
+                successCount++;
+            } catch (Exception e) {
+                errors.add("Row " + rowNo + ": import failed – " + e.getMessage());
+                log.error("Import failed at row {}", rowNo, e);
             }
         }
-
-        result.put("success", successCount);
-        result.put("errors", errors);
-        return result;
+        return successCount;
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public Map<String, Object> batchImportTasks(MultipartFile file, Long teacherId) throws Exception {
-        Map<String, Object> result = new HashMap<>();
-        List<String> errors = new ArrayList<>();
+    public int importTaskRows(List<SpreadsheetRowReader.SheetRow> rows, Long teacherId, List<String> errors) {
         int successCount = 0;
+        for (SpreadsheetRowReader.SheetRow row : rows) {
+            if (row.isBlank()) continue;
+            int rowNo = row.getRowNumber();
+
+            try {
+                String title      = row.get(0);
+                String desc       = row.get(1);
+                String groupIdStr = row.get(2);
+                String dueDateStr = row.get(3);
+                String cycleStr   = row.get(4);
+                String fileUrl    = row.get(5);
+
+                if (isEmpty(title)) {
+                    errors.add("Row " + rowNo + ": task title is required");
+                    continue;
+                }
+                if (isEmpty(groupIdStr)) {
+                    errors.add("Row " + rowNo + ": group ID is required");
+                    continue;
+                }
 
-        try (InputStream is = file.getInputStream()) {
-            Workbook workbook = createWorkbook(is, file.getOriginalFilename());
-            Sheet sheet = workbook.getSheetAt(0);
+                Long groupId;
+                try {
+                    groupId = Long.valueOf(groupIdStr);
+                } catch (NumberFormatException e) {
+                    errors.add("Row " + rowNo + ": invalid group ID format");
+                    continue;
+                }
 
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
+                Group group = groupMapper.findById(groupId);
+                if (group == null) {
+                    errors.add("Row " + rowNo + ": group ID " + groupId + " not found");
+                    continue;
+                }
+                if (!group.getTeacherId().equals(teacherId)) {
+                    errors.add("Row " + rowNo + ": group ID " + groupId +
+                            " does not belong to current teacher");
+                    continue;
+                }
 
-                try {
-                    String title      = getCellValueAsString(row.getCell(0));
-                    String desc       = getCellValueAsString(row.getCell(1));
-                    String groupIdStr = getCellValueAsString(row.getCell(2));
-                    String dueDateStr = getCellValueAsString(row.getCell(3));
-                    String cycleStr   = getCellValueAsString(row.getCell(4));
-                    String fileUrl    = getCellValueAsString(row.getCell(5));
-
-                    if (isEmpty(title)) {
-                        errors.add("Row " + (i + 1) + ": task title is required");
-                        continue;
-                    }
-                    if (isEmpty(groupIdStr)) {
-                        errors.add("Row " + (i + 1) + ": group ID is required");
-                        continue;
-                    }
+                Task task = new Task();
+                task.setTitle(title);
+                task.setDescription(desc);
+                task.setGroupId(groupId);
+                task.setStatus("INITIALIZING");
+                task.setFileUrl(fileUrl);
 
-                    Long groupId;
+                if (!isEmpty(dueDateStr)) {
                     try {
-                        groupId = Long.valueOf(groupIdStr);
-                    } catch (NumberFormatException e) {
-                        errors.add("Row " + (i + 1) + ": invalid group ID format");
+                        task.setDueDate(LocalDate.parse(dueDateStr));
+                    } catch (Exception e) {
+                        errors.add("Row " + rowNo + ": invalid due date format (YYYY-MM-DD)");
                         continue;
                     }
+                }
 
-                    Group group = groupMapper.findById(groupId);
-                    if (group == null) {
-                        errors.add("Row " + (i + 1) + ": group ID " + groupId + " not found");
-                        continue;
-                    }
-                    if (!group.getTeacherId().equals(teacherId)) {
-                        errors.add("Row " + (i + 1) + ": group ID " + groupId +
-                                " does not belong to current teacher");
+                if (!isEmpty(cycleStr)) {
+                    try {
+                        task.setCycle(Integer.parseInt(cycleStr));
+                    } catch (NumberFormatException e) {
+                        errors.add("Row " + rowNo + ": invalid cycle format");
                         continue;
                     }
-
-                    Task task = new Task();
-                    task.setTitle(title);
-                    task.setDescription(desc);
-                    task.setGroupId(groupId);
-                    task.setStatus("INITIALIZING");
-                    task.setFileUrl(fileUrl);
-
-                    if (!isEmpty(dueDateStr)) {
-                        try {
-                            task.setDueDate(LocalDate.parse(dueDateStr));
-                        } catch (Exception e) {
-                            errors.add("Row " + (i + 1) + ": invalid due date format (YYYY-MM-DD)");
-                            continue;
-                        }
-                    }
-
-                    if (!isEmpty(cycleStr)) {
-                        try {
-                            task.setCycle(Integer.parseInt(cycleStr));
-                        } catch (NumberFormatException e) {
-                            errors.add("Row " + (i + 1) + ": invalid cycle format");
-                            continue;
-                        }
-                    } else {
-                        task.setCycle(1);
-                    }
-
-                    task.setCreatedAt(LocalDateTime.now());
-                    task.setUpdatedAt(LocalDateTime.now());
-                    taskMapper.insert(task);
-                    successCount++;
-                } catch (Exception e) {
-                    errors.add("Row " + (i + 1) + ": import failed – " + e.getMessage());
-                    log.error("Import failed at row {}", i + 1, e);
+                } else {
+                    task.setCycle(1);
                 }
+
+                task.setCreatedAt(LocalDateTime.now());
+                task.setUpdatedAt(LocalDateTime.now());
+                taskMapper.insert(task);
+                successCount++;
+            } catch (Exception e) {
+                errors.add("Row " + rowNo + ": import failed – " + e.getMessage());
+                log.error("Import failed at row {}", rowNo, e);
             }
         }
-
-        result.put("success", successCount);
-        result.put("errors", errors);
-        return result;
+        return successCount;
     }
 
     // Helper to parse member ID string "1,2,3"
@@ -388,44 +351,6 @@ public class TeacherServiceImpl implements TeacherService {
         return ids;
     }
 
-    // Helper to create a Workbook from an InputStream
-    private Workbook createWorkbook(InputStream is, String filename) throws Exception {
-        if (filename.endsWith(".xlsx")) {
-            return new XSSFWorkbook(is);
-        }
-        throw new IllegalArgumentException("Unsupported file format, please use .xlsx");
-    }
-
-    // Helper to get cell value as String
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) {
-            return "";
-        }
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getLocalDateTimeCellValue().toString();
-                }
-                return String.valueOf((long) cell.getNumericCellValue());
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                try {
-                    return cell.getStringCellValue();
-                } catch (Exception e) {
-                    try {
-                        return String.valueOf(cell.getNumericCellValue());
-                    } catch (Exception ex) {
-                        return "";
-                    }
-                }
-            default:
-                return "";
-        }
-    }
-
     // Helper to check if a string is empty
     private boolean isEmpty(String str) {
         return str == null || str.trim().isEmpty();
@@ -0,0 +1,84 @@
+package demo.service.impl;
+
+import demo.mapper.TeacherStatsMapper;
+import demo.pojo.TeacherStats;
+import demo.service.TeacherStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps teacher_stats current.
+ * Writes mark the affected teachers dirty (see TeacherStatsInterceptor); a short scheduled pass
+ * recomputes only those rows, so a burst of writes for one teacher costs one refresh.
+ * A slower reconciliation pass recomputes every teacher to repair anything a write path missed.
+ */
+@Slf4j
+@Service
+public class TeacherStatsServiceImpl implements TeacherStatsService {
+
+    @Autowired
+    private TeacherStatsMapper teacherStatsMapper;
+
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public TeacherStats getStats(Long teacherId) {
+        TeacherStats stats = teacherStatsMapper.findByTeacherId(teacherId);
+        if (stats == null) {
+            teacherStatsMapper.refresh(teacherId);
+            stats = teacherStatsMapper.findByTeacherId(teacherId);
+        }
+        return stats;
+    }
+
+    @Override
+    public void markDirty(Collection<Long> teacherIds) {
+        teacherIds.stream().filter(Objects::nonNull).forEach(dirty::add);
+    }
+
+    /** Recompute rows of teachers whose data changed since the last pass */
+    @Scheduled(fixedDelayString = "${teacher.stats.refresh-interval-ms:2000}")
+    public void refreshDirty() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> batch = new ArrayList<>(dirty);
+        dirty.removeAll(batch);
+        for (Long teacherId : batch) {
+            try {
+                teacherStatsMapper.refresh(teacherId);
+            } catch (Exception e) {
+                // Keep it dirty so the next pass tries again
+                dirty.add(teacherId);
+                log.warn("Failed to refresh stats of teacher {}: {}", teacherId, e.getMessage());
+            }
+        }
+        log.debug("Refreshed stats of {} teachers", batch.size());
+    }
+
+    /** Recompute every teacher's row */
+    @Scheduled(initialDelayString = "${teacher.stats.reconcile-interval-ms:900000}",
+            fixedDelayString = "${teacher.stats.reconcile-interval-ms:900000}")
+    public void reconcile() {
+        List<Long> teacherIds = teacherStatsMapper.findAllTeacherIds();
+        int failed = 0;
+        for (Long teacherId : teacherIds) {
+            try {
+                teacherStatsMapper.refresh(teacherId);
+            } catch (Exception e) {
+                failed++;
+                log.warn("Failed to reconcile stats of teacher {}: {}", teacherId, e.getMessage());
+            }
+        }
+        log.info("Reconciled stats of {} teachers, {} failed", teacherIds.size(), failed);
+    }
+}
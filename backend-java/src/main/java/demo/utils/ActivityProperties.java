@@ -0,0 +1,17 @@
+package demo.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "activity")
+public class ActivityProperties {
+    // Threads writing events to the log
+    private int poolSize = 2;
+    // Events waiting to be written; beyond this new events are dropped rather than blocking the caller
+    private int queueCapacity = 1000;
+    // Upper bound of events returned per feed page
+    private int maxPageSize = 100;
+}
@@ -0,0 +1,20 @@
+package demo.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "agent.context")
+public class AgentContextProperties {
+    // Most recent messages sent to the agent with each chat turn
+    private int maxMessages = 40;
+    // Token budget for that history, estimated at four characters per token
+    private int maxTokens = 6000;
+    // Threads fetching the independent parts of an agent request (task, assignments, goals, documents)
+    private int poolSize = 8;
+    private int queueCapacity = 100;
+    // Overall deadline for gathering those parts before the request is given up
+    private long gatherTimeoutMs = 60000;
+}
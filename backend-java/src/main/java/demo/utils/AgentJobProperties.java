@@ -0,0 +1,20 @@
+package demo.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "agent.jobs")
+public class AgentJobProperties {
+    // Worker threads running agent jobs
+    private int poolSize = 4;
+    // Jobs queued in memory before new ones wait in the table for the sweeper
+    private int queueCapacity = 100;
+    private int maxAttempts = 3;
+    // RUNNING jobs older than this are considered abandoned and re-queued
+    private int staleAfterSeconds = 900;
+    // How long a client subscription stays open waiting for completion
+    private long subscribeTimeoutMs = 120000;
+}
@@ -0,0 +1,132 @@
+package demo.utils;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache of Python backend answers keyed by endpoint and a canonical hash of the request body.
+ * The body is serialized with sorted keys before hashing, so the same inputs in a different map order
+ * hit the same entry. Concurrent identical requests share one upstream call: the first caller
+ * runs it and the others wait on its result. Only answers accepted by the caller's predicate are kept.
+ */
+@Slf4j
+@Component
+public class AgentResponseCache {
+
+    @Autowired
+    private AgentResponseCacheProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private AsyncCache<String, Map<String, Object>> responses;
+
+    @PostConstruct
+    public void init() {
+        responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfter(new Expiry<String, Map<String, Object>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Map<String, Object> value, long currentTime) {
+                        return TimeUnit.SECONDS.toNanos(ttlSeconds(key));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Map<String, Object> value, long currentTime,
+                                                  long currentDuration) {
+                        return TimeUnit.SECONDS.toNanos(ttlSeconds(key));
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Map<String, Object> value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "agent.responses");
+    }
+
+    /**
+     * Answer for a request, calling the backend only when no equal request is cached or in flight
+     *
+     * @param endpoint  endpoint name, selects the TTL (agent.response-cache.ttl-seconds.&lt;endpoint&gt;)
+     * @param request   request body sent upstream
+     * @param bypass    skip the lookup and replace any cached answer with a fresh one
+     * @param call      performs the upstream call
+     * @param cacheable whether an answer may be kept, e.g. only successful ones
+     */
+    public Map<String, Object> get(String endpoint, Object request, boolean bypass,
+                                   Supplier<Map<String, Object>> call, Predicate<Map<String, Object>> cacheable) {
+        if (!properties.isEnabled()) {
+            return call.get();
+        }
+        String key = endpoint + ":" + canonicalHash(request);
+
+        CompletableFuture<Map<String, Object>> created = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> shared;
+        if (bypass) {
+            responses.put(key, created);
+            shared = null;
+        } else {
+            shared = responses.asMap().putIfAbsent(key, created);
+        }
+        if (shared != null) {
+            log.info("Agent response cache hit for {}", endpoint);
+            try {
+                return shared.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            Map<String, Object> response = call.get();
+            created.complete(response);
+            if (response == null || !cacheable.test(response)) {
+                responses.asMap().remove(key, created);
+            }
+            return response;
+        } catch (RuntimeException e) {
+            // A failed future is dropped by the cache; waiting callers see the same error
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private long ttlSeconds(String key) {
+        String endpoint = key.substring(0, key.indexOf(':'));
+        return properties.getTtlSeconds().getOrDefault(endpoint, properties.getDefaultTtlSeconds());
+    }
+
+    private static String canonicalHash(Object request) {
+        String json = JSON.toJSONString(request, SerializerFeature.MapSortField, SerializerFeature.SortField);
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(json.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package demo.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "agent.response-cache")
+public class AgentResponseCacheProperties {
+    private boolean enabled = true;
+    private long maxSize = 1000;
+    // Lifetime of an answer for endpoints without their own entry below
+    private long defaultTtlSeconds = 300;
+    // Lifetime per endpoint name, e.g. confirmation-advice, weekly-goal
+    private Map<String, Long> ttlSeconds = new HashMap<>();
+}
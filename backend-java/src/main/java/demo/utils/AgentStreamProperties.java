@@ -0,0 +1,17 @@
+package demo.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "agent.stream")
+public class AgentStreamProperties {
+    // Threads relaying streamed agent replies; each open stream holds one
+    private int poolSize = 16;
+    // Streams waiting for a relay thread before new ones are rejected
+    private int queueCapacity = 50;
+    // How long a browser stream may stay open
+    private long timeoutMs = 180000;
+}
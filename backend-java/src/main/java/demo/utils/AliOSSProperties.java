@@ -12,4 +12,18 @@ public class AliOSSProperties {
     private String accessKeyId;
     private String accessKeySecret;
     private String bucketName;
+
+    // Connection pool and timeouts of the shared client
+    private int maxConnections = 128;
+    private int connectionTimeoutMs = 10000;
+    private int socketTimeoutMs = 60000;
+    private long idleConnectionTimeMs = 60000;
+    private int maxErrorRetry = 3;
+
+    // Files larger than this are uploaded in parts
+    private long multipartThreshold = 5L * 1024 * 1024;
+    // Size of each part (OSS requires at least 100KB for all but the last part)
+    private long partSize = 1024L * 1024;
+    // Threads shared by all multipart uploads for sending parts in parallel
+    private int uploadThreads = 8;
 }
@@ -1,52 +1,61 @@
 package demo.utils;
 
 import com.aliyun.oss.OSS;
-import com.aliyun.oss.OSSClientBuilder;
 import com.aliyun.oss.OSSException;
 import com.aliyun.oss.ClientException;
+import com.aliyun.oss.model.AbortMultipartUploadRequest;
+import com.aliyun.oss.model.CompleteMultipartUploadRequest;
 import com.aliyun.oss.model.GeneratePresignedUrlRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadRequest;
+import com.aliyun.oss.model.PartETag;
+import com.aliyun.oss.model.UploadPartRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.UUID;
 import java.util.Date;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Aliyun OSS utility class
  */
 @Slf4j
 @Component
-public class AliOSSUtils {
+@ConditionalOnProperty(name = "storage.backend", havingValue = "oss", matchIfMissing = true)
+public class AliOSSUtils implements FileStorage {
 
     @Autowired
     private AliOSSProperties aliOSSProperties;
 
+    @Autowired
+    private ObjectProvider<OSS> ossClientProvider;
+
+    @Autowired
+    @Qualifier("ossUploadExecutor")
+    private ThreadPoolTaskExecutor ossUploadExecutor;
+
     /**
-     * Upload a file to OSS
+     * Upload a file to OSS, in parallel parts when it is above the multipart threshold
      */
+    @Override
     public String upload(MultipartFile file) throws IOException {
-        OSS ossClient = null;
-        InputStream inputStream = null;
-
         try {
-            // Retrieve OSS configuration
-            String endpoint = aliOSSProperties.getEndpoint();
-            String accessKeyId = aliOSSProperties.getAccessKeyId();
-            String accessKeySecret = aliOSSProperties.getAccessKeySecret();
             String bucketName = aliOSSProperties.getBucketName();
-
-            log.info("OSS config - endpoint: {}, bucketName: {}", endpoint, bucketName);
-
-            // Validate configuration
-            if (endpoint == null || accessKeyId == null || accessKeySecret == null || bucketName == null) {
-                throw new IllegalArgumentException("Incomplete OSS configuration");
-            }
-
-            inputStream = file.getInputStream();
+            OSS ossClient = ossClientProvider.getObject();
 
             String originalFilename = file.getOriginalFilename();
             if (originalFilename == null || originalFilename.trim().isEmpty()) {
@@ -63,23 +72,19 @@ public class AliOSSUtils {
             // Generate a unique object name to avoid collisions
             String objectName = UUID.randomUUID().toString() + extension;
 
-            String fullEndpoint = endpoint.startsWith("http") ? endpoint : "https://" + endpoint;
-            ossClient = new OSSClientBuilder().build(fullEndpoint, accessKeyId, accessKeySecret);
-
-            log.info("Uploading file to OSS, objectName: {}", objectName);
-            ossClient.putObject(bucketName, objectName, inputStream);
-            log.info("File uploaded to OSS successfully");
-
-            // Construct access URL
-            String url;
-            if (endpoint.startsWith("http")) {
-                String cleanEndpoint = endpoint.replaceFirst("^https?://", "");
-                url = String.format("https://%s.%s/%s", bucketName, cleanEndpoint, objectName);
+            if (file.getSize() > aliOSSProperties.getMultipartThreshold()) {
+                log.info("Uploading file to OSS in parts, objectName: {}, size: {} bytes", objectName, file.getSize());
+                multipartUpload(ossClient, bucketName, objectName, file);
             } else {
-                url = String.format("https://%s.%s/%s", bucketName, endpoint, objectName);
+                log.info("Uploading file to OSS, objectName: {}", objectName);
+                try (InputStream inputStream = file.getInputStream()) {
+                    ossClient.putObject(bucketName, objectName, inputStream);
+                }
             }
-            log.info("Generated file URL: {}", url);
+            log.info("File uploaded to OSS successfully");
 
+            String url = buildObjectUrl(objectName);
+            log.info("Generated file URL: {}", url);
             return url;
 
         } catch (OSSException e) {
@@ -91,41 +96,79 @@ public class AliOSSUtils {
         } catch (Exception e) {
             log.error("File upload error: {}", e.getMessage(), e);
             throw new IOException("File upload failed: " + e.getMessage(), e);
-        } finally {
-            if (inputStream != null) {
-                try {
-                    inputStream.close();
-                } catch (IOException e) {
-                    log.warn("Error closing input stream: {}", e.getMessage());
-                }
+        }
+    }
+
+    /**
+     * Send the file as parts on the upload pool; each part reads its own slice of the file.
+     * A failed part aborts the whole upload so no orphaned parts are left in the bucket.
+     */
+    private void multipartUpload(OSS ossClient, String bucketName, String objectName, MultipartFile file)
+            throws IOException, InterruptedException {
+        String uploadId = ossClient.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(bucketName, objectName)).getUploadId();
+
+        long size = file.getSize();
+        long partSize = aliOSSProperties.getPartSize();
+        int partCount = (int) ((size + partSize - 1) / partSize);
+        AtomicInteger partsDone = new AtomicInteger();
+        AtomicLong bytesDone = new AtomicLong();
+
+        List<Future<PartETag>> futures = new ArrayList<>(partCount);
+        try {
+            for (int i = 0; i < partCount; i++) {
+                int partNumber = i + 1;
+                long offset = i * partSize;
+                long length = Math.min(partSize, size - offset);
+                futures.add(ossUploadExecutor.submit(() -> {
+                    try (InputStream in = file.getInputStream()) {
+                        in.skipNBytes(offset);
+                        UploadPartRequest request = new UploadPartRequest(
+                                bucketName, objectName, uploadId, partNumber, in, length);
+                        PartETag partETag = ossClient.uploadPart(request).getPartETag();
+                        log.info("Multipart upload {}: part {}/{} done, {}%", objectName,
+                                partsDone.incrementAndGet(), partCount,
+                                bytesDone.addAndGet(length) * 100 / size);
+                        return partETag;
+                    }
+                }));
             }
-            if (ossClient != null) {
-                try {
-                    ossClient.shutdown();
-                } catch (Exception e) {
-                    log.warn("Error closing OSS client: {}", e.getMessage());
-                }
+
+            List<PartETag> partETags = new ArrayList<>(partCount);
+            for (Future<PartETag> future : futures) {
+                partETags.add(future.get());
             }
+            partETags.sort(Comparator.comparingInt(PartETag::getPartNumber));
+            ossClient.completeMultipartUpload(
+                    new CompleteMultipartUploadRequest(bucketName, objectName, uploadId, partETags));
+
+        } catch (ExecutionException | InterruptedException | RuntimeException e) {
+            futures.forEach(f -> f.cancel(true));
+            try {
+                ossClient.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, objectName, uploadId));
+            } catch (Exception abortError) {
+                log.warn("Error aborting multipart upload {}: {}", uploadId, abortError.getMessage());
+            }
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                throw (InterruptedException) e;
+            }
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Multipart upload failed: " + cause.getMessage(), cause);
         }
     }
 
     /**
      * Generate a presigned URL valid for 24 hours
      */
+    @Override
     public String generatePresignedUrl(String objectName) {
-        OSS ossClient = null;
         try {
-            String endpoint = aliOSSProperties.getEndpoint();
-            String accessKeyId = aliOSSProperties.getAccessKeyId();
-            String accessKeySecret = aliOSSProperties.getAccessKeySecret();
             String bucketName = aliOSSProperties.getBucketName();
-
-            if (endpoint == null || accessKeyId == null || accessKeySecret == null || bucketName == null) {
-                throw new IllegalArgumentException("Incomplete OSS configuration");
-            }
-
-            String fullEndpoint = endpoint.startsWith("http") ? endpoint : "https://" + endpoint;
-            ossClient = new OSSClientBuilder().build(fullEndpoint, accessKeyId, accessKeySecret);
+            OSS ossClient = ossClientProvider.getObject();
 
             Date expiration = new Date(System.currentTimeMillis() + 24 * 60 * 60 * 1000);
             GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(bucketName, objectName);
@@ -139,32 +182,16 @@ public class AliOSSUtils {
         } catch (Exception e) {
             log.error("Failed to generate presigned URL: {}", e.getMessage(), e);
             return null;
-        } finally {
-            if (ossClient != null) {
-                try {
-                    ossClient.shutdown();
-                } catch (Exception e) {
-                    log.warn("Error closing OSS client: {}", e.getMessage());
-                }
-            }
         }
     }
 
     /**
      * Extract the object name from a full URL
      */
+    @Override
     public String extractObjectName(String fileUrl) {
         try {
-            String bucketName = aliOSSProperties.getBucketName();
-            String endpoint = aliOSSProperties.getEndpoint();
-
-            String expectedPrefix;
-            if (endpoint.startsWith("http")) {
-                String cleanEndpoint = endpoint.replaceFirst("^https?://", "");
-                expectedPrefix = String.format("https://%s.%s/", bucketName, cleanEndpoint);
-            } else {
-                expectedPrefix = String.format("https://%s.%s/", bucketName, endpoint);
-            }
+            String expectedPrefix = buildObjectUrl("");
 
             if (fileUrl.startsWith(expectedPrefix)) {
                 return fileUrl.substring(expectedPrefix.length());
@@ -177,4 +204,10 @@ public class AliOSSUtils {
             return null;
         }
     }
+
+    /** Public URL of an object: https://bucket.endpoint/objectName */
+    private String buildObjectUrl(String objectName) {
+        String cleanEndpoint = aliOSSProperties.getEndpoint().replaceFirst("^https?://", "");
+        return String.format("https://%s.%s/%s", aliOSSProperties.getBucketName(), cleanEndpoint, objectName);
+    }
 }
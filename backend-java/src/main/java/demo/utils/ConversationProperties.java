@@ -0,0 +1,23 @@
+package demo.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "conversation")
+public class ConversationProperties {
+    // A message equal to one the same sender posted within this window is dropped as a duplicate
+    private long dedupWindowSeconds = 300;
+    // Locks serializing writes per (task, group); more stripes, less contention between conversations
+    private int writeLockStripes = 64;
+    // Messages at least this long (in characters) are stored compressed right away
+    private int compressMinChars = 16 * 1024;
+    // Messages older than this are moved to compressed cold storage
+    private int archiveAfterDays = 30;
+    // Messages compressed per transaction by the archive sweep
+    private int archiveBatchSize = 500;
+    // Monthly partitions kept ready ahead of the current month
+    private int partitionMonthsAhead = 3;
+}
@@ -0,0 +1,20 @@
+package demo.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "document.cache")
+public class DocumentCacheProperties {
+    private boolean enabled = true;
+    // Upper bound of parsed text kept in memory (approximate, in bytes)
+    private long maxMemoryBytes = 64L * 1024 * 1024;
+    // Directory of the on-disk tier; empty disables it
+    private String diskDir = "";
+    // Upper bound of the on-disk tier (in bytes)
+    private long maxDiskBytes = 512L * 1024 * 1024;
+    // Number of remembered URL -> ETag pairs used for conditional requests
+    private int maxTrackedUrls = 10000;
+}
@@ -1,5 +1,7 @@
 package demo.utils;
 
+import demo.pojo.SearchSource;
+import demo.service.SearchService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
@@ -7,10 +9,13 @@ import org.apache.poi.hwpf.HWPFDocument;
 import org.apache.poi.hwpf.extractor.WordExtractor;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.List;
@@ -19,12 +24,34 @@ import java.util.List;
 @Component
 public class DocumentParser {
 
+    @Autowired
+    private DocumentTextCache documentTextCache;
+
+    @Autowired
+    private SearchService searchService;
+
+    // Present only with storage.backend=local
+    @Autowired(required = false)
+    private LocalFileStorage localFileStorage;
+
     /**
-     * Parse document content from a file URL
+     * Parse document content from a file URL.
+     * Parsed text is cached by URL + ETag and by content hash, so an unchanged
+     * document is answered with a conditional request and never parsed twice.
      * @param fileUrl the URL of the file
      * @return the parsed text content
      */
     public String parseDocumentFromUrl(String fileUrl) {
+        return parseDocumentFromUrl(fileUrl, null);
+    }
+
+    /**
+     * Parse document content from a file URL and feed the text to the search index
+     * @param fileUrl the URL of the file
+     * @param source  what the document is, for search results; null to skip indexing
+     * @return the parsed text content
+     */
+    public String parseDocumentFromUrl(String fileUrl, SearchSource source) {
         if (fileUrl == null || fileUrl.trim().isEmpty()) {
             return "Document URL is empty";
         }
@@ -32,28 +59,67 @@ public class DocumentParser {
         try {
             log.info("Starting to parse document: {}", fileUrl);
 
-            // Open connection to the URL
-            URL url = new URL(fileUrl);
+            // Presigned URLs differ only in their query string, so key on the bare URL
+            String baseUrl = stripQuery(fileUrl);
+            String knownEtag = documentTextCache.getEtag(baseUrl);
+            String cachedText = knownEtag != null
+                    ? documentTextCache.get(DocumentTextCache.etagKey(baseUrl, knownEtag))
+                    : null;
+
+            // Open connection to the URL; local storage objects are read from disk, since their
+            // HTTP endpoint only answers signed URLs
+            URL url = localFileStorage != null ? localFileStorage.toFileUrl(fileUrl) : null;
+            if (url == null) {
+                url = new URL(fileUrl);
+            }
             URLConnection connection = url.openConnection();
             connection.setConnectTimeout(10000); // 10s connect timeout
             connection.setReadTimeout(30000);    // 30s read timeout
+            if (cachedText != null && connection instanceof HttpURLConnection) {
+                connection.setRequestProperty("If-None-Match", knownEtag);
+            }
+
+            if (connection instanceof HttpURLConnection http
+                    && http.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                log.info("Document not modified, using cached text: {}", baseUrl);
+                http.disconnect();
+                return indexed(source, cachedText);
+            }
 
             try (InputStream inputStream = connection.getInputStream()) {
-                // Determine document type by Content-Type or file extension
-                String contentType = connection.getContentType();
-                String fileName = getFileNameFromUrl(fileUrl);
-
-                log.info("Document type: {}, file name: {}", contentType, fileName);
-
-                if (isPdfFile(contentType, fileName)) {
-                    return parsePdfDocument(inputStream);
-                } else if (isWordFile(contentType, fileName)) {
-                    return parseWordDocument(inputStream, fileName);
-                } else if (isTextFile(contentType, fileName)) {
-                    return parseTextDocument(inputStream);
+                byte[] content = inputStream.readAllBytes();
+                String etag = connection.getHeaderField("ETag");
+
+                // Same bytes under another URL or ETag are parsed only once
+                String contentKey = DocumentTextCache.contentKey(content);
+                String text = documentTextCache.get(contentKey);
+                if (text != null) {
+                    log.info("Document content cache hit: {}", baseUrl);
                 } else {
-                    return String.format("Unsupported document type: %s", contentType);
+                    // Determine document type by Content-Type or file extension
+                    String contentType = connection.getContentType();
+                    String fileName = getFileNameFromUrl(fileUrl);
+
+                    log.info("Document type: {}, file name: {}", contentType, fileName);
+
+                    InputStream bytes = new ByteArrayInputStream(content);
+                    if (isPdfFile(contentType, fileName)) {
+                        text = parsePdfDocument(bytes);
+                    } else if (isWordFile(contentType, fileName)) {
+                        text = parseWordDocument(bytes, fileName);
+                    } else if (isTextFile(contentType, fileName)) {
+                        text = parseTextDocument(bytes);
+                    } else {
+                        return String.format("Unsupported document type: %s", contentType);
+                    }
+                    documentTextCache.put(contentKey, text);
+                }
+
+                if (etag != null) {
+                    documentTextCache.put(DocumentTextCache.etagKey(baseUrl, etag), text);
+                    documentTextCache.putEtag(baseUrl, etag);
                 }
+                return indexed(source, text);
             }
         } catch (Exception e) {
             log.error("Failed to parse document: {}", fileUrl, e);
@@ -61,6 +127,13 @@ public class DocumentParser {
         }
     }
 
+    private String indexed(SearchSource source, String text) {
+        if (source != null) {
+            searchService.indexDocument(source, text);
+        }
+        return text;
+    }
+
     /** Parse a PDF document */
     private String parsePdfDocument(InputStream inputStream) throws IOException {
         try (PDDocument document = PDDocument.load(inputStream)) {
@@ -144,6 +217,12 @@ public class DocumentParser {
         return false;
     }
 
+    /** Drop the query string (e.g. presigned URL signature) from a URL */
+    private String stripQuery(String url) {
+        int q = url.indexOf('?');
+        return q != -1 ? url.substring(0, q) : url;
+    }
+
     /** Extract the file name from a URL */
     private String getFileNameFromUrl(String url) {
         if (url == null) return null;
@@ -0,0 +1,217 @@
+package demo.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed cache of parsed document text.
+ * Entries are keyed either by URL + ETag or by the SHA-256 of the downloaded bytes,
+ * held in a size-bounded memory tier and optionally mirrored to a disk tier
+ * so that a restart does not force every document to be parsed again.
+ */
+@Slf4j
+@Component
+public class DocumentTextCache {
+
+    @Autowired
+    private DocumentCacheProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, String> texts;
+    private Cache<String, String> urlEtags;
+    private Path diskDir;
+    private final AtomicLong diskBytes = new AtomicLong();
+    private Counter diskHits;
+    private Counter diskEvictions;
+
+    @PostConstruct
+    public void init() {
+        texts = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxMemoryBytes())
+                // Java strings are UTF-16 at worst, two bytes per char
+                .weigher((String key, String value) -> key.length() * 2 + value.length() * 2)
+                .removalListener((String key, String value, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        log.debug("Evicted parsed document from memory: {}", key);
+                    }
+                })
+                .recordStats()
+                .build();
+        urlEtags = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedUrls())
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, texts, "document.text");
+        diskHits = Counter.builder("document.text.disk.hits").register(meterRegistry);
+        diskEvictions = Counter.builder("document.text.disk.evictions").register(meterRegistry);
+        Gauge.builder("document.text.disk.bytes", diskBytes, AtomicLong::get).register(meterRegistry);
+
+        if (properties.getDiskDir() != null && !properties.getDiskDir().isBlank()) {
+            try {
+                diskDir = Paths.get(properties.getDiskDir());
+                Files.createDirectories(diskDir);
+                try (Stream<Path> files = Files.list(diskDir)) {
+                    diskBytes.set(files.mapToLong(this::sizeOf).sum());
+                }
+                log.info("Document cache disk tier at {}, {} bytes in use", diskDir, diskBytes.get());
+            } catch (IOException e) {
+                log.warn("Unable to initialise document cache disk tier at {}: {}",
+                        properties.getDiskDir(), e.getMessage());
+                diskDir = null;
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /** Key for a document identified by its URL (query string dropped) and ETag */
+    public static String etagKey(String baseUrl, String etag) {
+        return "etag:" + baseUrl + "|" + etag;
+    }
+
+    /** Key for a document identified by the hash of its bytes */
+    public static String contentKey(byte[] content) {
+        return "sha256:" + sha256(content);
+    }
+
+    /** Look up parsed text, falling back to the disk tier on a memory miss */
+    public String get(String key) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        String text = texts.getIfPresent(key);
+        if (text == null && diskDir != null) {
+            text = readFromDisk(key);
+            if (text != null) {
+                diskHits.increment();
+                texts.put(key, text);
+            }
+        }
+        return text;
+    }
+
+    public void put(String key, String text) {
+        if (!properties.isEnabled() || text == null) {
+            return;
+        }
+        texts.put(key, text);
+        if (diskDir != null) {
+            writeToDisk(key, text);
+        }
+    }
+
+    /** Last ETag seen for a URL, used to issue conditional requests */
+    public String getEtag(String baseUrl) {
+        return properties.isEnabled() ? urlEtags.getIfPresent(baseUrl) : null;
+    }
+
+    public void putEtag(String baseUrl, String etag) {
+        if (properties.isEnabled() && etag != null) {
+            urlEtags.put(baseUrl, etag);
+        }
+    }
+
+    private String readFromDisk(String key) {
+        Path file = diskDir.resolve(sha256(key.getBytes(StandardCharsets.UTF_8)) + ".txt");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return Files.readString(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Failed to read cached document {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, String text) {
+        Path file = diskDir.resolve(sha256(key.getBytes(StandardCharsets.UTF_8)) + ".txt");
+        if (Files.exists(file)) {
+            return;
+        }
+        try {
+            Path tmp = Files.createTempFile(diskDir, "doc", ".tmp");
+            Files.writeString(tmp, text, StandardCharsets.UTF_8);
+            long size = sizeOf(tmp);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (diskBytes.addAndGet(size) > properties.getMaxDiskBytes()) {
+                trimDisk();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write cached document {}: {}", file, e.getMessage());
+        }
+    }
+
+    /** Delete the least recently written files until the disk tier fits its budget again */
+    private void trimDisk() {
+        try (Stream<Path> files = Files.list(diskDir)) {
+            List<Path> oldestFirst = files
+                    .filter(p -> p.getFileName().toString().endsWith(".txt"))
+                    .sorted(Comparator.comparingLong(this::lastModified))
+                    .toList();
+            for (Path p : oldestFirst) {
+                if (diskBytes.get() <= properties.getMaxDiskBytes()) {
+                    break;
+                }
+                long size = sizeOf(p);
+                if (Files.deleteIfExists(p)) {
+                    diskBytes.addAndGet(-size);
+                    diskEvictions.increment();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to trim document cache disk tier: {}", e.getMessage());
+        }
+    }
+
+    private long sizeOf(Path p) {
+        try {
+            return Files.size(p);
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private long lastModified(Path p) {
+        try {
+            return Files.getLastModifiedTime(p).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package demo.utils;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+/**
+ * Object storage used for uploaded files, selected by storage.backend
+ */
+public interface FileStorage {
+
+    /**
+     * Store an uploaded file under a new unique object name
+     *
+     * @param file uploaded file
+     * @return public URL of the stored object
+     */
+    String upload(MultipartFile file) throws IOException;
+
+    /**
+     * Generate a temporary access URL valid for 24 hours
+     *
+     * @param objectName name of the stored object
+     * @return the URL, or null if it cannot be generated
+     */
+    String generatePresignedUrl(String objectName);
+
+    /**
+     * Extract the object name from a URL returned by {@link #upload}
+     *
+     * @param fileUrl full object URL
+     * @return the object name, or null if the URL does not belong to this storage
+     */
+    String extractObjectName(String fileUrl);
+}
@@ -0,0 +1,103 @@
+package demo.utils;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import demo.mapper.UserGroupMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Short-lived cache of group membership used for authorization checks.
+ * Holds user -> group IDs and task -> group ID; writes to user_group, groups, tasks and users
+ * are picked up by GroupMembershipInvalidationInterceptor, the TTL only bounds missed invalidations.
+ */
+@Component
+public class GroupMembershipCache {
+
+    @Autowired
+    private UserGroupMapper userGroupMapper;
+
+    @Autowired
+    private MembershipCacheProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private LoadingCache<Long, Set<Long>> userGroups;
+    private LoadingCache<Long, Long> taskGroups;
+
+    @PostConstruct
+    public void init() {
+        Duration ttl = Duration.ofSeconds(properties.getTtlSeconds());
+        userGroups = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxUsers())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(userId -> Set.copyOf(userGroupMapper.findGroupIdsByUserId(userId)));
+        taskGroups = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTasks())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                // A missing task loads as null and is not cached
+                .build(userGroupMapper::findGroupIdByTaskId);
+        CaffeineCacheMetrics.monitor(meterRegistry, userGroups, "membership.user-groups");
+        CaffeineCacheMetrics.monitor(meterRegistry, taskGroups, "membership.task-group");
+    }
+
+    /** IDs of all groups the user belongs to */
+    public Set<Long> getGroupIds(Long userId) {
+        return userGroups.get(userId);
+    }
+
+    public boolean isMember(Long userId, Long groupId) {
+        return groupId != null && getGroupIds(userId).contains(groupId);
+    }
+
+    /** Group the task belongs to, or null if the task does not exist */
+    public Long getTaskGroupId(Long taskId) {
+        return taskGroups.get(taskId);
+    }
+
+    /** Throw unless the user belongs to the group */
+    public void checkMember(Long userId, Long groupId) {
+        if (!isMember(userId, groupId)) {
+            throw new RuntimeException("User does not belong to this group");
+        }
+    }
+
+    /**
+     * Throw unless the task exists and the user belongs to its group
+     *
+     * @return ID of the task's group
+     */
+    public Long checkTaskAccess(Long userId, Long taskId) {
+        Long groupId = getTaskGroupId(taskId);
+        if (groupId == null) {
+            throw new RuntimeException("Task does not exist");
+        }
+        checkMember(userId, groupId);
+        return groupId;
+    }
+
+    public void invalidateUser(Long userId) {
+        userGroups.invalidate(userId);
+    }
+
+    public void invalidateAllUsers() {
+        userGroups.invalidateAll();
+    }
+
+    public void invalidateTask(Long taskId) {
+        taskGroups.invalidate(taskId);
+    }
+
+    public void invalidateAllTasks() {
+        taskGroups.invalidateAll();
+    }
+}
@@ -0,0 +1,25 @@
+package demo.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "import.jobs")
+public class ImportJobProperties {
+    // Worker threads running imports
+    private int poolSize = 2;
+    // Jobs queued in memory before new ones wait in the table for the sweeper
+    private int queueCapacity = 20;
+    // Rows committed per transaction; also the resume granularity
+    private int chunkSize = 500;
+    private int maxAttempts = 3;
+    // RUNNING jobs without progress for this long are considered abandoned and re-queued
+    private int staleAfterSeconds = 600;
+    // Error messages kept per job; further errors are only counted
+    private int maxErrors = 1000;
+    // Directory uploads are spooled to until their job finishes; empty uses the system temp directory.
+    // Must be shared storage when several instances sweep the same table
+    private String spoolDir = "";
+}
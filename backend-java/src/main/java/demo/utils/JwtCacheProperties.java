@@ -0,0 +1,14 @@
+package demo.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.jwt-cache")
+public class JwtCacheProperties {
+    private boolean enabled = true;
+    // Number of distinct verified tokens remembered
+    private long maxSize = 50000;
+}
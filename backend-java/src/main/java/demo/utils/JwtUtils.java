@@ -1,5 +1,6 @@
 package demo.utils;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import java.util.Date;
@@ -11,6 +12,10 @@ public class JwtUtils {
     // A new security key is generated every time you start
     private static final SecretKey KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
     private static final long EXPIRE = 43200000L;
+    // The parser is immutable and thread-safe, so build it once
+    private static final JwtParser PARSER = Jwts.parserBuilder()
+            .setSigningKey(KEY)
+            .build();
 
     public static String generateJwt(Map<String, Object> claims) {
         return Jwts.builder()
@@ -21,11 +26,7 @@ public class JwtUtils {
     }
 
     public static Claims parseJWT(String jwt) {
-        return Jwts.parserBuilder()
-                .setSigningKey(KEY)
-                .build()
-                .parseClaimsJws(jwt)
-                .getBody();
+        return PARSER.parseClaimsJws(jwt).getBody();
     }
 
     public static Map<String, Object> parseJwt(String jwt) {
@@ -0,0 +1,105 @@
+package demo.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of already verified JWTs, keyed by the SHA-256 of the token.
+ * A repeat request with the same token skips signature verification and claims parsing;
+ * each entry is dropped when its token expires. Invalid tokens are never cached.
+ */
+@Component
+public class JwtVerificationCache {
+
+    /** Identity carried by a verified token */
+    @Value
+    public static class VerifiedToken {
+        Long userId;
+        String role;
+        long expiresAtMillis;
+    }
+
+    @Autowired
+    private JwtCacheProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, VerifiedToken> tokens;
+
+    @PostConstruct
+    public void init() {
+        tokens = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long remainingMillis = value.getExpiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "auth.jwt");
+    }
+
+    /**
+     * Verify a token, from the cache when it has been seen before
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public VerifiedToken verify(String jwt) {
+        if (!properties.isEnabled()) {
+            return toVerifiedToken(JwtUtils.parseJWT(jwt));
+        }
+        VerifiedToken token = tokens.get(digest(jwt), key -> toVerifiedToken(JwtUtils.parseJWT(jwt)));
+        // The entry may outlive the token by a scheduler tick
+        if (token.getExpiresAtMillis() <= System.currentTimeMillis()) {
+            tokens.invalidate(digest(jwt));
+            return toVerifiedToken(JwtUtils.parseJWT(jwt));
+        }
+        return token;
+    }
+
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        return new VerifiedToken(
+                claims.get("userId", Long.class),
+                claims.get("role", String.class),
+                claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE);
+    }
+
+    private static String digest(String jwt) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(jwt.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
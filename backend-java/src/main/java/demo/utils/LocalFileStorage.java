@@ -0,0 +1,147 @@
+package demo.utils;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Filesystem stand-in for OSS, for running and load testing without cloud credentials.
+ * Objects are served by LocalFileController under storage.local-base-url to requests carrying
+ * an expiry and an HMAC signature, in the same way OSS presigned URLs work; the backend's own
+ * reads go straight to the filesystem through {@link #toFileUrl}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalFileStorage implements FileStorage {
+
+    private static final long PRESIGN_VALIDITY_MS = 24 * 60 * 60 * 1000L;
+
+    @Autowired
+    private StorageProperties storageProperties;
+
+    private Path root;
+
+    @PostConstruct
+    public void init() throws IOException {
+        String signingKey = storageProperties.getLocalSigningKey();
+        if (signingKey == null || signingKey.isBlank()) {
+            throw new IllegalStateException("storage.local-signing-key must be set when storage.backend=local");
+        }
+        root = Paths.get(storageProperties.getLocalDir()).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        log.info("Local file storage at {}, served from {}", root, storageProperties.getLocalBaseUrl());
+    }
+
+    @Override
+    public String upload(MultipartFile file) throws IOException {
+        String originalFilename = file.getOriginalFilename();
+        if (originalFilename == null || originalFilename.trim().isEmpty()) {
+            throw new IllegalArgumentException("Uploaded file must have an original filename");
+        }
+
+        String extension = "";
+        int dotIndex = originalFilename.lastIndexOf('.');
+        if (dotIndex >= 0 && dotIndex < originalFilename.length() - 1) {
+            extension = originalFilename.substring(dotIndex);
+        }
+        String objectName = UUID.randomUUID().toString() + extension;
+
+        // Write to a temporary file first so readers never see a partial object
+        Path tmp = Files.createTempFile(root, "upload", ".tmp");
+        try {
+            file.transferTo(tmp);
+            Files.move(tmp, root.resolve(objectName), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        log.info("File stored locally, objectName: {}, size: {} bytes", objectName, file.getSize());
+        return baseUrl() + objectName;
+    }
+
+    @Override
+    public String generatePresignedUrl(String objectName) {
+        long expires = System.currentTimeMillis() + PRESIGN_VALIDITY_MS;
+        return baseUrl() + objectName + "?expires=" + expires + "&signature=" + sign(objectName, expires);
+    }
+
+    @Override
+    public String extractObjectName(String fileUrl) {
+        if (fileUrl != null && fileUrl.startsWith(baseUrl())) {
+            String objectName = fileUrl.substring(baseUrl().length());
+            int query = objectName.indexOf('?');
+            return query >= 0 ? objectName.substring(0, query) : objectName;
+        }
+        log.warn("Unable to extract object name from URL: {}", fileUrl);
+        return null;
+    }
+
+    /**
+     * Resolve a stored object for serving
+     *
+     * @return the file, or null if the name is invalid or nothing is stored under it
+     */
+    public Path resolve(String objectName) {
+        Path file = root.resolve(objectName).normalize();
+        if (!file.getParent().equals(root) || !Files.isRegularFile(file)) {
+            return null;
+        }
+        return file;
+    }
+
+    /**
+     * Local file URL of an object, for reading it inside the backend without a signed HTTP request
+     *
+     * @param fileUrl URL returned by {@link #upload} or {@link #generatePresignedUrl}
+     * @return the file URL, or null if the URL does not name an object of this storage
+     */
+    public URL toFileUrl(String fileUrl) throws MalformedURLException {
+        if (fileUrl == null || !fileUrl.startsWith(baseUrl())) {
+            return null;
+        }
+        Path file = resolve(extractObjectName(fileUrl));
+        return file != null ? file.toUri().toURL() : null;
+    }
+
+    /** Check the expiry and signature of a preview URL */
+    public boolean verify(String objectName, long expires, String signature) {
+        if (expires < System.currentTimeMillis() || signature == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(sign(objectName, expires).getBytes(StandardCharsets.UTF_8),
+                signature.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String sign(String objectName, long expires) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(storageProperties.getLocalSigningKey().getBytes(StandardCharsets.UTF_8),
+                    "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal((objectName + "\n" + expires).getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to sign local storage URL", e);
+        }
+    }
+
+    private String baseUrl() {
+        String base = storageProperties.getLocalBaseUrl();
+        return base.endsWith("/") ? base : base + "/";
+    }
+}
@@ -0,0 +1,15 @@
+package demo.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.membership-cache")
+public class MembershipCacheProperties {
+    // Upper bound on staleness should an invalidation ever be missed
+    private long ttlSeconds = 60;
+    private long maxUsers = 10000;
+    private long maxTasks = 10000;
+}
@@ -0,0 +1,57 @@
+package demo.utils;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Cache of presigned preview URLs keyed by object name.
+ * Entries are re-signed in the background well before the 24-hour signature runs out,
+ * so a page rendering the same attachment many times signs it once.
+ */
+@Slf4j
+@Component
+public class PresignedUrlCache {
+
+    @Autowired
+    private FileStorage fileStorage;
+
+    @Autowired
+    private PresignedUrlCacheProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private LoadingCache<String, String> urls;
+
+    @PostConstruct
+    public void init() {
+        urls = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .refreshAfterWrite(Duration.ofMinutes(properties.getRefreshAfterMinutes()))
+                .expireAfterWrite(Duration.ofMinutes(properties.getExpireAfterMinutes()))
+                .recordStats()
+                // A null result (signing failed) is not cached
+                .build(fileStorage::generatePresignedUrl);
+        CaffeineCacheMetrics.monitor(meterRegistry, urls, "file.presigned-url");
+    }
+
+    /** Presigned URL for an object, or null if it cannot be signed */
+    public String get(String objectName) {
+        return urls.get(objectName);
+    }
+
+    /** Presigned URLs for many objects; names that cannot be signed are left out */
+    public Map<String, String> getAll(Collection<String> objectNames) {
+        return urls.getAll(objectNames);
+    }
+}
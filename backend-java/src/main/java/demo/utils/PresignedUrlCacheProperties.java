@@ -0,0 +1,18 @@
+package demo.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "file.presign-cache")
+public class PresignedUrlCacheProperties {
+    private long maxSize = 10000;
+    // Signed URLs are valid for 24 hours; re-sign in the background once this old
+    private long refreshAfterMinutes = 12 * 60;
+    // Never hand out a URL with less than 4 hours of validity left
+    private long expireAfterMinutes = 20 * 60;
+    // Most file URLs one /file/preview-urls request may ask to sign
+    private int maxBatch = 200;
+}
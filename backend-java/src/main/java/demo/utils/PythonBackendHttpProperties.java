@@ -0,0 +1,25 @@
+package demo.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "python.backend.http")
+public class PythonBackendHttpProperties {
+    // Connections across all routes
+    private int maxTotal = 50;
+    // Default limit for any single host
+    private int maxPerRoute = 10;
+    // Limit for the Python backend route (python.backend.url)
+    private int pythonMaxPerRoute = 40;
+    private long connectTimeoutMs = 5000;
+    // LLM generations are slow; this bounds a stalled backend, not a normal answer
+    private long readTimeoutMs = 120000;
+    // Maximum wait for a free pooled connection
+    private long poolAcquireTimeoutMs = 5000;
+    private long keepAliveSeconds = 30;
+    private long idleEvictSeconds = 30;
+    private long validateAfterInactivityMs = 2000;
+}
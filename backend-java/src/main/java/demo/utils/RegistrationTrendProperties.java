@@ -0,0 +1,17 @@
+package demo.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "registration.trend")
+public class RegistrationTrendProperties {
+    // Days covered when the request gives no start date
+    private int defaultDays = 30;
+    // How long today's counts are served from memory before being re-read
+    private int todayCacheSeconds = 10;
+    // Upper bound of buckets returned per request
+    private int maxBuckets = 1000;
+}
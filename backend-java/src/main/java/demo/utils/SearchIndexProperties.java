@@ -0,0 +1,28 @@
+package demo.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "search.index")
+public class SearchIndexProperties {
+    private boolean enabled = true;
+    // Directory holding the index segments
+    private String dir = "search-index";
+    // Indexing buffer flushed to a new segment when full (in MB)
+    private double ramBufferMb = 32;
+    // How often new documents become searchable
+    private long refreshIntervalMs = 1000;
+    // How often the index is committed to disk; at most this much work is replayed after a crash
+    private long commitIntervalMs = 30000;
+    // Conversation messages read per query when catching up with the table
+    private int backfillBatchSize = 500;
+    // Message IDs re-read below the committed position on startup; covers transactions that committed out of ID order
+    private int catchUpOverlap = 1000;
+    // Upper bound of results per search
+    private int maxResults = 100;
+    // Length of the text excerpt returned with each result
+    private int snippetChars = 200;
+}
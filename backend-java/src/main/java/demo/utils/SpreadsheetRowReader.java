@@ -0,0 +1,326 @@
+package demo.utils;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streaming reader for batch-import spreadsheets.
+ * .xlsx files are read with the SAX event API, so memory stays constant regardless of row count;
+ * .csv files are parsed line by line; legacy .xls files (at most 65536 rows) fall back to HSSF.
+ * Cells are handed over as strings, with dates rendered as ISO-8601 (yyyy-MM-dd) and numbers in
+ * the General format written out as whole numbers, so student and phone numbers never turn into 2.02312E+11.
+ */
+public class SpreadsheetRowReader {
+
+    /** Receives rows one at a time */
+    @FunctionalInterface
+    public interface RowHandler {
+        void handle(SheetRow row) throws Exception;
+    }
+
+    /** One spreadsheet row; missing cells read as "" */
+    public static class SheetRow {
+        private final int rowNumber;
+        private final List<String> cells;
+
+        SheetRow(int rowNumber, List<String> cells) {
+            this.rowNumber = rowNumber;
+            this.cells = cells;
+        }
+
+        /** 1-based row number as shown in the spreadsheet */
+        public int getRowNumber() {
+            return rowNumber;
+        }
+
+        public String get(int column) {
+            if (column >= cells.size() || cells.get(column) == null) {
+                return "";
+            }
+            return cells.get(column);
+        }
+
+        public boolean isBlank() {
+            return cells.stream().allMatch(c -> c == null || c.trim().isEmpty());
+        }
+    }
+
+    /**
+     * Read the first sheet of a spreadsheet file
+     *
+     * @param in         file content
+     * @param filename   original filename, used to pick the format
+     * @param skipHeader whether to skip the first row
+     * @param handler    called for each row in order; gaps in the sheet are reported as blank rows
+     */
+    public static void read(InputStream in, String filename, boolean skipHeader, RowHandler handler) throws Exception {
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".xlsx")) {
+            // OPC needs random access to the zip; spooling to disk keeps it off the heap
+            Path tmp = Files.createTempFile("import", ".xlsx");
+            try {
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+                readXlsx(tmp, skipHeader, handler);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } else if (name.endsWith(".csv")) {
+            readCsv(in, skipHeader, handler);
+        } else if (name.endsWith(".xls")) {
+            readXls(in, skipHeader, handler);
+        } else {
+            throw new IllegalArgumentException("Unsupported file format, please use .xlsx, .xls or .csv");
+        }
+    }
+
+    /** Read the first sheet of a spreadsheet already stored on disk */
+    public static void read(Path file, String filename, boolean skipHeader, RowHandler handler) throws Exception {
+        if (filename != null && filename.toLowerCase(Locale.ROOT).endsWith(".xlsx")) {
+            readXlsx(file, skipHeader, handler);
+            return;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            read(in, filename, skipHeader, handler);
+        }
+    }
+
+    private static void readXlsx(Path file, boolean skipHeader, RowHandler handler) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            RowCollector collector = new RowCollector(skipHeader, handler);
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        styles, strings, collector, new IsoDateFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            } catch (RowHandlerException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static void readXls(InputStream in, boolean skipHeader, RowHandler handler) throws Exception {
+        try (HSSFWorkbook workbook = new HSSFWorkbook(in)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            FormulaEvaluator evaluator = workbook.getCreationHelper().createFormulaEvaluator();
+            DataFormatter formatter = new IsoDateFormatter();
+            for (int i = skipHeader ? 1 : 0; i <= sheet.getLastRowNum(); i++) {
+                Row row = sheet.getRow(i);
+                List<String> cells = new ArrayList<>();
+                if (row != null) {
+                    for (int c = 0; c < row.getLastCellNum(); c++) {
+                        cells.add(formatHssfCell(row.getCell(c), formatter, evaluator));
+                    }
+                }
+                handler.handle(new SheetRow(i + 1, cells));
+            }
+        }
+    }
+
+    private static String formatHssfCell(Cell cell, DataFormatter formatter, FormulaEvaluator evaluator) {
+        if (cell == null) {
+            return "";
+        }
+        CellType type = cell.getCellType() == CellType.FORMULA ? cell.getCachedFormulaResultType() : cell.getCellType();
+        if (type == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell)) {
+            return isoDate(cell.getLocalDateTimeCellValue());
+        }
+        if (type == CellType.NUMERIC && isGeneralFormat(cell.getCellStyle().getDataFormat(),
+                cell.getCellStyle().getDataFormatString())) {
+            return plainNumber(cell.getNumericCellValue());
+        }
+        return formatter.formatCellValue(cell, evaluator);
+    }
+
+    private static void readCsv(InputStream in, boolean skipHeader, RowHandler handler) throws Exception {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        int rowNumber = 0;
+        List<String> cells;
+        while ((cells = nextCsvRecord(reader, rowNumber == 0)) != null) {
+            rowNumber++;
+            if (skipHeader && rowNumber == 1) {
+                continue;
+            }
+            handler.handle(new SheetRow(rowNumber, cells));
+        }
+    }
+
+    /** Parse one RFC 4180 record; quoted fields may contain commas, quotes ("") and line breaks */
+    private static List<String> nextCsvRecord(BufferedReader reader, boolean first) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        if (first && line.startsWith("\uFEFF")) {
+            line = line.substring(1);
+        }
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                // Line break inside a quoted field
+                String next = reader.readLine();
+                if (next == null) {
+                    break;
+                }
+                cell.append('\n');
+                line = next;
+                i = 0;
+                continue;
+            }
+            char ch = line.charAt(i++);
+            if (quoted) {
+                if (ch == '"') {
+                    if (i < line.length() && line.charAt(i) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cell.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(ch);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private static String isoDate(LocalDateTime value) {
+        return value.toLocalTime().toSecondOfDay() == 0 ? value.toLocalDate().toString() : value.toString();
+    }
+
+    private static boolean isGeneralFormat(int formatIndex, String formatString) {
+        return formatIndex == 0 || formatString == null || "General".equalsIgnoreCase(formatString);
+    }
+
+    /** General numbers are identifiers here (student and phone numbers): digits only, decimals truncated */
+    private static String plainNumber(double value) {
+        return Long.toString((long) value);
+    }
+
+    /**
+     * Renders date-formatted numbers as ISO-8601 and General numbers in full,
+     * instead of the workbook's display format
+     */
+    private static class IsoDateFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return isoDate(DateUtil.getLocalDateTime(value, use1904Windowing));
+            }
+            if (isGeneralFormat(formatIndex, formatString)) {
+                return plainNumber(value);
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+        }
+    }
+
+    /** Collects SAX cell events into rows and fills gaps so row numbers stay contiguous */
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final boolean skipHeader;
+        private final RowHandler handler;
+        private List<String> cells;
+        private int lastRow = -1;
+
+        RowCollector(boolean skipHeader, RowHandler handler) {
+            this.skipHeader = skipHeader;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            for (int missing = lastRow + 1; missing < rowNum; missing++) {
+                emit(missing, new ArrayList<>());
+            }
+            cells = new ArrayList<>();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            emit(rowNum, cells);
+            lastRow = rowNum;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : cells.size();
+            while (cells.size() < column) {
+                cells.add("");
+            }
+            cells.add(formattedValue);
+        }
+
+        private void emit(int rowIndex, List<String> rowCells) {
+            if (skipHeader && rowIndex == 0) {
+                return;
+            }
+            try {
+                handler.handle(new SheetRow(rowIndex + 1, rowCells));
+            } catch (Exception e) {
+                throw new RowHandlerException(e);
+            }
+        }
+    }
+
+    /** Carries a handler failure out of the SAX callbacks */
+    private static class RowHandlerException extends RuntimeException {
+        RowHandlerException(Exception cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized Exception getCause() {
+            return (Exception) super.getCause();
+        }
+    }
+}
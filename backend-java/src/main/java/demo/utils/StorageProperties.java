@@ -0,0 +1,19 @@
+package demo.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "storage")
+public class StorageProperties {
+    // "oss" for Aliyun OSS, "local" for the filesystem stand-in used offline and in load tests
+    private String backend = "oss";
+    // Directory holding objects of the local backend
+    private String localDir = "./storage";
+    // Public base URL under which the local backend serves objects
+    private String localBaseUrl = "http://localhost:8080/file/local";
+    // Key signing the expiring preview URLs of the local backend; required when it is enabled
+    private String localSigningKey;
+}
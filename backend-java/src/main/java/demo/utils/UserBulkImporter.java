@@ -0,0 +1,138 @@
+package demo.utils;
+
+import demo.mapper.UserMapper;
+import demo.pojo.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Set-based import of users from spreadsheet rows.
+ * Existing usernames and student numbers are fetched with a few IN queries and checked in memory,
+ * then accepted rows are written with multi-row INSERTs. A chunk that fails is rolled back to a
+ * savepoint and retried row by row, so the per-row error report matches the old one-by-one import.
+ */
+@Slf4j
+@Component
+public class UserBulkImporter {
+
+    // Rows per multi-row INSERT
+    private static final int INSERT_CHUNK = 500;
+    // Values per IN list when checking for duplicates
+    private static final int LOOKUP_CHUNK = 1000;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    private final TransactionTemplate savepoint;
+
+    @Autowired
+    public UserBulkImporter(PlatformTransactionManager transactionManager) {
+        this.savepoint = new TransactionTemplate(transactionManager);
+        this.savepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
+
+    /**
+     * Import users that passed the required-field check
+     *
+     * @param rows   users keyed by their 1-based spreadsheet row number; studentNo is used for STUDENT
+     * @param role   STUDENT or TEACHER
+     * @param errors per-row error messages are appended here
+     * @return number of users imported
+     */
+    public int importUsers(Map<Integer, User> rows, String role, List<String> errors) {
+        boolean students = "STUDENT".equals(role);
+        Set<String> takenUsernames = lookup(rows, User::getUsername, userMapper::findExistingUsernames);
+        Set<String> takenStudentNos = students
+                ? lookup(rows, User::getStudentNo, userMapper::findExistingStudentNos)
+                : new HashSet<>();
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, User> accepted = new LinkedHashMap<>();
+        for (Map.Entry<Integer, User> entry : rows.entrySet()) {
+            User user = entry.getValue();
+            // The sets also collect accepted values, catching duplicates within the file.
+            // Compared in lower case, as the database collation does
+            if (!takenUsernames.add(user.getUsername().toLowerCase(Locale.ROOT))) {
+                errors.add("Row " + entry.getKey() + ": Username '" + user.getUsername() + "' already exists");
+                continue;
+            }
+            if (students && !takenStudentNos.add(user.getStudentNo().toLowerCase(Locale.ROOT))) {
+                errors.add("Row " + entry.getKey() + ": Student number '" + user.getStudentNo() + "' already exists");
+                continue;
+            }
+            user.setRole(role);
+            user.setStatus("ACTIVE");
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            accepted.put(entry.getKey(), user);
+        }
+
+        int success = 0;
+        List<Map.Entry<Integer, User>> pending = new ArrayList<>(accepted.entrySet());
+        for (int from = 0; from < pending.size(); from += INSERT_CHUNK) {
+            List<Map.Entry<Integer, User>> chunk = pending.subList(from, Math.min(from + INSERT_CHUNK, pending.size()));
+            success += insertChunk(chunk, students, errors);
+        }
+        log.info("Imported {} of {} {} rows", success, rows.size(), role);
+        return success;
+    }
+
+    private int insertChunk(List<Map.Entry<Integer, User>> chunk, boolean students, List<String> errors) {
+        List<User> users = chunk.stream().map(Map.Entry::getValue).toList();
+        try {
+            savepoint.executeWithoutResult(status -> {
+                userMapper.batchInsert(users);
+                if (students) {
+                    userMapper.batchInsertStudentInfo(users);
+                }
+            });
+            return users.size();
+        } catch (Exception e) {
+            log.warn("Batch insert of {} users failed, retrying row by row: {}", users.size(), e.getMessage());
+        }
+
+        int success = 0;
+        for (Map.Entry<Integer, User> entry : chunk) {
+            User user = entry.getValue();
+            user.setId(null);
+            try {
+                savepoint.executeWithoutResult(status -> {
+                    userMapper.insert(user);
+                    if (students) {
+                        userMapper.insertStudentInfo(user.getId(), user.getStudentNo());
+                    }
+                });
+                success++;
+            } catch (Exception e) {
+                errors.add("Row " + entry.getKey() + ": Import failed - " + e.getMessage());
+            }
+        }
+        return success;
+    }
+
+    private Set<String> lookup(Map<Integer, User> rows,
+                               Function<User, String> field,
+                               Function<List<String>, List<String>> query) {
+        List<String> values = rows.values().stream().map(field).distinct().toList();
+        Set<String> taken = new HashSet<>();
+        for (int from = 0; from < values.size(); from += LOOKUP_CHUNK) {
+            query.apply(values.subList(from, Math.min(from + LOOKUP_CHUNK, values.size())))
+                    .forEach(v -> taken.add(v.toLowerCase(Locale.ROOT)));
+        }
+        return taken;
+    }
+}
@@ -0,0 +1,90 @@
+package demo.utils;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import demo.mapper.UserMapper;
+import demo.pojo.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded cache of user display names, shared by the agent prompt builders.
+ * Misses for a whole list are loaded with a single IN query; updates and deletes of users
+ * are picked up by UserNameInvalidationInterceptor, the TTL only bounds missed invalidations.
+ */
+@Component
+public class UserNameCache {
+
+    public static final String UNKNOWN_USER = "Unknown User";
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private UserNameCacheProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private LoadingCache<Long, String> names;
+
+    @PostConstruct
+    public void init() {
+        names = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxUsers())
+                .expireAfterWrite(Duration.ofSeconds(properties.getTtlSeconds()))
+                .recordStats()
+                // Unknown IDs load as absent and are not cached
+                .build(new CacheLoader<Long, String>() {
+                    @Override
+                    public String load(Long id) {
+                        return loadAll(Set.of(id)).get(id);
+                    }
+
+                    @Override
+                    public Map<Long, String> loadAll(Set<? extends Long> ids) {
+                        return userMapper.findNamesByIds(Set.copyOf(ids)).stream()
+                                .filter(u -> u.getName() != null)
+                                .collect(Collectors.toMap(User::getId, User::getName));
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, names, "user.names");
+    }
+
+    /** Display name of one user, or UNKNOWN_USER if there is no such user */
+    public String getName(Long userId) {
+        if (userId == null) {
+            return UNKNOWN_USER;
+        }
+        String name = names.get(userId);
+        return name != null ? name : UNKNOWN_USER;
+    }
+
+    /**
+     * Display names of many users, loading every miss in one query
+     *
+     * @return a name for each non-null ID, UNKNOWN_USER for IDs that do not exist
+     */
+    public Map<Long, String> getNames(Collection<Long> userIds) {
+        Set<Long> ids = userIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, String> result = new HashMap<>(names.getAll(ids));
+        ids.forEach(id -> result.putIfAbsent(id, UNKNOWN_USER));
+        return result;
+    }
+
+    public void invalidate(Long userId) {
+        names.invalidate(userId);
+    }
+}
@@ -0,0 +1,14 @@
+package demo.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "user.name-cache")
+public class UserNameCacheProperties {
+    // Upper bound on staleness should an invalidation ever be missed
+    private long ttlSeconds = 600;
+    private long maxUsers = 10000;
+}
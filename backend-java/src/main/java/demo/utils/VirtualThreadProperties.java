@@ -0,0 +1,17 @@
+package demo.utils;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "threads.virtual")
+public class VirtualThreadProperties {
+    // Report virtual threads pinned to their carrier (synchronized blocks, native frames) while virtual mode is on
+    private boolean pinningDiagnostics = true;
+    // Pinned sections shorter than this are not reported
+    private long pinnedThresholdMs = 20;
+    // Stack frames logged per pinned event
+    private int stackDepth = 12;
+}
@@ -0,0 +1,22 @@
+-- 异步 Agent 任务表：会议文档上传后由后台线程池执行周进度分析
+CREATE TABLE IF NOT EXISTS `agent_jobs` (
+    `id`            BIGINT NOT NULL AUTO_INCREMENT,
+    `job_type`      VARCHAR(50) NOT NULL COMMENT '任务类型，如 WEEKLY_PROGRESS',
+    `task_id`       BIGINT NOT NULL COMMENT '关联 Task',
+    `group_id`      BIGINT NULL COMMENT '关联小组',
+    `user_id`       BIGINT NULL COMMENT '发起用户',
+    `week_no`       INT NULL COMMENT '周序号',
+    `document_url`  VARCHAR(512) NULL COMMENT '会议文档 URL',
+    `status`        VARCHAR(20) NOT NULL DEFAULT 'PENDING' COMMENT 'PENDING / RUNNING / SUCCEEDED / FAILED',
+    `result`        LONGTEXT NULL COMMENT 'Agent 返回内容',
+    `error_message` TEXT NULL COMMENT '失败原因',
+    `attempts`      INT NOT NULL DEFAULT 0 COMMENT '已执行次数',
+    `created_at`    DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `started_at`    DATETIME NULL,
+    `finished_at`   DATETIME NULL,
+    `updated_at`    DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (`id`),
+    INDEX `idx_agent_jobs_status` (`status`, `created_at`),
+    INDEX `idx_agent_jobs_task` (`task_id`),
+    CONSTRAINT `fk_agent_jobs_task` FOREIGN KEY (`task_id`) REFERENCES `tasks`(`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
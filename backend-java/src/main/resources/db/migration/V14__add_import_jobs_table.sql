@@ -0,0 +1,23 @@
+-- 批量导入后台任务表：上传文件暂存到磁盘，按块提交并记录断点，便于重启后续跑
+CREATE TABLE IF NOT EXISTS `import_jobs` (
+    `id`              BIGINT NOT NULL AUTO_INCREMENT,
+    `job_type`        VARCHAR(20) NOT NULL COMMENT '导入类型：STUDENTS / TEACHERS / GROUPS / TASKS',
+    `user_id`         BIGINT NOT NULL COMMENT '提交导入的用户',
+    `file_name`       VARCHAR(255) NOT NULL COMMENT '原始文件名，用于判断格式',
+    `file_path`       VARCHAR(512) NOT NULL COMMENT '暂存文件路径',
+    `status`          VARCHAR(20) NOT NULL DEFAULT 'PENDING' COMMENT 'PENDING / RUNNING / SUCCEEDED / FAILED',
+    `checkpoint_row`  INT NOT NULL DEFAULT 0 COMMENT '已提交的最后一行（表格行号）',
+    `processed_rows`  INT NOT NULL DEFAULT 0 COMMENT '已处理行数',
+    `success_count`   INT NOT NULL DEFAULT 0 COMMENT '导入成功行数',
+    `error_count`     INT NOT NULL DEFAULT 0 COMMENT '错误条数',
+    `errors`          LONGTEXT NULL COMMENT '错误信息 JSON 数组（有上限）',
+    `error_message`   TEXT NULL COMMENT '任务失败原因',
+    `attempts`        INT NOT NULL DEFAULT 0 COMMENT '已执行次数',
+    `created_at`      DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `started_at`      DATETIME NULL,
+    `finished_at`     DATETIME NULL,
+    `updated_at`      DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (`id`),
+    INDEX `idx_import_jobs_status` (`status`, `created_at`),
+    INDEX `idx_import_jobs_user` (`user_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,17 @@
+-- 教师仪表盘统计物化表：写操作提交后按教师增量刷新，定时全量对账
+CREATE TABLE IF NOT EXISTS `teacher_stats` (
+    `teacher_id`          BIGINT NOT NULL,
+    `total_students`      INT NOT NULL DEFAULT 0 COMMENT '所带小组中的学生数（去重）',
+    `total_groups`        INT NOT NULL DEFAULT 0 COMMENT '小组数',
+    `tasks_initializing`  INT NOT NULL DEFAULT 0,
+    `tasks_in_progress`   INT NOT NULL DEFAULT 0,
+    `tasks_completed`     INT NOT NULL DEFAULT 0,
+    `meetings_total`      INT NOT NULL DEFAULT 0,
+    `meetings_completed`  INT NOT NULL DEFAULT 0,
+    `goals_not_uploaded`  INT NOT NULL DEFAULT 0,
+    `goals_processing`    INT NOT NULL DEFAULT 0,
+    `goals_finished`      INT NOT NULL DEFAULT 0,
+    `refreshed_at`        DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '最近一次重算时间',
+    PRIMARY KEY (`teacher_id`),
+    CONSTRAINT `fk_teacher_stats_teacher` FOREIGN KEY (`teacher_id`) REFERENCES `users`(`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
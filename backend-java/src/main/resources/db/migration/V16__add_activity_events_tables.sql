@@ -0,0 +1,21 @@
+-- 活动流：只追加的事件日志，业务事务提交后异步写入
+CREATE TABLE IF NOT EXISTS `activity_events` (
+    `id`          BIGINT NOT NULL AUTO_INCREMENT,
+    `event_type`  VARCHAR(50) NOT NULL COMMENT '事件类型，如 GROUP_CREATED / ASSIGNMENT_SUBMITTED',
+    `actor_id`    BIGINT NULL COMMENT '操作用户',
+    `teacher_id`  BIGINT NULL COMMENT '事件所属教师（小组负责人）',
+    `group_id`    BIGINT NULL COMMENT '关联小组',
+    `task_id`     BIGINT NULL COMMENT '关联 Task',
+    `title`       VARCHAR(255) NOT NULL COMMENT '事件标题',
+    `description` VARCHAR(1000) NULL COMMENT '事件详情',
+    `created_at`  DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- 教师活动流扇出索引：按 (teacher_id, event_id) 倒序键集分页
+CREATE TABLE IF NOT EXISTS `activity_feed` (
+    `teacher_id`  BIGINT NOT NULL,
+    `event_id`    BIGINT NOT NULL,
+    PRIMARY KEY (`teacher_id`, `event_id`),
+    CONSTRAINT `fk_activity_feed_event` FOREIGN KEY (`event_id`) REFERENCES `activity_events`(`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,14 @@
+-- 注册趋势日汇总表：用户写入时在同一事务内累加，管理端图表不再扫描 users 表
+CREATE TABLE IF NOT EXISTS `user_registration_daily` (
+    `day`            DATE NOT NULL,
+    `role`           VARCHAR(20) NOT NULL COMMENT 'ADMIN / TEACHER / STUDENT',
+    `registrations`  INT NOT NULL DEFAULT 0 COMMENT '当天注册人数',
+    PRIMARY KEY (`day`, `role`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- 按现有用户回填历史数据
+INSERT INTO `user_registration_daily` (`day`, `role`, `registrations`)
+SELECT DATE(`created_at`), `role`, COUNT(*)
+FROM `users`
+GROUP BY DATE(`created_at`), `role`
+ON DUPLICATE KEY UPDATE `registrations` = VALUES(`registrations`);
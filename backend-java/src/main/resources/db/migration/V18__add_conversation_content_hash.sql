@@ -0,0 +1,7 @@
+-- 对话消息内容哈希：去重时只比较定长哈希，不再把 LONGTEXT 正文拉回应用
+ALTER TABLE conversations ADD COLUMN content_hash CHAR(64) CHARACTER SET ascii NULL COMMENT 'SHA-256(content)' AFTER content;
+
+UPDATE conversations SET content_hash = SHA2(content, 256) WHERE content_hash IS NULL;
+
+-- 去重查询按 (task_id, group_id, content_hash) 定位，再按时间窗口过滤
+CREATE INDEX idx_task_group_hash ON conversations (task_id, group_id, content_hash, created_at);
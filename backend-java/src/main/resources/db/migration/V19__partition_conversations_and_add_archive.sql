@@ -0,0 +1,49 @@
+-- 对话冷存储：超过时间或大小阈值的消息正文压缩后移到旁表，conversations 中正文置 NULL
+-- body 为 MySQL COMPRESS() 格式（4 字节小端原长 + zlib 流），可直接用 UNCOMPRESS(body) 查看
+CREATE TABLE IF NOT EXISTS `conversation_archive` (
+    `conversation_id` BIGINT NOT NULL COMMENT '对应 conversations.id',
+    `codec`           VARCHAR(16) NOT NULL DEFAULT 'ZLIB' COMMENT '压缩算法',
+    `raw_length`      INT NOT NULL COMMENT '原文字符数',
+    `body`            LONGBLOB NOT NULL COMMENT '压缩后的正文',
+    `archived_at`     DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (`conversation_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- 分区表不支持外键：去掉 V10 的三个外键，任务/小组删除后的级联清理改由 ConversationArchiveService 定时完成
+ALTER TABLE conversations
+    DROP FOREIGN KEY conversations_ibfk_1,
+    DROP FOREIGN KEY conversations_ibfk_2,
+    DROP FOREIGN KEY conversations_ibfk_3;
+
+-- 分区键必须包含在主键中，且不能为 NULL
+ALTER TABLE conversations
+    MODIFY COLUMN content LONGTEXT NULL,
+    MODIFY COLUMN created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+-- 按月范围分区；p_future 之前的新月份分区由 ConversationArchiveService 提前拆出
+ALTER TABLE conversations
+PARTITION BY RANGE (UNIX_TIMESTAMP(created_at)) (
+    PARTITION p_history VALUES LESS THAN (UNIX_TIMESTAMP('2025-06-01 00:00:00')),
+    PARTITION p_202506 VALUES LESS THAN (UNIX_TIMESTAMP('2025-07-01 00:00:00')),
+    PARTITION p_202507 VALUES LESS THAN (UNIX_TIMESTAMP('2025-08-01 00:00:00')),
+    PARTITION p_202508 VALUES LESS THAN (UNIX_TIMESTAMP('2025-09-01 00:00:00')),
+    PARTITION p_202509 VALUES LESS THAN (UNIX_TIMESTAMP('2025-10-01 00:00:00')),
+    PARTITION p_202510 VALUES LESS THAN (UNIX_TIMESTAMP('2025-11-01 00:00:00')),
+    PARTITION p_202511 VALUES LESS THAN (UNIX_TIMESTAMP('2025-12-01 00:00:00')),
+    PARTITION p_202512 VALUES LESS THAN (UNIX_TIMESTAMP('2026-01-01 00:00:00')),
+    PARTITION p_202601 VALUES LESS THAN (UNIX_TIMESTAMP('2026-02-01 00:00:00')),
+    PARTITION p_202602 VALUES LESS THAN (UNIX_TIMESTAMP('2026-03-01 00:00:00')),
+    PARTITION p_202603 VALUES LESS THAN (UNIX_TIMESTAMP('2026-04-01 00:00:00')),
+    PARTITION p_202604 VALUES LESS THAN (UNIX_TIMESTAMP('2026-05-01 00:00:00')),
+    PARTITION p_202605 VALUES LESS THAN (UNIX_TIMESTAMP('2026-06-01 00:00:00')),
+    PARTITION p_202606 VALUES LESS THAN (UNIX_TIMESTAMP('2026-07-01 00:00:00')),
+    PARTITION p_202607 VALUES LESS THAN (UNIX_TIMESTAMP('2026-08-01 00:00:00')),
+    PARTITION p_202608 VALUES LESS THAN (UNIX_TIMESTAMP('2026-09-01 00:00:00')),
+    PARTITION p_202609 VALUES LESS THAN (UNIX_TIMESTAMP('2026-10-01 00:00:00')),
+    PARTITION p_202610 VALUES LESS THAN (UNIX_TIMESTAMP('2026-11-01 00:00:00')),
+    PARTITION p_202611 VALUES LESS THAN (UNIX_TIMESTAMP('2026-12-01 00:00:00')),
+    PARTITION p_202612 VALUES LESS THAN (UNIX_TIMESTAMP('2027-01-01 00:00:00')),
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
@@ -0,0 +1,21 @@
+-- 对话清理队列：conversations 分区后没有外键，删除任务/小组/用户时在同一事务中记录一行，
+-- ConversationArchiveService 定时按 ID 清理对应消息（走索引，不再全表扫描找孤儿数据）
+CREATE TABLE IF NOT EXISTS `conversation_purges` (
+    `id`          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    `target_type` VARCHAR(16) NOT NULL COMMENT 'TASK / GROUP：删除其消息；USER：发送者置 NULL',
+    `target_id`   BIGINT NOT NULL,
+    `created_at`  DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- V19 之后已经产生的孤儿数据一次性入队
+INSERT INTO conversation_purges (target_type, target_id)
+SELECT DISTINCT 'TASK', c.task_id FROM conversations c
+LEFT JOIN tasks t ON t.id = c.task_id WHERE t.id IS NULL;
+
+INSERT INTO conversation_purges (target_type, target_id)
+SELECT DISTINCT 'GROUP', c.group_id FROM conversations c
+LEFT JOIN `groups` g ON g.id = c.group_id WHERE g.id IS NULL;
+
+INSERT INTO conversation_purges (target_type, target_id)
+SELECT DISTINCT 'USER', c.sender_id FROM conversations c
+LEFT JOIN users u ON u.id = c.sender_id WHERE c.sender_id IS NOT NULL AND u.id IS NULL;
@@ -0,0 +1,235 @@
+package demo.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+import demo.config.RestTemplateConfig;
+import demo.utils.PythonBackendHttpProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Shows how request concurrency scales when the Python backend is slow, with platform request
+ * threads (Tomcat's default 200) versus virtual threads (spring.threads.virtual.enabled).
+ * An embedded Tomcat serves one endpoint that calls a stub agent through the application's pooled
+ * RestTemplate; the stub answers after a fixed delay and records how many calls it sees at once.
+ *
+ * Opt-in, as it takes a minute and opens a few thousand sockets (raise ulimit -n if needed):
+ *   mvn test -Dtest=SlowAgentConcurrencyLoadTest -Dloadtest=true
+ * Tunables: -Dloadtest.latencyMs=2000 -Dloadtest.levels=50,200,400 -Dloadtest.pythonMaxPerRoute=1000
+ * The virtual-thread run is skipped below Java 21.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class SlowAgentConcurrencyLoadTest {
+
+    private static final int PLATFORM_REQUEST_THREADS = 200;
+
+    private final long latencyMs = Long.getLong("loadtest.latencyMs", 2000);
+    private final int[] levels = Arrays.stream(System.getProperty("loadtest.levels", "50,200,400").split(","))
+            .mapToInt(l -> Integer.parseInt(l.trim())).toArray();
+    private final int pythonMaxPerRoute = Integer.getInteger("loadtest.pythonMaxPerRoute", 1000);
+
+    private HttpServer stub;
+    private ExecutorService stubExecutor;
+    private final AtomicInteger stubInFlight = new AtomicInteger();
+    private final AtomicInteger stubPeak = new AtomicInteger();
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        stubExecutor = Executors.newCachedThreadPool();
+        stub.setExecutor(stubExecutor);
+        stub.createContext("/conversation/chat", exchange -> {
+            int now = stubInFlight.incrementAndGet();
+            stubPeak.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(latencyMs);
+                byte[] body = "{\"status\":\"success\",\"response\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                stubInFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        stub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Test
+    void platformRequestThreads() throws Exception {
+        List<int[]> peaks = run("platform", false);
+        for (int[] p : peaks) {
+            // Concurrent agent calls cannot exceed Tomcat's request threads
+            assertTrue(p[1] <= PLATFORM_REQUEST_THREADS, "peak " + p[1] + " at concurrency " + p[0]);
+        }
+    }
+
+    @Test
+    void virtualRequestThreads() throws Exception {
+        Assumptions.assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21+");
+        List<int[]> peaks = run("virtual", true);
+        for (int[] p : peaks) {
+            if (p[0] > PLATFORM_REQUEST_THREADS && p[0] <= pythonMaxPerRoute) {
+                assertTrue(p[1] > PLATFORM_REQUEST_THREADS, "peak " + p[1] + " at concurrency " + p[0]);
+            }
+        }
+    }
+
+    /** @return (concurrency, peak concurrent stub calls) per level */
+    private List<int[]> run(String mode, boolean virtualThreads) throws Exception {
+        RestTemplate restTemplate = pythonRestTemplate();
+        String stubUrl = "http://127.0.0.1:" + stub.getAddress().getPort();
+
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        if (virtualThreads) {
+            // What Spring Boot installs for spring.threads.virtual.enabled=true
+            factory.addProtocolHandlerCustomizers(handler ->
+                    handler.setExecutor(new VirtualThreadExecutor("tomcat-handler-")));
+        }
+        factory.addInitializers(servletContext -> servletContext
+                .addServlet("chat", new HttpServlet() {
+                    @Override
+                    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                        String reply = restTemplate.postForObject(stubUrl + "/conversation/chat",
+                                Map.of("user_message", "hello"), String.class);
+                        resp.setContentType("application/json");
+                        resp.getWriter().write(reply);
+                    }
+                })
+                .addMapping("/chat"));
+        WebServer server = factory.getWebServer();
+        server.start();
+
+        List<int[]> peaks = new ArrayList<>();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        URI uri = URI.create("http://127.0.0.1:" + server.getPort() + "/chat");
+        try {
+            System.out.printf("%n[%s] stub latency %d ms, python-max-per-route %d%n", mode, latencyMs, pythonMaxPerRoute);
+            System.out.printf("%12s %10s %10s %10s %10s %10s %12s%n",
+                    "concurrency", "requests", "req/s", "p50 ms", "p99 ms", "errors", "peak calls");
+            for (int level : levels) {
+                stubPeak.set(0);
+                Result r = drive(client, uri, level, level * 3);
+                System.out.printf("%12d %10d %10.1f %10d %10d %10d %12d%n",
+                        level, r.latencies.size(), r.latencies.size() * 1000.0 / r.elapsedMs,
+                        percentile(r.latencies, 50), percentile(r.latencies, 99), r.errors, stubPeak.get());
+                assertEquals(0, r.errors, "failed requests at concurrency " + level);
+                peaks.add(new int[]{level, stubPeak.get()});
+            }
+        } finally {
+            server.stop();
+        }
+        return peaks;
+    }
+
+    /** Closed loop: keep level requests outstanding until total have completed */
+    private Result drive(HttpClient client, URI uri, int level, int total) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(120))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        Semaphore slots = new Semaphore(level);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger errors = new AtomicInteger();
+        List<CompletableFuture<?>> calls = new ArrayList<>(total);
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < total; i++) {
+            slots.acquire();
+            long sent = System.nanoTime();
+            calls.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        } else {
+                            latencies.add((System.nanoTime() - sent) / 1_000_000);
+                        }
+                        slots.release();
+                    }));
+        }
+        CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+        return new Result(latencies, errors.get(), System.currentTimeMillis() - start);
+    }
+
+    private RestTemplate pythonRestTemplate() {
+        PythonBackendHttpProperties properties = new PythonBackendHttpProperties();
+        properties.setMaxTotal(pythonMaxPerRoute);
+        properties.setPythonMaxPerRoute(pythonMaxPerRoute);
+        properties.setPoolAcquireTimeoutMs(120000);
+        RestTemplateConfig config = new RestTemplateConfig();
+        ReflectionTestUtils.setField(config, "pythonBackendUrl", "http://127.0.0.1:" + stub.getAddress().getPort());
+        PoolingHttpClientConnectionManager pool =
+                config.pythonBackendConnectionManager(properties, new SimpleMeterRegistry());
+        CloseableHttpClient httpClient = config.pythonBackendHttpClient(pool, properties);
+        return config.restTemplate(httpClient);
+    }
+
+    private static long percentile(List<Long> values, int p) {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(p / 100.0 * sorted.size()) - 1));
+    }
+
+    private static final class Result {
+        private final List<Long> latencies;
+        private final int errors;
+        private final long elapsedMs;
+
+        Result(List<Long> latencies, int errors, long elapsedMs) {
+            this.latencies = latencies;
+            this.errors = errors;
+            this.elapsedMs = elapsedMs;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package demo.service.impl;
+
+import demo.mapper.GroupMapper;
+import demo.mapper.UserMapper;
+import demo.service.ConversationArchiveService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Deleting a teacher cascades away their groups, so the conversations of those groups
+ * must be queued for purging in the same transaction.
+ */
+class AdminServiceImplTest {
+
+    private static final Long TEACHER_ID = 5L;
+
+    private final UserMapper userMapper = mock(UserMapper.class);
+    private final GroupMapper groupMapper = mock(GroupMapper.class);
+    private final ConversationArchiveService conversationArchiveService = mock(ConversationArchiveService.class);
+    private final AdminServiceImpl adminService = new AdminServiceImpl();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(adminService, "userMapper", userMapper);
+        ReflectionTestUtils.setField(adminService, "groupMapper", groupMapper);
+        ReflectionTestUtils.setField(adminService, "conversationArchiveService", conversationArchiveService);
+        when(groupMapper.findIdsByTeacherId(TEACHER_ID)).thenReturn(List.of(7L, 8L));
+    }
+
+    @Test
+    void deleteTeacherQueuesGroupPurges() {
+        adminService.deleteTeacher(TEACHER_ID);
+
+        // The group IDs must be read before the delete cascades them away
+        InOrder order = inOrder(groupMapper, userMapper);
+        order.verify(groupMapper).findIdsByTeacherId(TEACHER_ID);
+        order.verify(userMapper).deleteById(TEACHER_ID);
+        verify(conversationArchiveService).recordGroupDeleted(7L);
+        verify(conversationArchiveService).recordGroupDeleted(8L);
+        verify(conversationArchiveService).recordUserDeleted(TEACHER_ID);
+    }
+
+    @Test
+    void deleteUserQueuesGroupPurgesOfATeacher() {
+        adminService.deleteUser(TEACHER_ID);
+
+        verify(conversationArchiveService).recordGroupDeleted(7L);
+        verify(conversationArchiveService).recordGroupDeleted(8L);
+        verify(conversationArchiveService).recordUserDeleted(TEACHER_ID);
+    }
+
+    @Test
+    void deleteUserWithoutGroupsQueuesOnlyTheUser() {
+        adminService.deleteUser(1001L);
+
+        verify(conversationArchiveService, never()).recordGroupDeleted(anyLong());
+        verify(conversationArchiveService).recordUserDeleted(1001L);
+    }
+}
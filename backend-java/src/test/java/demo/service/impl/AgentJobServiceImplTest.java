@@ -0,0 +1,106 @@
+package demo.service.impl;
+
+import demo.mapper.AgentJobMapper;
+import demo.pojo.AgentJob;
+import demo.service.AgentService;
+import demo.utils.AgentJobProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A weekly-progress job whose analysis fails goes back to PENDING for the sweeper to retry,
+ * and ends FAILED with the backend's error once it runs out of attempts.
+ */
+class AgentJobServiceImplTest {
+
+    private static final Long JOB_ID = 11L;
+
+    private final AgentJob job = new AgentJob();
+    private final AgentJobMapper agentJobMapper = mock(AgentJobMapper.class);
+    private final AgentService agentService = mock(AgentService.class);
+    private final AgentJobServiceImpl agentJobService = new AgentJobServiceImpl();
+
+    @BeforeEach
+    void setUp() {
+        job.setId(JOB_ID);
+        job.setJobType("WEEKLY_PROGRESS");
+        job.setTaskId(3L);
+        job.setUserId(1001L);
+        job.setWeekNo(1);
+        job.setDocumentUrl("http://files.example/meeting.docx");
+        job.setStatus("PENDING");
+        job.setAttempts(0);
+
+        // The mapper keeps the single job row in memory, with the same transitions as the SQL
+        when(agentJobMapper.findById(JOB_ID)).thenReturn(job);
+        when(agentJobMapper.findPendingIds(anyInt()))
+                .thenAnswer(invocation -> "PENDING".equals(job.getStatus()) ? List.of(JOB_ID) : List.of());
+        when(agentJobMapper.claim(JOB_ID)).thenAnswer(invocation -> {
+            if (!"PENDING".equals(job.getStatus())) {
+                return 0;
+            }
+            job.setStatus("RUNNING");
+            job.setAttempts(job.getAttempts() + 1);
+            return 1;
+        });
+        doAnswer(invocation -> {
+            job.setStatus(invocation.getArgument(1));
+            job.setErrorMessage(invocation.getArgument(2));
+            return null;
+        }).when(agentJobMapper).markFailed(eq(JOB_ID), anyString(), anyString());
+
+        ThreadPoolTaskExecutor executor = mock(ThreadPoolTaskExecutor.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+
+        AgentJobProperties properties = new AgentJobProperties();
+        properties.setMaxAttempts(2);
+
+        ReflectionTestUtils.setField(agentJobService, "agentJobMapper", agentJobMapper);
+        ReflectionTestUtils.setField(agentJobService, "agentService", agentService);
+        ReflectionTestUtils.setField(agentJobService, "properties", properties);
+        ReflectionTestUtils.setField(agentJobService, "agentJobExecutor", executor);
+    }
+
+    @Test
+    void backendErrorIsRetriedThenFailed() {
+        when(agentService.analyzeWeeklyProgressOrThrow(anyLong(), anyInt(), anyString(), anyLong()))
+                .thenThrow(new IllegalStateException("Failed to analyze weekly progress: model overloaded"));
+
+        agentJobService.sweep();
+
+        assertEquals("PENDING", job.getStatus());
+        assertEquals(1, job.getAttempts());
+        assertEquals("Failed to analyze weekly progress: model overloaded", job.getErrorMessage());
+
+        agentJobService.sweep();
+
+        assertEquals("FAILED", job.getStatus());
+        assertEquals(2, job.getAttempts());
+        assertEquals("Failed to analyze weekly progress: model overloaded", job.getErrorMessage());
+        verify(agentJobMapper, never()).markSucceeded(anyLong(), anyString());
+
+        // Out of attempts: later sweeps leave the job alone
+        agentJobService.sweep();
+
+        assertEquals(2, job.getAttempts());
+    }
+}
@@ -0,0 +1,61 @@
+package demo.utils;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Numeric identifier cells in batch-import sheets must come back as plain digits,
+ * not in the scientific notation of the General display format.
+ */
+class SpreadsheetRowReaderTest {
+
+    @Test
+    void xlsxKeepsLongNumbersAsDigits() throws Exception {
+        List<SpreadsheetRowReader.SheetRow> rows = read(new XSSFWorkbook(), "students.xlsx");
+
+        assertEquals("202312345678", rows.get(0).get(0));
+        assertEquals("13812345678", rows.get(0).get(1));
+        assertEquals("42", rows.get(0).get(2));
+    }
+
+    @Test
+    void xlsKeepsLongNumbersAsDigits() throws Exception {
+        List<SpreadsheetRowReader.SheetRow> rows = read(new HSSFWorkbook(), "students.xls");
+
+        assertEquals("202312345678", rows.get(0).get(0));
+        assertEquals("13812345678", rows.get(0).get(1));
+        assertEquals("42", rows.get(0).get(2));
+    }
+
+    /** Header plus one row: 12-digit student number, phone number, and a decimal that is truncated */
+    private static List<SpreadsheetRowReader.SheetRow> read(Workbook workbook, String filename) throws Exception {
+        byte[] content;
+        try (workbook; ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Student number");
+            header.createCell(1).setCellValue("Phone");
+            header.createCell(2).setCellValue("Score");
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue(202312345678d);
+            row.createCell(1).setCellValue(13812345678d);
+            row.createCell(2).setCellValue(42.7);
+            workbook.write(out);
+            content = out.toByteArray();
+        }
+        List<SpreadsheetRowReader.SheetRow> rows = new ArrayList<>();
+        SpreadsheetRowReader.read(new ByteArrayInputStream(content), filename, true, rows::add);
+        return rows;
+    }
+}
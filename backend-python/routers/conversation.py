@@ -1,7 +1,8 @@
 from fastapi import APIRouter, HTTPException
+from fastapi.responses import StreamingResponse
 from pojo.task_assignment_models import ConversationRequest, ConversationHistoryRequest
 from services.conversation_service import ConversationService
-from services.agent_service import get_conversational_response
+from services.agent_service import get_conversational_response, stream_conversational_response
 from datetime import datetime
 from typing import List, Dict, Any
 from pydantic import BaseModel
@@ -46,6 +47,25 @@ async def chat_with_agent(req: ChatRequest):
         raise HTTPException(status_code=500, detail=f"Error processing chat message: {e}")
 
 
+@router.post("/chat/stream")
+def chat_with_agent_stream(req: ChatRequest):
+    """Streaming variant of /chat – the reply is sent as plain text chunks while it is being generated."""
+    return StreamingResponse(
+        stream_conversational_response(
+            task_id=req.task_id,
+            group_id=req.group_id,
+            user_message=req.user_message,
+            conversation_history=req.conversation_history,
+            task_context={
+                "task_name": req.task_name,
+                "task_description": req.task_description,
+                "group_name": req.group_name
+            }
+        ),
+        media_type="text/plain; charset=utf-8"
+    )
+
+
 @router.post("/send-message")
 async def send_message(req: ConversationRequest):
     """Send a user message into the conversation and get an AI reply."""
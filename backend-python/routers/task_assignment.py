@@ -1,4 +1,5 @@
 from fastapi import APIRouter, HTTPException
+from fastapi.responses import StreamingResponse
 from pojo.task_assignment_models import (
     TaskAssignmentRequest,
     TaskAssignmentUpdateRequest,
@@ -11,6 +12,7 @@ from services.task_assignment_chains import (
     followup_assignment_chain,
     project_analysis_chain
 )
+from utils.config import STREAM_ERROR_MARKER
 
 router = APIRouter()
 
@@ -78,6 +80,33 @@ async def get_initial_assignment_advice(req: TaskAssignmentRequest):
         print(f"Error processing initial assignment advice: {e}")
         raise HTTPException(status_code=500, detail=f"Error generating advice: {e}")
 
+@router.post("/initial-advice/stream")
+def stream_initial_assignment_advice(req: TaskAssignmentRequest):
+    """Streaming variant of /initial-advice – the advice is sent as plain text chunks while it is being generated"""
+    assignments_text = "\n".join([
+        f"- {assignment.user_name}: {assignment.description}"
+        for assignment in req.assignments
+    ])
+    prompt_params = {
+        "project_url": req.project_url or "not provided",
+        "task_description": req.task_description,
+        "task_file_content": req.task_file_content or req.task_description,
+        "group_name": req.group_name,
+        "task_name": req.task_name,
+        "assignments": assignments_text
+    }
+
+    def generate():
+        try:
+            for chunk in initial_assignment_chain.stream(prompt_params):
+                if chunk:
+                    yield chunk
+        except Exception as e:
+            print(f"Error streaming initial assignment advice: {e}")
+            yield f"{STREAM_ERROR_MARKER}{e}"
+
+    return StreamingResponse(generate(), media_type="text/plain; charset=utf-8")
+
 @router.post("/confirmation-advice")
 async def get_confirmation_assignment_advice(req: TaskAssignmentUpdateRequest):
     """Get assignment confirmation advice"""
@@ -20,6 +20,7 @@ from langchain_openai import OpenAI
 from langchain.prompts import PromptTemplate
 from langchain.output_parsers import StructuredOutputParser, ResponseSchema
 from langchain.schema.runnable import RunnablePassthrough
+from utils.config import STREAM_ERROR_MARKER
 
 # === FastAPI application and LLM configuration ===
 app = FastAPI()
@@ -232,6 +233,41 @@ def get_conversational_response(
         return "I'm sorry, I encountered an error while processing your message. Please try again."
 
 
+def stream_conversational_response(
+    task_id: int,
+    group_id: int,
+    user_message: str,
+    conversation_history: List[Dict[str, Any]],
+    task_context: Dict[str, str] = None
+):
+    """
+    Same as get_conversational_response, but yields the reply piece by piece as the LLM produces it.
+    """
+    if task_context:
+        context_info = (
+            f"Project: {task_context.get('task_name', '')}\n"
+            f"Description: {task_context.get('task_description', '')}\n"
+            f"Team: {task_context.get('group_name', '')}\n"
+            f"Task ID: {task_id}, Group ID: {group_id}"
+        )
+    else:
+        context_info = get_task_context(task_id, group_id)
+
+    formatted_history = format_conversation_history(conversation_history)
+
+    try:
+        for chunk in conversation_chain.stream({
+            "conversation_history": formatted_history,
+            "task_context": context_info,
+            "user_message": user_message
+        }):
+            if chunk:
+                yield chunk
+    except Exception as e:
+        print(f"Error streaming conversational response: {e}")
+        yield f"{STREAM_ERROR_MARKER}{e}"
+
+
 def get_task_context(task_id: int, group_id: int) -> str:
     """
     Retrieve basic task context information.
@@ -32,3 +32,9 @@ DATABASE_URL = (
     f"{DB_USER}:{DB_PASS}@{DB_HOST}:{DB_PORT}/{DB_NAME}"
     "?charset=utf8mb4"
 )
+
+# ========== Streaming Responses ==========
+
+# Sent in place of further text when a streamed answer fails part-way; the Java backend
+# reports it as an error instead of saving the partial answer. NUL never occurs in LLM text.
+STREAM_ERROR_MARKER = "\x00ERROR:"
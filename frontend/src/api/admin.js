@@ -1,4 +1,5 @@
 import api from './auth.js'
+import { submitImportJob } from './importJob.js'
 
 // Admin API methods
 export const adminAPI = {
@@ -88,8 +89,9 @@ export const adminAPI = {
   },
 
   // Get user registration trend
-  getRegistrationTrend: () => {
-    return api.get('/api/admin/registration-trend')
+  // params: { from, to, granularity: 'day' | 'week' | 'month' }
+  getRegistrationTrend: (params = {}) => {
+    return api.get('/api/admin/registration-trend', { params })
   },
 
   // Get recent activities
@@ -98,26 +100,12 @@ export const adminAPI = {
   },
 
   // 批量导入学生
-  batchImportStudents: file => {
-    const formData = new FormData()
-    formData.append('file', file)
-    return api.post('/api/admin/students/batch-import', formData, {
-      headers: {
-        'Content-Type': 'multipart/form-data'
-      }
-    })
-  },
+  batchImportStudents: (file, signal) =>
+    submitImportJob('/api/admin/students/batch-import', file, '/api/admin/import-jobs', signal),
 
   // 批量导入教师
-  batchImportTeachers: file => {
-    const formData = new FormData()
-    formData.append('file', file)
-    return api.post('/api/admin/teachers/batch-import', formData, {
-      headers: {
-        'Content-Type': 'multipart/form-data'
-      }
-    })
-  }
+  batchImportTeachers: (file, signal) =>
+    submitImportJob('/api/admin/teachers/batch-import', file, '/api/admin/import-jobs', signal)
 }
 
 export default adminAPI
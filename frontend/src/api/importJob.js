@@ -0,0 +1,81 @@
+import api from './auth.js'
+
+const POLL_INTERVAL_MS = 1500
+// A job still running after this long is reported as timed out; it keeps running on the server
+const MAX_WAIT_MS = 10 * 60 * 1000
+
+const abortError = () => {
+  const error = new Error('Import polling was cancelled')
+  error.name = 'AbortError'
+  return error
+}
+
+const wait = (ms, signal) =>
+  new Promise((resolve, reject) => {
+    if (signal?.aborted) {
+      reject(abortError())
+      return
+    }
+    const timer = setTimeout(() => {
+      signal?.removeEventListener('abort', onAbort)
+      resolve()
+    }, ms)
+    const onAbort = () => {
+      clearTimeout(timer)
+      reject(abortError())
+    }
+    signal?.addEventListener('abort', onAbort, { once: true })
+  })
+
+/**
+ * Batch imports run as background jobs on the server. Submit the upload, then poll the
+ * job until it finishes and resolve with a response shaped like the old synchronous one
+ * ({ data: { code, msg, data: { total, success, failed, errors } } }).
+ * Polling gives up after MAX_WAIT_MS, and stops with an AbortError when signal is aborted
+ * (pass the signal of an AbortController aborted when the calling view unmounts).
+ */
+export const submitImportJob = async (url, file, statusPath, signal) => {
+  try {
+    return await runImportJob(url, file, statusPath, signal)
+  } catch (error) {
+    // Axios reports an aborted request as CanceledError; callers only need to check for AbortError
+    throw signal?.aborted ? abortError() : error
+  }
+}
+
+const runImportJob = async (url, file, statusPath, signal) => {
+  const formData = new FormData()
+  formData.append('file', file)
+  const submitted = await api.post(url, formData, {
+    headers: {
+      'Content-Type': 'multipart/form-data'
+    },
+    signal
+  })
+  if (!submitted.data || submitted.data.code !== 1) {
+    return submitted
+  }
+
+  const jobId = submitted.data.data.jobId
+  const deadline = Date.now() + MAX_WAIT_MS
+  while (Date.now() < deadline) {
+    await wait(POLL_INTERVAL_MS, signal)
+    const response = await api.get(`${statusPath}/${jobId}`, { signal })
+    if (!response.data || response.data.code !== 1) {
+      return response
+    }
+    const job = response.data.data
+    if (job.status === 'SUCCEEDED') {
+      return response
+    }
+    if (job.status === 'FAILED') {
+      return { ...response, data: { code: 0, msg: job.errorMessage || 'Import failed', data: job } }
+    }
+  }
+  return {
+    data: {
+      code: 0,
+      msg: 'The import is taking longer than expected; check the imported records again later'
+    }
+  }
+}
@@ -1,5 +1,66 @@
 import api from './auth.js'
 
+/**
+ * POST a JSON body to a server-sent events endpoint. EventSource only supports GET,
+ * so the stream is read with fetch. Chunk events carry raw text: the server writes
+ * "data:" with no space after it, so leading spaces belong to the text.
+ */
+const streamEvents = async (url, body, onChunk, signal) => {
+  const token = localStorage.getItem('authToken')
+  const response = await fetch((process.env.VUE_APP_API_URL || '') + url, {
+    method: 'POST',
+    headers: {
+      'Content-Type': 'application/json',
+      Accept: 'text/event-stream',
+      ...(token ? { Authorization: `Bearer ${token}` } : {})
+    },
+    body: JSON.stringify(body),
+    signal
+  })
+  if (response.status === 401) {
+    localStorage.removeItem('authToken')
+    window.location.href = '/'
+  }
+  if (!response.ok || !response.body) {
+    throw new Error(`Stream request failed with status ${response.status}`)
+  }
+
+  const reader = response.body.getReader()
+  const decoder = new TextDecoder()
+  let buffer = ''
+  for (;;) {
+    const { value, done } = await reader.read()
+    if (done) {
+      throw new Error('Stream ended before the reply was complete')
+    }
+    buffer += decoder.decode(value, { stream: true })
+    let end
+    while ((end = buffer.indexOf('\n\n')) >= 0) {
+      const block = buffer.slice(0, end)
+      buffer = buffer.slice(end + 2)
+      let event = 'message'
+      const data = []
+      block.split('\n').forEach(line => {
+        if (line.startsWith('event:')) {
+          event = line.slice(6).trim()
+        } else if (line.startsWith('data:')) {
+          data.push(line.slice(5))
+        }
+      })
+      const text = data.join('\n')
+      if (event === 'chunk') {
+        onChunk(text)
+      } else if (event === 'done') {
+        reader.cancel()
+        return JSON.parse(text).response
+      } else if (event === 'error') {
+        reader.cancel()
+        throw new Error(JSON.parse(text).message)
+      }
+    }
+  }
+}
+
 // Student API methods
 export const studentAPI = {
   // Get student info
@@ -66,10 +127,10 @@ export const studentAPI = {
     return api.put(`/api/student/weekly-goals/${data.id}`, data)
   },
 
-  // Generate weekly goal using AI
-  generateWeeklyGoal: (taskId, weekNo) => {
+  // Generate weekly goal using AI; refresh skips the server's cached answer for the same inputs
+  generateWeeklyGoal: (taskId, weekNo, refresh = false) => {
     return api.post(
-      `/api/student/tasks/${taskId}/weekly-goals/generate?weekNo=${weekNo}`
+      `/api/student/tasks/${taskId}/weekly-goals/generate?weekNo=${weekNo}&refresh=${refresh}`
     )
   },
 
@@ -128,6 +189,12 @@ export const studentAPI = {
     })
   },
 
+  // Send message and stream the agent reply; onChunk receives text as it is generated.
+  // Resolves with the full reply, rejects if the agent fails (nothing is saved then).
+  streamMessage: (taskId, content, onChunk, signal) => {
+    return streamEvents('/api/student/conversations/stream', { taskId, content }, onChunk, signal)
+  },
+
   // Check meeting upload requirements
   checkMeetingUploadRequirements: (taskId, meetingNo) => {
     return api.post('/api/student/meetings/check-upload-requirements', {
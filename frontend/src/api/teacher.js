@@ -1,4 +1,5 @@
 import api from './auth.js'
+import { submitImportJob } from './importJob.js'
 
 /**
  * Teacher-related API
@@ -54,36 +55,20 @@ export const teacherAPI = {
     return api.get('/api/teacher/searchStudent', { params: { name } })
   },
 
-  // Batch import students
-  batchImportStudents: file => {
-    const formData = new FormData()
-    formData.append('file', file)
-    return api.post('/api/teacher/students/batch-import', formData, {
-      headers: {
-        'Content-Type': 'multipart/form-data'
-      }
-    })
+  // Full-text search of agent transcripts and task/meeting documents ({ q, groupId, limit })
+  searchContent(params) {
+    return api.get('/api/teacher/search', { params })
   },
 
+  // Batch import students
+  batchImportStudents: (file, signal) =>
+    submitImportJob('/api/teacher/students/batch-import', file, '/api/teacher/import-jobs', signal),
+
   // Batch import groups
-  batchImportGroups: file => {
-    const formData = new FormData()
-    formData.append('file', file)
-    return api.post('/api/teacher/groups/batch-import', formData, {
-      headers: {
-        'Content-Type': 'multipart/form-data'
-      }
-    })
-  },
+  batchImportGroups: (file, signal) =>
+    submitImportJob('/api/teacher/groups/batch-import', file, '/api/teacher/import-jobs', signal),
 
   // Batch import tasks
-  batchImportTasks: file => {
-    const formData = new FormData()
-    formData.append('file', file)
-    return api.post('/api/teacher/tasks/batch-import', formData, {
-      headers: {
-        'Content-Type': 'multipart/form-data'
-      }
-    })
-  }
+  batchImportTasks: (file, signal) =>
+    submitImportJob('/api/teacher/tasks/batch-import', file, '/api/teacher/import-jobs', signal)
 }